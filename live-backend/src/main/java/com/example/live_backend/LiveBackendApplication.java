@@ -3,9 +3,11 @@ package com.example.live_backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EntityScan(basePackages = "com.example.live_backend.model")
+@EnableScheduling
 public class LiveBackendApplication {
 
 	public static void main(String[] args) {
@@ -1,18 +1,28 @@
 package com.example.live_backend;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.example.live_backend.security.StompAuthChannelInterceptor;
+import com.example.live_backend.service.Location.LocationFormatInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final LocationFormatInterceptor locationFormatInterceptor;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        // /queue carries per-user replies such as location acks
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -20,5 +30,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // The /ws is your handshake endpoint
         registry.addEndpoint("/ws").setAllowedOrigins("*").withSockJS();
+        // Plain WebSocket, no SockJS fallback: the only transport that can carry binary location frames
+        registry.addEndpoint(LocationFormatInterceptor.NATIVE_ENDPOINT).setAllowedOrigins("*")
+            .addInterceptors(LocationFormatInterceptor.nativeSessionMarker());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor, locationFormatInterceptor);
     }
 }
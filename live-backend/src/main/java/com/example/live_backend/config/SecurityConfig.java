@@ -40,6 +40,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/recommendations").permitAll()
                 .requestMatchers("/api/schedules/**").permitAll()
+                // STOMP sessions authenticate on CONNECT, see StompAuthChannelInterceptor
+                .requestMatchers("/ws/**", "/ws-native").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
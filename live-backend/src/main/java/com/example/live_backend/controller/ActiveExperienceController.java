@@ -1,23 +1,30 @@
 package com.example.live_backend.controller;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.live_backend.dto.Activity.ActiveExperienceRequest;
 import com.example.live_backend.dto.Activity.ActiveExperienceResponse;
 import com.example.live_backend.security.CustomUserDetails;
+import com.example.live_backend.service.ActiveExperienceParticipantService;
 import com.example.live_backend.service.Experience.ActiveExperienceService;
 import com.example.live_backend.dto.User.LocationUpdateRequest;
+import com.example.live_backend.dto.User.LocationUpdateResponse;
 import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequiredArgsConstructor
 public class ActiveExperienceController {
     private final ActiveExperienceService activeExperienceService;
+    private final ActiveExperienceParticipantService activeExperienceParticipantService;
 
     // @PostMapping("/active-experiences")
     // public ActiveExperienceResponse startActiveExperience(@RequestBody ActiveExperienceRequest request) {
@@ -25,8 +32,27 @@ public class ActiveExperienceController {
     // }
 
     @PostMapping("/{activeExperienceId}/location")
-    public ResponseEntity<Void> updateLocation(@PathVariable Long activeExperienceId, @AuthenticationPrincipal CustomUserDetails userDetails, @RequestBody LocationUpdateRequest req) {
-        activeExperienceService.updateUserLocation(activeExperienceId, userDetails.getUser().getId(), req.getLatitude(), req.getLongitude());
+    public ResponseEntity<LocationUpdateResponse> updateLocation(@PathVariable Long activeExperienceId, @AuthenticationPrincipal CustomUserDetails userDetails, @RequestBody LocationUpdateRequest req) {
+        return ResponseEntity.ok(activeExperienceService.updateUserLocation(activeExperienceId, userDetails.getUser().getId(), req.getLatitude(), req.getLongitude()));
+    }
+
+    @PostMapping("/{activeExperienceId}/participants")
+    public ResponseEntity<Void> join(@PathVariable Long activeExperienceId, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        activeExperienceParticipantService.join(activeExperienceId, userDetails.getUser().getId());
         return ResponseEntity.ok().build();
     }
+
+    @DeleteMapping("/{activeExperienceId}/participants")
+    public ResponseEntity<Void> leave(@PathVariable Long activeExperienceId, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        activeExperienceParticipantService.leave(activeExperienceId, userDetails.getUser().getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping(value = "/{activeExperienceId}/tracks", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTracks(@PathVariable Long activeExperienceId, @AuthenticationPrincipal CustomUserDetails userDetails, @RequestParam(defaultValue = "5000") long resolutionMs) {
+        // Checked before streaming starts so a non-participant gets an error status, not a cut-off body
+        activeExperienceService.requireParticipant(activeExperienceId, userDetails.getUser().getId());
+        StreamingResponseBody body = out -> activeExperienceService.exportTracks(activeExperienceId, resolutionMs, out);
+        return ResponseEntity.ok(body);
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.live_backend.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.live_backend.dto.Activity.NearbyActivityResponse;
+import com.example.live_backend.service.Activity.NearbyActivityService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/activities")
+@RequiredArgsConstructor
+public class ActivityController {
+    private final NearbyActivityService nearbyActivityService;
+
+    /**
+     * Activities and activity definitions near a point, nearest first. Radius is
+     * capped at 50km and limit at 100.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyActivityResponse>> getNearby(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "1000") double radius,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "all") String type) {
+        return ResponseEntity.ok(nearbyActivityService.findNearby(latitude, longitude, radius, limit, type));
+    }
+}
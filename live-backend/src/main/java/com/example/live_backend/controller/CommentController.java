@@ -0,0 +1,56 @@
+package com.example.live_backend.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.live_backend.dto.Post.CommentPageResponse;
+import com.example.live_backend.dto.Post.CommentRequest;
+import com.example.live_backend.dto.Post.CommentResponse;
+import com.example.live_backend.security.CustomUserDetails;
+import com.example.live_backend.service.CommentService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/posts/{postId}/comments")
+@RequiredArgsConstructor
+public class CommentController {
+
+    private final CommentService commentService;
+
+    @GetMapping
+    public ResponseEntity<CommentPageResponse> getComments(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(commentService.getComments(postId, cursor, limit));
+    }
+
+    @PostMapping
+    public ResponseEntity<CommentResponse> addComment(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable Long postId,
+            @Valid @RequestBody CommentRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(commentService.addComment(postId, userDetails.getUser(), request));
+    }
+
+    @DeleteMapping("/{commentId}")
+    public ResponseEntity<Void> deleteComment(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable Long postId,
+            @PathVariable Long commentId) {
+        commentService.deleteComment(postId, commentId, userDetails.getUser().getId());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.live_backend.controller;
 
 import com.example.live_backend.security.CustomUserDetails;
 import com.example.live_backend.service.ChatGPTService;
+import com.example.live_backend.service.Chat.ConversationStore;
 import com.example.live_backend.service.Experience.ExperienceService;
 
 import jakarta.validation.Valid;
@@ -78,22 +79,35 @@ public class ExperienceController {
 
     @PostMapping("/suggest")
     public ResponseEntity<List<ActivityResponse>> suggestActivities(     
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(defaultValue = ConversationStore.DEFAULT_SESSION) String sessionId,
             @RequestParam String prompt,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam String location) {
-        List<ActivityResponse> suggestions = chatGPTService.generateActivitiesSuggestions(prompt, startDate, endDate, location);
+        List<ActivityResponse> suggestions = chatGPTService.generateActivitiesSuggestions(
+                userDetails.getUser().getId(), sessionId, prompt, startDate, endDate, location);
         return ResponseEntity.ok(suggestions);
     }
 
+    @DeleteMapping("/suggest")
+    public ResponseEntity<Void> resetSuggestions(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(defaultValue = ConversationStore.DEFAULT_SESSION) String sessionId) {
+        chatGPTService.resetConversation(userDetails.getUser().getId(), sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/{scheduleId}/refine")
     public ResponseEntity<List<ActivityResponse>> refineSchedule(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PathVariable Long experienceId,
+            @RequestParam(defaultValue = ConversationStore.DEFAULT_SESSION) String sessionId,
             @RequestParam String refinementPrompt) {
         ExperienceResponse experience = experienceService.getExperienceById(experienceId, userDetails.getUsername());   
         List<ActivityResponse> currentActivities = experience.getActivities();
-        List<ActivityResponse> refinedActivities = chatGPTService.refineExperience(currentActivities, refinementPrompt);
+        List<ActivityResponse> refinedActivities = chatGPTService.refineExperience(
+                userDetails.getUser().getId(), sessionId, currentActivities, refinementPrompt);
         return ResponseEntity.ok(refinedActivities);
     }
 } 
\ No newline at end of file
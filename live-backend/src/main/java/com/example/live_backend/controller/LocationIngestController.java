@@ -0,0 +1,52 @@
+package com.example.live_backend.controller;
+
+import java.security.Principal;
+
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import com.example.live_backend.dto.User.LocationBatchRequest;
+import com.example.live_backend.dto.User.LocationUpdateResponse;
+import com.example.live_backend.security.CustomUserDetails;
+import com.example.live_backend.service.Experience.ActiveExperienceService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Location ingest over the STOMP connection clients already hold for
+ * broadcasts. SEND to /app/active-experience/{id}/location with a batch of
+ * samples; the ack with the recommended send interval comes back on
+ * /user/queue/location-ack, errors on /user/queue/location-errors.
+ */
+@Controller
+@RequiredArgsConstructor
+public class LocationIngestController {
+    private final ActiveExperienceService activeExperienceService;
+
+    @MessageMapping("/active-experience/{activeExperienceId}/location")
+    @SendToUser(destinations = "/queue/location-ack", broadcast = false)
+    public LocationUpdateResponse ingest(@DestinationVariable Long activeExperienceId,
+                                         @Payload @Valid LocationBatchRequest request, Principal principal) {
+        return activeExperienceService.updateUserLocations(activeExperienceId, userId(principal), request.getSamples());
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/location-errors", broadcast = false)
+    public String handleError(Exception e) {
+        return e.getMessage();
+    }
+
+    private static Long userId(Principal principal) {
+        if (principal instanceof Authentication
+                && ((Authentication) principal).getPrincipal() instanceof CustomUserDetails) {
+            return ((CustomUserDetails) ((Authentication) principal).getPrincipal()).getUserId();
+        }
+        throw new RuntimeException("Unauthenticated STOMP session");
+    }
+}
@@ -2,16 +2,31 @@ package com.example.live_backend.controller;
 
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.live_backend.dto.Post.FeedPageResponse;
+import com.example.live_backend.dto.Post.ImpressionRequest;
+import com.example.live_backend.dto.Post.PostRequest;
 import com.example.live_backend.dto.Post.PostResponse;
 import com.example.live_backend.security.CustomUserDetails;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import com.example.live_backend.service.PostService;
+import com.example.live_backend.service.Feed.ExploreFeedSnapshot;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -19,14 +34,78 @@ import com.example.live_backend.service.PostService;
 public class PostController {
 
     private final PostService postService;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PostResponse> createPost(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody PostRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(postService.createPost(userDetails.getUser(), request, List.of()));
+    }
+
+    // Photos are uploaded in the background; their urls are attached to the post afterwards
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PostResponse> createPostWithPhotos(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestPart("post") PostRequest request,
+            @RequestPart(value = "photos", required = false) List<MultipartFile> photos) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(postService.createPost(userDetails.getUser(), request, photos));
+    }
     
     @GetMapping("/feed/following")
-    public ResponseEntity<List<PostResponse>> getFollowingFeed(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        return ResponseEntity.ok(postService.getFollowingFeed(userDetails.getUsername()));
+    public ResponseEntity<FeedPageResponse> getFollowingFeed(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(postService.getFollowingFeed(userDetails.getUser().getId(), cursor, limit));
     }
 
+    // Usually the shared pre-serialized page with an ETag (304 when current);
+    // a plain list when seen posts had to be filtered out for this viewer, which
+    // may be short or empty mid-feed. Only an empty page with an ETag ends the feed.
     @GetMapping("/feed/explore")
-    public ResponseEntity<List<PostResponse>> getExploreFeed() {
-        return ResponseEntity.ok(postService.getExploreFeed());
+    public ResponseEntity<?> getExploreFeed(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ExploreFeedSnapshot.Page explorePage = postService.getExplorePage(userDetails.getUser().getId(), page);
+        if (explorePage.getBody() == null) {
+            return ResponseEntity.ok(explorePage.getPosts());
+        }
+        if (ifNoneMatch != null && ifNoneMatch.contains(explorePage.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(explorePage.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(explorePage.getEtag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(explorePage.getBody());
+    }
+
+    @GetMapping("/feed/trending")
+    public ResponseEntity<List<PostResponse>> getTrendingFeed(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(postService.getTrendingFeed(userDetails.getUser().getId(), limit));
+    }
+
+    @PostMapping("/impressions")
+    public ResponseEntity<Void> recordImpressions(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody ImpressionRequest request) {
+        postService.recordImpressions(userDetails.getUser().getId(), request.getPostIds());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{postId}/like")
+    public ResponseEntity<Void> likePost(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable Long postId) {
+        postService.likePost(postId, userDetails.getUser().getId());
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/{postId}/unlike")
+    public ResponseEntity<Void> unlikePost(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable Long postId) {
+        postService.unlikePost(postId, userDetails.getUser().getId());
+        return ResponseEntity.ok().build();
     }
 }
@@ -1,12 +1,15 @@
 package com.example.live_backend.controller;
 
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.live_backend.dto.Activity.ActivityResponse;
+import com.example.live_backend.security.CustomUserDetails;
 import com.example.live_backend.service.ChatGPTService;
+import com.example.live_backend.service.Chat.ConversationStore;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,12 +24,16 @@ public class RecommendationController {
     private final ChatGPTService chatGPTService;
 
     @PostMapping("/recommendations")
-    public List<ActivityResponse> recommendActivities(@RequestBody Map<String, String> payload) {
+    public List<ActivityResponse> recommendActivities(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                      @RequestBody Map<String, String> payload) {
         System.out.println("Received request for activity: " + payload); // Debug log
         try {
             String chosenActivity = payload.get("chosenActivity");
             System.out.println("Received request for activity: " + chosenActivity); // Debug log
-            return chatGPTService.recommendActivities(chosenActivity);
+            // Open endpoint: anonymous callers get no history, whatever session id they send
+            Long userId = userDetails == null ? null : userDetails.getUserId();
+            String sessionId = payload.getOrDefault("sessionId", ConversationStore.DEFAULT_SESSION);
+            return chatGPTService.recommendActivities(userId, sessionId, chosenActivity);
         } catch (Exception e) {
             System.err.println("Error in recommendation controller: " + e.getMessage()); // Debug log
             e.printStackTrace(); // Print full stack trace
@@ -1,9 +1,12 @@
 package com.example.live_backend.controller;
 
+import com.example.live_backend.dto.User.BulkFollowRequest;
 import com.example.live_backend.dto.User.ShareLocationRequest;
+import com.example.live_backend.dto.User.UserPageResponse;
 import com.example.live_backend.dto.User.UserRequest;
 import com.example.live_backend.dto.User.UserResponse;
 import com.example.live_backend.security.CustomUserDetails;
+import com.example.live_backend.service.FriendSuggestionService;
 import com.example.live_backend.service.UserService;
 
 import jakarta.validation.Valid;
@@ -11,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 import java.util.Set;
 
 @RestController
@@ -19,10 +23,22 @@ import java.util.Set;
 public class UserController {
 
     private final UserService userService;
+    private final FriendSuggestionService friendSuggestionService;
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUser(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    public ResponseEntity<UserResponse> getUser(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(userService.getUserProfile(id, userDetails.getUser().getId()));
+    }
+
+    // "People you may know", ranked by mutual friends
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<UserResponse>> getSuggestions(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(defaultValue = "20") int limit) {
+        int pageSize = Math.min(limit, FriendSuggestionService.MAX_SUGGESTIONS);
+        return ResponseEntity.ok(friendSuggestionService.getSuggestions(userDetails.getUser().getId(), pageSize));
     }
 
     @PutMapping("/{id}")
@@ -53,13 +69,19 @@ public class UserController {
     }
 
     @GetMapping("/following")
-    public ResponseEntity<Set<UserResponse>> getFollowing(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        return ResponseEntity.ok(userService.getFollowing(userDetails.getUser().getId()));
+    public ResponseEntity<UserPageResponse> getFollowing(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(userService.getFollowing(userDetails.getUser().getId(), cursor, limit));
     }
 
     @GetMapping("/followers")
-    public ResponseEntity<Set<UserResponse>> getFollowers(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        return ResponseEntity.ok(userService.getFollowers(userDetails.getUser().getId()));
+    public ResponseEntity<UserPageResponse> getFollowers(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(userService.getFollowers(userDetails.getUser().getId(), cursor, limit));
     }
 
     @PostMapping("/{userIdToFollow}/follow")
@@ -68,6 +90,14 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
 
+    // Returns the ids that were newly followed
+    @PostMapping("/follow/bulk")
+    public ResponseEntity<List<Long>> bulkFollow(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody BulkFollowRequest request) {
+        return ResponseEntity.ok(userService.bulkFollow(userDetails.getUser().getId(), request.getUserIds()));
+    }
+
     @PostMapping("/{userIdToUnfollow}/unfollow")
     public ResponseEntity<Void> unfollowUser(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable Long userIdToUnfollow) {
         userService.unfollowUser(userDetails.getUser().getId(), userIdToUnfollow);
@@ -1,6 +1,8 @@
 package com.example.live_backend.dto.Activity;
 
 import lombok.Data;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 
 @Data
@@ -10,4 +12,10 @@ public class ActivityDefinitionRequest {
     
     @NotBlank(message = "Location is required")
     private String location;
+
+    @DecimalMin("-90") @DecimalMax("90")
+    private Double latitude;
+
+    @DecimalMin("-180") @DecimalMax("180")
+    private Double longitude;
 } 
\ No newline at end of file
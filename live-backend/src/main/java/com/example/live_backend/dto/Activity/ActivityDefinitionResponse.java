@@ -9,4 +9,6 @@ public class ActivityDefinitionResponse {
     private Long id;
     private String title;
     private String location;
+    private Double latitude;
+    private Double longitude;
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.live_backend.dto.Activity;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NearbyActivityResponse {
+    // "activity" for a scheduled Activity, "definition" for an ActivityDefinition
+    private String type;
+    private Long id;
+    private String title;
+    private String location;
+    private double latitude;
+    private double longitude;
+    private double distanceMeters;
+}
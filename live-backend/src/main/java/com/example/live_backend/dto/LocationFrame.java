@@ -0,0 +1,16 @@
+package com.example.live_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Everyone in an active experience who moved during the last broadcast tick.
+ */
+@Data
+@AllArgsConstructor
+public class LocationFrame {
+    private Long activeExperienceId;
+    private List<LocationBroadcast> positions;
+}
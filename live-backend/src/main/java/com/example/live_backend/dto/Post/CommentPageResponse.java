@@ -0,0 +1,17 @@
+package com.example.live_backend.dto.Post;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageResponse {
+    private List<CommentResponse> comments;
+
+    // Null on the last page
+    private String nextCursor;
+}
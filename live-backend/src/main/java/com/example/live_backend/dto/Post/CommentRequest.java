@@ -0,0 +1,12 @@
+package com.example.live_backend.dto.Post;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CommentRequest {
+    @NotBlank
+    @Size(max = 1000)
+    private String content;
+}
@@ -0,0 +1,16 @@
+package com.example.live_backend.dto.Post;
+
+import java.time.LocalDateTime;
+
+import com.example.live_backend.dto.User.UserResponse;
+
+import lombok.Data;
+
+@Data
+public class CommentResponse {
+    private Long id;
+    private Long postId;
+    private UserResponse user;
+    private String content;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.example.live_backend.dto.Post;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPageResponse {
+    private List<PostResponse> posts;
+
+    // Pass back as ?cursor= to fetch the next page; null when there are no more posts
+    private String nextCursor;
+}
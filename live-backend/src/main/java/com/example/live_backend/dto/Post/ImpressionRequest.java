@@ -0,0 +1,15 @@
+package com.example.live_backend.dto.Post;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ImpressionRequest {
+    // Posts the client has displayed since its last report
+    @NotNull
+    @Size(max = 500)
+    private List<Long> postIds;
+}
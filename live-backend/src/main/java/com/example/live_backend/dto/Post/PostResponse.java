@@ -18,5 +18,6 @@ public class PostResponse {
     private String location;
     private int likeCount;
     private int commentCount;
+    private boolean likedByViewer;
 }
     
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.live_backend.dto.User;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BulkFollowRequest {
+    @NotNull
+    @Size(max = 500)
+    private List<Long> userIds;
+}
@@ -0,0 +1,15 @@
+package com.example.live_backend.dto.User;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class LocationBatchRequest {
+    @NotEmpty
+    @Size(max = 120)
+    private List<@Valid LocationSample> samples;
+}
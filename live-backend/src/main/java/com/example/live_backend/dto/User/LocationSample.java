@@ -0,0 +1,24 @@
+package com.example.live_backend.dto.User;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationSample {
+    @NotNull
+    @DecimalMin("-90") @DecimalMax("90")
+    private Double latitude;
+
+    @NotNull
+    @DecimalMin("-180") @DecimalMax("180")
+    private Double longitude;
+
+    // Epoch millis when the phone took the fix; receipt time if absent
+    private Long timestamp;
+}
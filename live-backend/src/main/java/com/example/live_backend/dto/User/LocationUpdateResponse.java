@@ -0,0 +1,16 @@
+package com.example.live_backend.dto.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationUpdateResponse {
+    // False when the sample was dropped: too small a move, out of order, or sharing is off
+    private boolean accepted;
+
+    // How long the client should wait before sending its next sample
+    private long recommendedIntervalMs;
+}
@@ -0,0 +1,17 @@
+package com.example.live_backend.dto.User;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserResponse> users;
+
+    // Id of the last user on this page; null on the last page
+    private Long nextCursor;
+}
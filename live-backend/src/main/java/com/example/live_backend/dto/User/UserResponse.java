@@ -16,6 +16,9 @@ public class UserResponse {
     private int followerCount;
     private int followingCount;
 
+    // Friends shared with the viewer; only filled on profile views and suggestions
+    private int mutualFriendCount;
+
     // If you want to show if the user is an admin or not:
     private String role;  //take out?
 
@@ -14,6 +14,8 @@ public class ActivityDefinitionMapper {
                 .id(activity.getId())
                 .title(activity.getTitle())
                 .location(activity.getLocation())
+                .latitude(activity.getLatitude())
+                .longitude(activity.getLongitude())
                 .build();
     }
     
@@ -21,12 +23,16 @@ public class ActivityDefinitionMapper {
         ActivityDefinition activity = new ActivityDefinition();
         activity.setTitle(request.getTitle());
         activity.setLocation(request.getLocation());
+        activity.setLatitude(request.getLatitude());
+        activity.setLongitude(request.getLongitude());
         return activity;
     }
     
     public ActivityDefinition updateEntity(ActivityDefinition activity, ActivityDefinitionRequest request) {
         activity.setTitle(request.getTitle());
         activity.setLocation(request.getLocation());
+        activity.setLatitude(request.getLatitude());
+        activity.setLongitude(request.getLongitude());
         return activity;
     }
 }
@@ -0,0 +1,36 @@
+package com.example.live_backend.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.dto.Post.CommentRequest;
+import com.example.live_backend.dto.Post.CommentResponse;
+import com.example.live_backend.model.Social.Comment;
+import com.example.live_backend.model.Social.Post;
+import com.example.live_backend.model.User.User;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class CommentMapper {
+
+    private final UserMapper userMapper;
+
+    public CommentResponse toResponse(Comment comment, Long postId) {
+        CommentResponse response = new CommentResponse();
+        response.setId(comment.getId());
+        response.setPostId(postId);
+        response.setUser(userMapper.toResponse(comment.getUser()));
+        response.setContent(comment.getContent());
+        response.setCreatedAt(comment.getCreatedAt());
+        return response;
+    }
+
+    public Comment toEntity(CommentRequest request, Post post, User user) {
+        Comment comment = new Comment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setContent(request.getContent());
+        return comment;
+    }
+}
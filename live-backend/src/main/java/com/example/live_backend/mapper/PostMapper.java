@@ -16,7 +16,11 @@ public class PostMapper {
     private final UserMapper userMapper;
     
 
-    public PostResponse toResponse(Post post) {
+    /**
+     * Counts and liked-state are passed in rather than read from the entity so that
+     * mapping never initializes the likes or comments collections.
+     */
+    public PostResponse toResponse(Post post, int likeCount, int commentCount, boolean likedByViewer) {
         PostResponse response = new PostResponse();
         response.setId(post.getId());
         response.setUser(userMapper.toResponse(post.getUser()));
@@ -25,8 +29,9 @@ public class PostMapper {
         response.setImageUrl(post.getImageUrl());
         response.setPublic(post.isPublic());
         response.setLocation(post.getLocation());
-        response.setLikeCount(post.getLikes().size());
-        response.setCommentCount(post.getComments().size());
+        response.setLikeCount(likeCount);
+        response.setCommentCount(commentCount);
+        response.setLikedByViewer(likedByViewer);
         return response;
     }
 
@@ -17,6 +17,8 @@ public class UserMapper {
         response.setProfilePicture(user.getProfilePicture());
         response.setShareLocation(user.isShareLocation());
         response.setBio(user.getBio());
+        response.setFollowerCount(user.getFollowerCount());
+        response.setFollowingCount(user.getFollowingCount());
         return response;
     }
 
@@ -13,4 +13,8 @@ public class ActivityDefinition {
 
     private String title;
     private String location;
+
+    // Optional; definitions with coordinates show up in nearby searches
+    private Double latitude;
+    private Double longitude;
 }
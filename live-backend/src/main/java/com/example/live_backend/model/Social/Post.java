@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import com.example.live_backend.model.User.User;
@@ -16,13 +17,16 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "posts")
+@Table(
+    name = "posts",
+    indexes = @Index(name = "idx_posts_user_created_id", columnList = "user_id, created_at, id")
+)
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -50,6 +54,11 @@ public class Post {
 
     private int likeCount = 0;
 
+    // Kept in step by CommentService; rendering never sizes the comments collection.
+    // CountBackfill recomputes it at startup for rows that predate the column
+    @ColumnDefault("0")
+    private int commentCount = 0;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 }
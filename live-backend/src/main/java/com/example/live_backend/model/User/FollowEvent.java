@@ -0,0 +1,39 @@
+package com.example.live_backend.model.User;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Append-only log of follow graph changes. SocialGraphIndex replays the events
+ * newer than its snapshot when it starts.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "follow_events")
+public class FollowEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long followerId;
+
+    @Column(nullable = false)
+    private Long followeeId;
+
+    // false for an unfollow
+    @Column(nullable = false)
+    private boolean followed;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -7,6 +7,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
@@ -47,6 +49,14 @@ public class User {
 
     private boolean shareLocation = false;
 
+    // Maintained by UserService on follow/unfollow so profiles never count user_following;
+    // CountBackfill recomputes them at startup for rows that predate the columns
+    @ColumnDefault("0")
+    private int followerCount = 0;
+
+    @ColumnDefault("0")
+    private int followingCount = 0;
+
     /**
      * The set of users that *this* user is following.
      * 
@@ -99,6 +109,7 @@ public class User {
 
     /**
      * Returns all users with whom this user is "friends" (mutual following).
+     * Initializes both collections; services should use SocialGraphIndex instead.
      */
     public Set<User> getFriends() {
         Set<User> mutual = new HashSet<>(this.following);
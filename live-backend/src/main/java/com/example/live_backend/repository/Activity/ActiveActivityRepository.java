@@ -5,5 +5,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import com.example.live_backend.model.Activity.ActiveActivity;
 
 public interface ActiveActivityRepository extends JpaRepository<ActiveActivity, Long> {
-    
+    boolean existsByActiveExperienceIdAndActivityId(Long activeExperienceId, Long activityId);
 }
@@ -1,9 +1,16 @@
 package com.example.live_backend.repository.Experience;
 
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.example.live_backend.model.Experience.ActiveExperience;
 import com.example.live_backend.model.Experience.Experience;
 public interface ActiveExperienceRepository extends JpaRepository<ActiveExperience, Long> {
     boolean existsByExperience(Experience experience);
+
+    // Activities fetched with it, for use outside a transaction
+    @EntityGraph(attributePaths = "experience.activities")
+    Optional<ActiveExperience> findWithActivitiesById(Long id);
 }
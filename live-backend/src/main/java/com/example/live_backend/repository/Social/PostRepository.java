@@ -1,25 +1,102 @@
 package com.example.live_backend.repository.Social;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.live_backend.model.Social.Post;
-import com.example.live_backend.model.User.User;
 
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
-    // 1) Fetch public posts (for explore)
-    @Query("SELECT p FROM Post p WHERE p.isPublic = TRUE ORDER BY p.createdAt DESC")
-    List<Post> findPublicPostsOrderByCreatedAtDesc();
-
-    // 2) Fetch posts by a list of users
-    @Query("SELECT p FROM Post p WHERE p.user IN :users ORDER BY p.createdAt DESC")
-    List<Post> findByUsers(@Param("users") Set<User> users);
-
-    // 3) Possibly a method for trending:
-    @Query("SELECT p FROM Post p WHERE p.isPublic = TRUE ORDER BY p.likeCount DESC")
-    List<Post> findPublicPostsOrderByLikeCountDesc();
-}
\ No newline at end of file
+    // 1) Ids of the newest public posts (for explore)
+    @Query("SELECT p.id FROM Post p WHERE p.isPublic = TRUE ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findPublicPostIds(Pageable pageable);
+
+    // Sort key of a feed entry, for merging with the cached home timeline
+    interface FeedKey {
+        Long getId();
+        LocalDateTime getCreatedAt();
+    }
+
+    // 2) First page of the following feed, newest first.
+    //    Served by idx_posts_user_created_id; the page size comes from the Pageable.
+    @Query("SELECT p.id FROM Post p WHERE p.user.id IN " +
+           "(SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFollowingFeedIds(@Param("userId") Long userId, Pageable pageable);
+
+    // 2a) Same, with the sort key; warms cached home timelines
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p WHERE p.user.id IN " +
+           "(SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<FeedKey> findFollowingFeedKeys(@Param("userId") Long userId, Pageable pageable);
+
+    // 2b) Following feed continued after a (createdAt, id) keyset cursor
+    @Query("SELECT p.id FROM Post p WHERE p.user.id IN " +
+           "(SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFollowingFeedIdsBefore(@Param("userId") Long userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    // 2c) Posts by specific (high fan-out) authors, merged into timelines at read time
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p WHERE p.user.id IN :authorIds " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<FeedKey> findFeedKeysByAuthors(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p WHERE p.user.id IN :authorIds " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<FeedKey> findFeedKeysByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    @Query("SELECT u.id FROM Post p JOIN p.likes u WHERE p.id = :postId")
+    List<Long> findLikerIds(@Param("postId") Long postId);
+
+    // Feed hydration: one query each for the page, whatever its size
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<Post> findWithAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Post p JOIN p.likes u WHERE u.id = :userId AND p.id IN :ids")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // 3) Recent public posts used to seed the in-memory trending ranking at startup
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt, p.likeCount AS likeCount, p.commentCount AS commentCount " +
+           "FROM Post p WHERE p.isPublic = TRUE AND p.createdAt >= :since")
+    List<TrendingSeed> findTrendingSeeds(@Param("since") LocalDateTime since);
+
+    // Never below zero, even if the stored count had drifted low
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = CASE WHEN p.commentCount + :delta < 0 THEN 0 " +
+           "ELSE p.commentCount + :delta END WHERE p.id = :postId")
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    // Recomputes comment counts from comments, writing only rows that differ
+    @Modifying
+    @Query(value = "UPDATE posts SET comment_count = " +
+                   "(SELECT COUNT(*) FROM comments c WHERE c.post_id = posts.id) " +
+                   "WHERE comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = posts.id)",
+           nativeQuery = true)
+    int recountCommentCounts();
+
+    // Touches only image_url, so concurrent counter updates on the row are not overwritten
+    @Modifying
+    @Query("UPDATE Post p SET p.imageUrl = :urls WHERE p.id = :postId")
+    int updateImageUrls(@Param("postId") Long postId, @Param("urls") List<String> urls);
+
+    interface TrendingSeed {
+        Long getId();
+        LocalDateTime getCreatedAt();
+        int getLikeCount();
+        int getCommentCount();
+    }
+}
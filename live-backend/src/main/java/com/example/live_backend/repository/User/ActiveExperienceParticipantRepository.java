@@ -3,9 +3,18 @@ package com.example.live_backend.repository.User;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.live_backend.model.User.ActiveExperienceParticipant;
 
 public interface ActiveExperienceParticipantRepository extends JpaRepository<ActiveExperienceParticipant, Long> {
     Optional<ActiveExperienceParticipant> findByActiveExperienceIdAndUserId(Long activeExperienceId, Long userId);
+
+    // Empty if the user is not a participant
+    @Query("SELECT u.shareLocation FROM ActiveExperienceParticipant p JOIN p.user u " +
+           "WHERE p.activeExperience.id = :activeExperienceId AND u.id = :userId")
+    Optional<Boolean> findShareLocation(@Param("activeExperienceId") Long activeExperienceId, @Param("userId") Long userId);
+
+    long deleteByActiveExperienceIdAndUserId(Long activeExperienceId, Long userId);
 }
@@ -0,0 +1,27 @@
+package com.example.live_backend.repository.User;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.live_backend.model.User.FollowEvent;
+
+import java.util.Collection;
+
+public interface FollowEventRepository extends JpaRepository<FollowEvent, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO follow_events (follower_id, followee_id, followed, created_at) " +
+                   "VALUES (:followerId, :followeeId, :followed, CURRENT_TIMESTAMP)",
+           nativeQuery = true)
+    void record(@Param("followerId") Long followerId,
+                @Param("followeeId") Long followeeId,
+                @Param("followed") boolean followed);
+
+    @Modifying
+    @Query(value = "INSERT INTO follow_events (follower_id, followee_id, followed, created_at) " +
+                   "SELECT :followerId, u.id, TRUE, CURRENT_TIMESTAMP FROM users u WHERE u.id IN (:followeeIds)",
+           nativeQuery = true)
+    void recordFollows(@Param("followerId") Long followerId, @Param("followeeIds") Collection<Long> followeeIds);
+}
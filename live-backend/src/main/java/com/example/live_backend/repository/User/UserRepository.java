@@ -1,9 +1,14 @@
 package com.example.live_backend.repository.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.live_backend.model.User.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +16,70 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Query("SELECT COUNT(f) FROM User u JOIN u.followers f WHERE u.id = :userId")
+    long countFollowers(@Param("userId") Long userId);
+
+    @Query("SELECT f.id FROM User u JOIN u.followers f WHERE u.id = :userId")
+    List<Long> findFollowerIds(@Param("userId") Long userId);
+
+    // Idempotent follow/unfollow straight on the join table; both return the rows changed
+    @Modifying
+    @Query(value = "INSERT INTO user_following (follower_id, followee_id) " +
+                   "SELECT :followerId, :followeeId WHERE NOT EXISTS (" +
+                   "SELECT 1 FROM user_following WHERE follower_id = :followerId AND followee_id = :followeeId)",
+           nativeQuery = true)
+    int insertFollow(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_following WHERE follower_id = :followerId AND followee_id = :followeeId",
+           nativeQuery = true)
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    // Existing users among the candidates that followerId does not follow yet
+    @Query("SELECT u.id FROM User u WHERE u.id IN :candidateIds AND u.id <> :followerId " +
+           "AND u.id NOT IN (SELECT f.id FROM User me JOIN me.following f WHERE me.id = :followerId)")
+    List<Long> findNotFollowedAmong(@Param("followerId") Long followerId,
+                                    @Param("candidateIds") Collection<Long> candidateIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_following (follower_id, followee_id) " +
+                   "SELECT :followerId, u.id FROM users u WHERE u.id IN (:followeeIds)",
+           nativeQuery = true)
+    int insertFollows(@Param("followerId") Long followerId, @Param("followeeIds") Collection<Long> followeeIds);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + 1 WHERE u.id IN :userIds")
+    int incrementFollowerCounts(@Param("userIds") Collection<Long> userIds);
+
+    // Never below zero, even if the stored count had drifted low
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = CASE WHEN u.followerCount + :delta < 0 THEN 0 " +
+           "ELSE u.followerCount + :delta END WHERE u.id = :userId")
+    int adjustFollowerCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = CASE WHEN u.followingCount + :delta < 0 THEN 0 " +
+           "ELSE u.followingCount + :delta END WHERE u.id = :userId")
+    int adjustFollowingCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+    // Recomputes follower counts from user_following, writing only rows that differ
+    @Modifying
+    @Query(value = "UPDATE users SET follower_count = " +
+                   "(SELECT COUNT(*) FROM user_following f WHERE f.followee_id = users.id) " +
+                   "WHERE follower_count <> (SELECT COUNT(*) FROM user_following f WHERE f.followee_id = users.id)",
+           nativeQuery = true)
+    int recountFollowerCounts();
+
+    @Modifying
+    @Query(value = "UPDATE users SET following_count = " +
+                   "(SELECT COUNT(*) FROM user_following f WHERE f.follower_id = users.id) " +
+                   "WHERE following_count <> (SELECT COUNT(*) FROM user_following f WHERE f.follower_id = users.id)",
+           nativeQuery = true)
+    int recountFollowingCounts();
+
+    // Which of the candidate users does userId follow
+    @Query("SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId AND f.id IN :candidateIds")
+    List<Long> findFollowedIdsAmong(@Param("userId") Long userId,
+                                    @Param("candidateIds") Collection<Long> candidateIds);
 } 
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.live_backend.security;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Authenticates a STOMP session once, from the {@code Authorization: Bearer}
+ * header of its CONNECT frame. The user is then attached to the session and
+ * handed to every @MessageMapping method as its Principal, so later frames skip
+ * the JWT parse. CONNECT without a valid token is refused, and so is any SEND
+ * or SUBSCRIBE on a session that was never authenticated.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.SEND || command == StompCommand.SUBSCRIBE) {
+            if (accessor.getUser() == null) {
+                throw new MessagingException("Not authenticated");
+            }
+            return message;
+        }
+        if (command != StompCommand.CONNECT) {
+            return message;
+        }
+
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new MessagingException("Missing bearer token on CONNECT");
+        }
+        String jwt = authHeader.substring(7);
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtil.extractUsername(jwt));
+            if (!jwtUtil.validateToken(jwt, userDetails)) {
+                throw new MessagingException("Invalid token on CONNECT");
+            }
+            accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        } catch (MessagingException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new MessagingException("Invalid token on CONNECT", e);
+        }
+        return message;
+    }
+}
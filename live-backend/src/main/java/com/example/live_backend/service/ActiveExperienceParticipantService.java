@@ -3,9 +3,19 @@ package com.example.live_backend.service;
 import java.time.LocalDateTime;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.live_backend.model.Experience.ActiveExperience;
+import com.example.live_backend.model.Experience.Experience;
+import com.example.live_backend.model.Experience.ExperienceVisibility;
 import com.example.live_backend.model.User.ActiveExperienceParticipant;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Experience.ActiveExperienceRepository;
+import com.example.live_backend.repository.Experience.ExperienceShareRepository;
 import com.example.live_backend.repository.User.ActiveExperienceParticipantRepository;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Location.GeofenceEngine;
+import com.example.live_backend.service.Location.ParticipantAccessCache;
 
 import lombok.RequiredArgsConstructor;
 
@@ -13,6 +23,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ActiveExperienceParticipantService {
     private final ActiveExperienceParticipantRepository participantRepository;
+    private final ActiveExperienceRepository activeExperienceRepository;
+    private final UserRepository userRepository;
+    private final ExperienceShareRepository experienceShareRepository;
+    private final ParticipantAccessCache participantAccessCache;
+    private final GeofenceEngine geofenceEngine;
 
     public void updateUserLocation(Long activeExperienceId, Long userId, Double lat, Double lon) {
         ActiveExperienceParticipant participant = participantRepository.findByActiveExperienceIdAndUserId(activeExperienceId, userId)
@@ -24,4 +39,43 @@ public class ActiveExperienceParticipantService {
 
         participantRepository.save(participant);
     }
+
+    /**
+     * Adds the user to the active experience if they own the experience, it is
+     * public, or it was shared with them. Joining twice is a no-op.
+     */
+    @Transactional
+    public void join(Long activeExperienceId, Long userId) {
+        if (participantRepository.findByActiveExperienceIdAndUserId(activeExperienceId, userId).isPresent()) {
+            return;
+        }
+        ActiveExperience activeExperience = activeExperienceRepository.findById(activeExperienceId)
+            .orElseThrow(() -> new RuntimeException("ActiveExperience not found"));
+        if (!activeExperience.isActive()) {
+            throw new RuntimeException("ActiveExperience has ended");
+        }
+        Experience experience = activeExperience.getExperience();
+        if (!experience.getUser().getId().equals(userId)
+                && experience.getVisibility() != ExperienceVisibility.PUBLIC
+                && experienceShareRepository.findByExperienceIdAndSharedWithId(experience.getId(), userId).isEmpty()) {
+            throw new RuntimeException("Unauthorized access to experience");
+        }
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        ActiveExperienceParticipant participant = new ActiveExperienceParticipant();
+        participant.setActiveExperience(activeExperience);
+        participant.setUser(user);
+        participantRepository.save(participant);
+        TransactionHooks.afterCommit(() -> participantAccessCache.invalidate(activeExperienceId, userId));
+    }
+
+    @Transactional
+    public void leave(Long activeExperienceId, Long userId) {
+        participantRepository.deleteByActiveExperienceIdAndUserId(activeExperienceId, userId);
+        TransactionHooks.afterCommit(() -> {
+            participantAccessCache.invalidate(activeExperienceId, userId);
+            geofenceEngine.removeParticipant(activeExperienceId, userId);
+        });
+    }
 }
@@ -14,6 +14,7 @@ import com.example.live_backend.model.Experience.ActiveExperience;
 import com.example.live_backend.repository.Activity.ActiveActivityRepository;
 import com.example.live_backend.service.PhotoStorageService;
 import com.example.live_backend.service.Experience.ActiveExperienceService;
+import com.example.live_backend.service.Location.GeofenceEngine;
 import com.example.live_backend.dto.CheckInRequest;
 import com.example.live_backend.dto.Activity.ActiveActivityResponse;
 import com.example.live_backend.mapper.ActiveActivityMapper;
@@ -27,6 +28,8 @@ public class ActiveActivityService {
     private final ActiveExperienceService activeExperienceService;
     private final PhotoStorageService photoStorageService;
     private final ActiveActivityMapper activeActivityMapper;
+    private final NearbyActivityService nearbyActivityService;
+    private final GeofenceEngine geofenceEngine;
 
     @Transactional
     public ActiveActivityResponse startActivity(ActiveExperience activeExperience, Activity activity) {
@@ -78,27 +81,10 @@ public class ActiveActivityService {
         double lon = request.getLongitude();
 
         Activity activity = activeActivity.getActivity();
-        double dist = distance(lat, lon, activity.getLatitude(), activity.getLongitude());
-        if (dist <= 10) {
+        if (nearbyActivityService.isWithin(activity, lat, lon, geofenceEngine.radiusMeters())) {
             return startActivity(activeExperience, activity);
         } else {
             throw new RuntimeException("You are too far from the location!");
         }
     }
-
-    private double distance(double lat1, double lon1, double lat2, double lon2) {
-        // Earth radius in meters
-        double R = 6371e3;
-        double phi1 = Math.toRadians(lat1);
-        double phi2 = Math.toRadians(lat2);
-        double deltaPhi = Math.toRadians(lat2 - lat1);
-        double deltaLambda = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(deltaPhi/2) * Math.sin(deltaPhi/2) +
-                Math.cos(phi1) * Math.cos(phi2) *
-                Math.sin(deltaLambda/2) * Math.sin(deltaLambda/2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        double dist = R * c;
-        return dist;
-    }
 }
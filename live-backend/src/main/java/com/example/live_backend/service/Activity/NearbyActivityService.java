@@ -0,0 +1,182 @@
+package com.example.live_backend.service.Activity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.live_backend.dto.Activity.NearbyActivityResponse;
+import com.example.live_backend.model.Activity.Activity;
+import com.example.live_backend.model.Activity.ActivityDefinition;
+import com.example.live_backend.repository.Activity.ActivityDefinitionRepository;
+import com.example.live_backend.repository.Activity.ActivityRepository;
+import com.example.live_backend.service.Location.GeoGrid;
+import com.example.live_backend.service.Location.GeoMath;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spatial lookups over Activity and ActivityDefinition coordinates.
+ *
+ * Both tables are loaded into one {@link GeoGrid} at startup and rebuilt every
+ * {@code activities.nearby.refresh-ms}; the new grid replaces the old with a
+ * volatile write, so queries never wait on a rebuild. Activities at (0, 0) have
+ * no coordinates and are left out. Rows changed after the grid was built are
+ * checked directly in {@link #isWithin}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NearbyActivityService {
+    public static final int KIND_ACTIVITY = 0;
+    public static final int KIND_DEFINITION = 1;
+    public static final int MAX_RESULTS = 100;
+    public static final double MAX_RADIUS_METERS = 50_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityRepository activityRepository;
+    private final ActivityDefinitionRepository activityDefinitionRepository;
+
+    @Value("${activities.nearby.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    private volatile Snapshot current;
+
+    private static class Snapshot {
+        final GeoGrid grid;
+        final LocalDateTime builtAt;
+
+        Snapshot(GeoGrid grid, LocalDateTime builtAt) {
+            this.grid = grid;
+            this.builtAt = builtAt;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${activities.nearby.refresh-ms:300000}", initialDelayString = "${activities.nearby.refresh-ms:300000}")
+    public void rebuild() {
+        // Taken before reading so rows written during the load count as changed
+        LocalDateTime builtAt = LocalDateTime.now();
+        Points points = new Points();
+        jdbcTemplate.query("SELECT id, latitude, longitude FROM activities WHERE latitude <> 0 OR longitude <> 0",
+            (RowCallbackHandler) rs -> points.add(rs.getLong(1), KIND_ACTIVITY, rs.getDouble(2), rs.getDouble(3)));
+        jdbcTemplate.query("SELECT id, latitude, longitude FROM activities_definitions "
+                + "WHERE latitude IS NOT NULL AND longitude IS NOT NULL",
+            (RowCallbackHandler) rs -> points.add(rs.getLong(1), KIND_DEFINITION, rs.getDouble(2), rs.getDouble(3)));
+
+        long started = System.nanoTime();
+        current = new Snapshot(GeoGrid.build(cellDegrees, points.ids, points.kinds, points.latitudes, points.longitudes, points.size), builtAt);
+        log.info("Nearby activity index rebuilt: {} points in {} ms", points.size, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Activities and/or definitions within {@code radiusMeters}, nearest first.
+     *
+     * @param type "activity", "definition" or "all"
+     */
+    public List<NearbyActivityResponse> findNearby(double latitude, double longitude, double radiusMeters, int limit, String type) {
+        List<GeoGrid.Hit> hits = grid().nearest(latitude, longitude, Math.max(1, Math.min(limit, MAX_RESULTS)),
+            Math.min(radiusMeters, MAX_RADIUS_METERS), kindMask(type));
+
+        List<Long> activityIds = new ArrayList<>();
+        List<Long> definitionIds = new ArrayList<>();
+        for (GeoGrid.Hit hit : hits) {
+            (hit.kind == KIND_ACTIVITY ? activityIds : definitionIds).add(hit.id);
+        }
+        Map<Long, Activity> activities = activityIds.isEmpty() ? Map.of()
+            : activityRepository.findAllById(activityIds).stream().collect(Collectors.toMap(Activity::getId, Function.identity()));
+        Map<Long, ActivityDefinition> definitions = definitionIds.isEmpty() ? Map.of()
+            : activityDefinitionRepository.findAllById(definitionIds).stream().collect(Collectors.toMap(ActivityDefinition::getId, Function.identity()));
+
+        List<NearbyActivityResponse> responses = new ArrayList<>(hits.size());
+        for (GeoGrid.Hit hit : hits) {
+            NearbyActivityResponse.NearbyActivityResponseBuilder response = NearbyActivityResponse.builder()
+                .id(hit.id)
+                .latitude(hit.latitude)
+                .longitude(hit.longitude)
+                .distanceMeters(hit.distanceMeters);
+            if (hit.kind == KIND_ACTIVITY) {
+                Activity activity = activities.get(hit.id);
+                // Deleted since the last rebuild
+                if (activity == null) {
+                    continue;
+                }
+                response.type("activity").title(activity.getTitle()).location(activity.getLocation());
+            } else {
+                ActivityDefinition definition = definitions.get(hit.id);
+                if (definition == null) {
+                    continue;
+                }
+                response.type("definition").title(definition.getTitle()).location(definition.getLocation());
+            }
+            responses.add(response.build());
+        }
+        return responses;
+    }
+
+    /**
+     * Whether the position is within {@code radiusMeters} of the activity,
+     * answered from the grid unless the activity changed after it was built.
+     */
+    public boolean isWithin(Activity activity, double latitude, double longitude, double radiusMeters) {
+        Snapshot snapshot = current;
+        if (snapshot == null || activity.getUpdatedAt() == null || !activity.getUpdatedAt().isBefore(snapshot.builtAt)) {
+            return GeoMath.haversineMeters(latitude, longitude, activity.getLatitude(), activity.getLongitude()) <= radiusMeters;
+        }
+        for (GeoGrid.Hit hit : snapshot.grid.withinRadius(latitude, longitude, radiusMeters, 1L << KIND_ACTIVITY, Integer.MAX_VALUE)) {
+            if (hit.id == activity.getId()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private GeoGrid grid() {
+        Snapshot snapshot = current;
+        return snapshot == null ? GeoGrid.empty(cellDegrees) : snapshot.grid;
+    }
+
+    private static long kindMask(String type) {
+        if ("activity".equalsIgnoreCase(type)) {
+            return 1L << KIND_ACTIVITY;
+        }
+        if ("definition".equalsIgnoreCase(type)) {
+            return 1L << KIND_DEFINITION;
+        }
+        return 1L << KIND_ACTIVITY | 1L << KIND_DEFINITION;
+    }
+
+    private static class Points {
+        long[] ids = new long[1024];
+        byte[] kinds = new byte[1024];
+        double[] latitudes = new double[1024];
+        double[] longitudes = new double[1024];
+        int size;
+
+        void add(long id, int kind, double latitude, double longitude) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                kinds = Arrays.copyOf(kinds, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            ids[size] = id;
+            kinds[size] = (byte) kind;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.live_backend.service.Chat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.theokanning.openai.completion.chat.ChatMessage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Assistant conversation history per (userId, sessionId).
+ *
+ * Each history is kept under {@code chat.conversations.max-tokens}: once an
+ * append goes over, the oldest messages are dropped, except an opening system
+ * message and the message just appended. Tokens are estimated at four
+ * characters each plus a few per message, close enough for a budget. A session
+ * unused for {@code chat.conversations.ttl-ms} is dropped, and at most
+ * {@code chat.conversations.max-sessions} are kept, least recently used first
+ * out. Appends to one session are serialized; different sessions don't contend
+ * beyond the map lookup. An append re-checks under the session's lock that the
+ * session is still the one in the map, so nothing lands in a history evicted
+ * between the lookup and the lock. Anonymous callers (a null userId) get no
+ * history, since nothing ties one of their requests to the next.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConversationStore {
+    public static final String DEFAULT_SESSION = "default";
+
+    private static final int TOKENS_PER_MESSAGE = 4;
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.conversations.max-tokens:3000}")
+    private int maxTokens;
+
+    @Value("${chat.conversations.ttl-ms:1800000}")
+    private long ttlMillis;
+
+    @Value("${chat.conversations.max-sessions:10000}")
+    private int maxSessions;
+
+    private Map<Key, Conversation> conversations;
+    private DistributionSummary historyTokens;
+    private DistributionSummary historyMessages;
+    private Counter trimmedMessages;
+    private Counter lruEvictions;
+    private Counter ttlEvictions;
+
+    private static final class Key {
+        final Long userId;
+        final String sessionId;
+
+        Key(Long userId, String sessionId) {
+            this.userId = userId;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Objects.equals(userId, key.userId) && sessionId.equals(key.sessionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, sessionId);
+        }
+    }
+
+    private static final class Conversation {
+        final List<ChatMessage> messages = new ArrayList<>();
+        int tokens;
+        volatile long lastUsedMillis = System.currentTimeMillis();
+    }
+
+    @PostConstruct
+    void init() {
+        lruEvictions = Counter.builder("chat.conversations.evictions").tag("reason", "lru").register(meterRegistry);
+        ttlEvictions = Counter.builder("chat.conversations.evictions").tag("reason", "ttl").register(meterRegistry);
+        trimmedMessages = Counter.builder("chat.conversations.trimmed.messages").register(meterRegistry);
+        historyTokens = DistributionSummary.builder("chat.conversations.history.tokens").register(meterRegistry);
+        historyMessages = DistributionSummary.builder("chat.conversations.history.messages").register(meterRegistry);
+        conversations = Collections.synchronizedMap(new LinkedHashMap<Key, Conversation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Conversation> eldest) {
+                if (size() > maxSessions) {
+                    lruEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+        Gauge.builder("chat.conversations.sessions", this, ConversationStore::size).register(meterRegistry);
+    }
+
+    /**
+     * Appends messages to the session's history and returns a copy of the whole
+     * history to send. {@code opening}, if given, is added first when the
+     * history is empty.
+     */
+    public List<ChatMessage> append(Long userId, String sessionId, Supplier<ChatMessage> opening, ChatMessage... messages) {
+        if (userId == null) {
+            return append(new Conversation(), opening, messages);
+        }
+        Key key = key(userId, sessionId);
+        while (true) {
+            Conversation conversation = conversation(key);
+            synchronized (conversation) {
+                // Evicted since the lookup; the next one finds or starts its replacement
+                if (isCurrent(key, conversation)) {
+                    return append(conversation, opening, messages);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the assistant's reply to the history the request was sent from,
+     * right after {@code question}, the last message that request appended, so
+     * a reply that comes back after a newer request's messages still follows
+     * its own question. If the session was evicted or expired while the request
+     * was out, or the question has been trimmed away, the reply is dropped
+     * rather than kept without its question. Returns whether it was kept.
+     */
+    public boolean appendReply(Long userId, String sessionId, ChatMessage question, ChatMessage reply) {
+        if (userId == null) {
+            return false;
+        }
+        Key key = key(userId, sessionId);
+        Conversation conversation = existing(key);
+        if (conversation == null) {
+            return false;
+        }
+        synchronized (conversation) {
+            int at = indexOf(conversation.messages, question);
+            if (!isCurrent(key, conversation) || at < 0) {
+                return false;
+            }
+            conversation.messages.add(at + 1, reply);
+            conversation.tokens += estimateTokens(reply);
+            trim(conversation);
+            record(conversation);
+            return true;
+        }
+    }
+
+    /**
+     * Forgets the session's history, so its next message starts over.
+     */
+    public void clear(Long userId, String sessionId) {
+        conversations.remove(key(userId, sessionId));
+    }
+
+    public int size() {
+        return conversations.size();
+    }
+
+    @Scheduled(fixedDelayString = "${chat.conversations.sweep-ms:60000}")
+    public void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - ttlMillis;
+        synchronized (conversations) {
+            Iterator<Conversation> it = conversations.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().lastUsedMillis < expiredBefore) {
+                    it.remove();
+                    ttlEvictions.increment();
+                }
+            }
+        }
+    }
+
+    static int estimateTokens(ChatMessage message) {
+        String content = message.getContent();
+        return TOKENS_PER_MESSAGE + (content == null ? 0 : (content.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN);
+    }
+
+    private static Key key(Long userId, String sessionId) {
+        return new Key(userId, sessionId == null ? DEFAULT_SESSION : sessionId);
+    }
+
+    // Caller holds the conversation's lock; the map lock is only ever taken inside it, never around it
+    private boolean isCurrent(Key key, Conversation conversation) {
+        return conversations.get(key) == conversation;
+    }
+
+    private List<ChatMessage> append(Conversation conversation, Supplier<ChatMessage> opening, ChatMessage... messages) {
+        if (conversation.messages.isEmpty() && opening != null) {
+            add(conversation, opening.get());
+        }
+        for (ChatMessage message : messages) {
+            add(conversation, message);
+        }
+        trim(conversation);
+        record(conversation);
+        return new ArrayList<>(conversation.messages);
+    }
+
+    // By identity, newest first; an equal message sent twice must not be mistaken for this one
+    private static int indexOf(List<ChatMessage> messages, ChatMessage message) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) == message) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Conversation existing(Key key) {
+        long expiredBefore = System.currentTimeMillis() - ttlMillis;
+        synchronized (conversations) {
+            Conversation conversation = conversations.get(key);
+            return conversation != null && conversation.lastUsedMillis >= expiredBefore ? conversation : null;
+        }
+    }
+
+    // An expired session found before the sweep starts over
+    private Conversation conversation(Key key) {
+        long expiredBefore = System.currentTimeMillis() - ttlMillis;
+        synchronized (conversations) {
+            Conversation conversation = conversations.get(key);
+            if (conversation != null && conversation.lastUsedMillis < expiredBefore) {
+                ttlEvictions.increment();
+                conversation = null;
+            }
+            if (conversation == null) {
+                conversation = new Conversation();
+                conversations.put(key, conversation);
+            }
+            return conversation;
+        }
+    }
+
+    private static void add(Conversation conversation, ChatMessage message) {
+        conversation.messages.add(message);
+        conversation.tokens += estimateTokens(message);
+    }
+
+    private void record(Conversation conversation) {
+        conversation.lastUsedMillis = System.currentTimeMillis();
+        historyTokens.record(conversation.tokens);
+        historyMessages.record(conversation.messages.size());
+    }
+
+    private void trim(Conversation conversation) {
+        List<ChatMessage> messages = conversation.messages;
+        int first = !messages.isEmpty() && "system".equals(messages.get(0).getRole()) ? 1 : 0;
+        while (conversation.tokens > maxTokens && messages.size() - first > 1) {
+            conversation.tokens -= estimateTokens(messages.remove(first));
+            trimmedMessages.increment();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.live_backend.service;
 
 import com.example.live_backend.dto.Activity.ActivityResponse;
+import com.example.live_backend.service.Chat.ConversationStore;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
@@ -11,7 +12,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 @Service
 @RequiredArgsConstructor
@@ -19,43 +19,37 @@ public class ChatGPTService {
 
     private final OpenAiService openAiService;
     private final ObjectMapper objectMapper;
+    private final ConversationStore conversationStore;
 
     @Value("${openai.model}")
     private String model;
 
-    /**
-     * In-memory conversation history for demonstration.
-     * In production, consider storing in a DB or session cache keyed by user/session ID.
-     */
-    private final List<ChatMessage> conversation = new ArrayList<>();
-
     /**
      * Generates schedule suggestions based on the user's prompt, location, and optional start/end times.
-     * It appends to the conversation so ChatGPT sees prior context if the user calls again.
+     * It appends to the user's conversation for the session so ChatGPT sees prior context if the user calls again.
      */
     public List<ActivityResponse> generateActivitiesSuggestions(
+            Long userId,
+            String sessionId,
             String prompt,
             LocalDateTime startDate,
             LocalDateTime endDate,
             String location
     ) {
         try {
-            // If this is the first call in the conversation, we add a system message
-            if (conversation.isEmpty()) {
-                String systemPrompt = buildInitialSystemPrompt(prompt, location, startDate, endDate);
-                conversation.add(new ChatMessage("system", systemPrompt));
-            }
-
             // Add the user's latest prompt as a user message
             String userMessageContent = prompt;
             if (startDate != null && endDate != null) {
                 userMessageContent += "\n(Activities should be between "
                         + startDate + " and " + endDate + ")";
             }
-            conversation.add(new ChatMessage("user", userMessageContent));
+            // If this is the first call in the conversation, a system message goes first
+            List<ChatMessage> conversation = conversationStore.append(userId, sessionId,
+                    () -> new ChatMessage("system", buildInitialSystemPrompt(prompt, location, startDate, endDate)),
+                    new ChatMessage("user", userMessageContent));
 
             // Send to OpenAI and parse response
-            String response = sendChatCompletionRequest(conversation);
+            String response = sendChatCompletionRequest(userId, sessionId, conversation);
             return parseActivities(response);
 
         } catch (Exception e) {
@@ -69,6 +63,8 @@ public class ChatGPTService {
      * This also appends to the same conversation for context.
      */
     public List<ActivityResponse> refineExperience(
+            Long userId,
+            String sessionId,
             List<ActivityResponse> currentActivities,
             String refinementPrompt
     ) {
@@ -92,15 +88,15 @@ public class ChatGPTService {
             // If you want to *append* to the existing conversation while changing instructions, 
             // you can add another system message. 
             // Alternatively, if you'd rather keep the first system message, remove this step.
-            conversation.add(new ChatMessage("system", refinementSystemPrompt));
-
             // Build a user message referencing the existing schedule
             String userMessageContent = "Current schedule: " + currentScheduleJson
                     + "\n\nRefinement request: " + refinementPrompt;
-            conversation.add(new ChatMessage("user", userMessageContent));
+            List<ChatMessage> conversation = conversationStore.append(userId, sessionId, null,
+                    new ChatMessage("system", refinementSystemPrompt),
+                    new ChatMessage("user", userMessageContent));
 
             // Send request
-            String response = sendChatCompletionRequest(conversation);
+            String response = sendChatCompletionRequest(userId, sessionId, conversation);
             return parseActivities(response);
 
         } catch (Exception e) {
@@ -112,14 +108,15 @@ public class ChatGPTService {
      * Recommends follow-up activities based on a chosen activity.
      * Also appends to the conversation so ChatGPT is aware of the prior context.
      */
-    public List<ActivityResponse> recommendActivities(String chosenActivity) {
+    public List<ActivityResponse> recommendActivities(Long userId, String sessionId, String chosenActivity) {
         try {
             // Create a user message referencing the chosen activity
             String userMessageContent = "The user has chosen: " + chosenActivity
                     + ". Suggest 3 follow-up activities that pair well with it.";
-            conversation.add(new ChatMessage("user", userMessageContent));
+            List<ChatMessage> conversation = conversationStore.append(userId, sessionId, null,
+                    new ChatMessage("user", userMessageContent));
 
-            String response = sendChatCompletionRequest(conversation);
+            String response = sendChatCompletionRequest(userId, sessionId, conversation);
             return parseActivities(response);
 
         } catch (Exception e) {
@@ -127,6 +124,13 @@ public class ChatGPTService {
         }
     }
 
+    /**
+     * Forgets the session's conversation, so the next suggestion starts fresh.
+     */
+    public void resetConversation(Long userId, String sessionId) {
+        conversationStore.clear(userId, sessionId);
+    }
+
     /**
      * Helper to create the system prompt for the initial schedule generation.
      */
@@ -175,7 +179,7 @@ public class ChatGPTService {
     /**
      * Sends the current conversation to the OpenAI API and returns the assistant's textual response.
      */
-    private String sendChatCompletionRequest(List<ChatMessage> conversation) {
+    private String sendChatCompletionRequest(Long userId, String sessionId, List<ChatMessage> conversation) {
         ChatCompletionRequest request = ChatCompletionRequest.builder()
                 .model(model)
                 .messages(conversation)
@@ -188,8 +192,9 @@ public class ChatGPTService {
                 .getMessage()
                 .getContent();
 
-        // Record the assistant response in the conversation
-        conversation.add(new ChatMessage("assistant", response));
+        // Record the assistant response after the message it answers, unless the conversation was dropped meanwhile
+        ChatMessage question = conversation.get(conversation.size() - 1);
+        conversationStore.appendReply(userId, sessionId, question, new ChatMessage("assistant", response));
         return response;
     }
 
@@ -0,0 +1,91 @@
+package com.example.live_backend.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.live_backend.dto.Post.CommentPageResponse;
+import com.example.live_backend.dto.Post.CommentRequest;
+import com.example.live_backend.dto.Post.CommentResponse;
+import com.example.live_backend.mapper.CommentMapper;
+import com.example.live_backend.model.Social.Comment;
+import com.example.live_backend.model.Social.Post;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Social.CommentRepository;
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.service.Feed.FeedCursor;
+import com.example.live_backend.service.Feed.TrendingEngine;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class CommentService {
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final CommentMapper commentMapper;
+    private final TrendingEngine trendingEngine;
+
+    /**
+     * One page of a post's comments, oldest first. Pass the previous page's
+     * nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CommentPageResponse getComments(Long postId, String cursor, int limit) {
+        int pageSize = Pagination.clampPageSize(limit);
+        FeedCursor after = FeedCursor.decode(cursor);
+
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<Comment> comments = after == null
+            ? commentRepository.findThread(postId, page)
+            : commentRepository.findThreadAfter(postId, after.getCreatedAt(), after.getId(), page);
+
+        boolean hasMore = comments.size() > pageSize;
+        if (hasMore) {
+            comments = comments.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Comment last = comments.get(comments.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CommentPageResponse(
+            comments.stream().map(comment -> commentMapper.toResponse(comment, postId)).collect(Collectors.toList()),
+            nextCursor);
+    }
+
+    @Transactional
+    public CommentResponse addComment(Long postId, User author, CommentRequest request) {
+        // Bumping the count doubles as the existence check and avoids loading the post
+        if (postRepository.adjustCommentCount(postId, 1) == 0) {
+            throw new RuntimeException("Post not found");
+        }
+        Post post = postRepository.getReferenceById(postId);
+        Comment comment = commentRepository.save(commentMapper.toEntity(request, post, author));
+        // A rolled-back comment must not count towards trending
+        TransactionHooks.afterCommit(() -> trendingEngine.recordComment(postId));
+        return commentMapper.toResponse(comment, postId);
+    }
+
+    // Allowed for the comment's author and the post's author
+    @Transactional
+    public void deleteComment(Long postId, Long commentId, Long userId) {
+        Comment comment = commentRepository.findById(commentId)
+            .orElseThrow(() -> new RuntimeException("Comment not found"));
+        if (!comment.getPost().getId().equals(postId)) {
+            throw new RuntimeException("Comment not found");
+        }
+        if (!comment.getUser().getId().equals(userId) && !comment.getPost().getUser().getId().equals(userId)) {
+            throw new RuntimeException("Not authorized to delete this comment");
+        }
+
+        commentRepository.delete(comment);
+        postRepository.adjustCommentCount(postId, -1);
+        TransactionHooks.afterCommit(() -> trendingEngine.recordCommentDeleted(postId));
+    }
+}
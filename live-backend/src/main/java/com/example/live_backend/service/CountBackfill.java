@@ -0,0 +1,45 @@
+package com.example.live_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.repository.User.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Brings the denormalized counters in line with the rows they count at
+ * startup. Rows written before a counter column existed start at 0, and a
+ * count that drifted would otherwise stay wrong. Only rows that differ are
+ * written, so running it on every start is cheap once the counts agree.
+ * Disable with {@code counts.backfill-on-startup=false}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CountBackfill implements CommandLineRunner {
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+
+    @Value("${counts.backfill-on-startup:true}")
+    private boolean enabled;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        int followers = userRepository.recountFollowerCounts();
+        int following = userRepository.recountFollowingCounts();
+        int comments = postRepository.recountCommentCounts();
+        if (followers + following + comments > 0) {
+            log.info("Backfilled follower counts of {} users, following counts of {} and comment counts of {} posts",
+                followers, following, comments);
+        }
+    }
+}
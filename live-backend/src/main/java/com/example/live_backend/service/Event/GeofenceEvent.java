@@ -0,0 +1,26 @@
+package com.example.live_backend.service.Event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by GeofenceEngine when a participant crosses the geofence around
+ * their experience's current activity.
+ */
+@Getter
+@AllArgsConstructor
+public class GeofenceEvent {
+    public enum Type {
+        ARRIVED,
+        DEPARTED
+    }
+
+    private final Type type;
+    private final Long activeExperienceId;
+    private final Long activityId;
+    private final Long userId;
+    private final long timestampMillis;
+
+    // Participants still inside the fence after this crossing
+    private final int inside;
+}
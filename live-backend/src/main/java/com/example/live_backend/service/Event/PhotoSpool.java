@@ -0,0 +1,174 @@
+package com.example.live_backend.service.Event;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Uploaded photos waiting for the media lane, kept on disk under
+ * {@code posts.media.spool-dir} rather than on the heap.
+ *
+ * A request stages its photos in a {@code staged-<uuid>} directory before the
+ * post is written; once the post commits the directory is renamed to the post
+ * id. Each photo is removed as soon as its url is attached, so a failed or
+ * interrupted upload resumes with the photos still left. Staged directories
+ * whose post never committed are swept by age.
+ */
+@Component
+public class PhotoSpool {
+    private static final String STAGED_PREFIX = "staged-";
+    private static final String MANIFEST = "photos.properties";
+
+    @Value("${posts.media.spool-dir:data/photo-spool}")
+    private String directory;
+
+    @Getter
+    @AllArgsConstructor
+    public static class SpooledPhoto {
+        private final Path file;
+        private final String filename;
+        private final String contentType;
+    }
+
+    /**
+     * Copies the uploads out of the request, which deletes its temp files when it ends.
+     */
+    public Path stage(List<MultipartFile> photos) throws IOException {
+        Path staged = Files.createDirectories(Paths.get(directory)).resolve(STAGED_PREFIX + UUID.randomUUID());
+        Files.createDirectory(staged);
+        Properties manifest = new Properties();
+        manifest.setProperty("count", String.valueOf(photos.size()));
+        for (int i = 0; i < photos.size(); i++) {
+            MultipartFile photo = photos.get(i);
+            try (InputStream in = photo.getInputStream()) {
+                Files.copy(in, staged.resolve(String.valueOf(i)));
+            }
+            if (photo.getOriginalFilename() != null) {
+                manifest.setProperty(i + ".filename", photo.getOriginalFilename());
+            }
+            if (photo.getContentType() != null) {
+                manifest.setProperty(i + ".contentType", photo.getContentType());
+            }
+        }
+        try (OutputStream out = Files.newOutputStream(staged.resolve(MANIFEST))) {
+            manifest.store(out, null);
+        }
+        return staged;
+    }
+
+    /**
+     * Hands staged photos to a committed post.
+     */
+    public void claim(Path staged, Long postId) throws IOException {
+        Files.move(staged, postDirectory(postId), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Posts with photos still to be stored.
+     */
+    public List<Long> pendingPosts() throws IOException {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> dirs = Files.list(root)) {
+            return dirs.map(dir -> dir.getFileName().toString())
+                .filter(name -> name.chars().allMatch(Character::isDigit))
+                .map(Long::valueOf)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * The post's photos not yet stored, in upload order.
+     */
+    public List<SpooledPhoto> pending(Long postId) throws IOException {
+        Path dir = postDirectory(postId);
+        Path manifestFile = dir.resolve(MANIFEST);
+        if (!Files.exists(manifestFile)) {
+            return List.of();
+        }
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(manifestFile)) {
+            manifest.load(in);
+        }
+        List<SpooledPhoto> photos = new ArrayList<>();
+        int count = Integer.parseInt(manifest.getProperty("count", "0"));
+        for (int i = 0; i < count; i++) {
+            Path file = dir.resolve(String.valueOf(i));
+            if (Files.exists(file)) {
+                photos.add(new SpooledPhoto(file, manifest.getProperty(i + ".filename", "photo"),
+                    manifest.getProperty(i + ".contentType")));
+            }
+        }
+        return photos;
+    }
+
+    /**
+     * Drops one stored photo so a retry does not upload it again.
+     */
+    public void remove(SpooledPhoto photo) throws IOException {
+        Files.deleteIfExists(photo.getFile());
+    }
+
+    /**
+     * Removes the post's spool directory once every photo is stored, or the post is gone.
+     */
+    public void finish(Long postId) throws IOException {
+        Path dir = postDirectory(postId);
+        if (Files.isDirectory(dir)) {
+            deleteDirectory(dir);
+        }
+    }
+
+    /**
+     * Deletes staged photos whose post never committed.
+     */
+    public void deleteStagedBefore(long cutoffMillis) throws IOException {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> staged;
+        try (Stream<Path> dirs = Files.list(root)) {
+            staged = dirs.filter(dir -> dir.getFileName().toString().startsWith(STAGED_PREFIX))
+                .collect(Collectors.toList());
+        }
+        for (Path dir : staged) {
+            if (Files.getLastModifiedTime(dir).toMillis() < cutoffMillis) {
+                deleteDirectory(dir);
+            }
+        }
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private Path postDirectory(Long postId) {
+        return Paths.get(directory, String.valueOf(postId));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.live_backend.service.Event;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by PostService once a post row is written; consumed after commit by
+ * {@link PostEventBus}.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+    private final Long postId;
+    private final Long authorId;
+    private final LocalDateTime createdAt;
+    private final boolean isPublic;
+
+    // Photos staged by PhotoSpool, still to be stored; null if the post has none
+    private final Path stagedPhotos;
+}
@@ -0,0 +1,122 @@
+package com.example.live_backend.service.Event;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.AchievementService;
+import com.example.live_backend.service.PhotoStorageService;
+import com.example.live_backend.service.PostService;
+import com.example.live_backend.service.Feed.HomeTimelineCache;
+import com.example.live_backend.service.Feed.TrendingEngine;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the slow side effects of creating a post off the request thread, on the
+ * lanes of {@link PostPipeline}. Events are only dispatched after the creating
+ * transaction commits, so workers always see the post row.
+ *
+ * Photos wait in {@link PhotoSpool} until each one's url is attached. Posts
+ * whose photos are still spooled, after a failed upload, a full media lane or
+ * a restart, are resubmitted every {@code posts.media.retry-ms}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostEventBus {
+    // Staged photos of a post that never committed are gone after this long
+    private static final long STAGED_TTL_MILLIS = 60 * 60 * 1000L;
+
+    private final AchievementService achievementService;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final HomeTimelineCache homeTimelineCache;
+    private final TrendingEngine trendingEngine;
+    private final PhotoStorageService photoStorageService;
+    private final PostService postService;
+    private final PostPipeline postPipeline;
+    private final PhotoSpool photoSpool;
+
+    // Posts whose photos are queued or being stored, so a retry does not double up
+    private final Set<Long> storing = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        postPipeline.achievements().submit(() -> userRepository.findById(event.getAuthorId())
+            .ifPresent(achievementService::onPostCreated));
+
+        postPipeline.fanOut().submit(() -> {
+            homeTimelineCache.fanOut(event.getAuthorId(), event.getPostId(), event.getCreatedAt());
+            if (event.isPublic()) {
+                trendingEngine.recordPost(event.getPostId(), event.getCreatedAt());
+            }
+        });
+
+        if (event.getStagedPhotos() != null) {
+            try {
+                photoSpool.claim(event.getStagedPhotos(), event.getPostId());
+            } catch (IOException e) {
+                log.error("Could not claim staged photos {} for post {}", event.getStagedPhotos(), event.getPostId(), e);
+                return;
+            }
+            submitPhotos(event.getPostId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${posts.media.retry-ms:60000}")
+    public void retryPendingPhotos() {
+        try {
+            photoSpool.deleteStagedBefore(System.currentTimeMillis() - STAGED_TTL_MILLIS);
+            photoSpool.pendingPosts().forEach(this::submitPhotos);
+        } catch (IOException e) {
+            log.warn("Could not scan the photo spool", e);
+        }
+    }
+
+    private void submitPhotos(Long postId) {
+        if (!storing.add(postId)) {
+            return;
+        }
+        boolean queued = postPipeline.media().submit(() -> {
+            try {
+                storePhotos(postId);
+            } finally {
+                storing.remove(postId);
+            }
+        });
+        if (!queued) {
+            // Still spooled; the next retry picks it up
+            storing.remove(postId);
+        }
+    }
+
+    // One photo at a time, each removed from the spool once its url is on the post
+    void storePhotos(Long postId) {
+        try {
+            if (!postRepository.existsById(postId)) {
+                photoSpool.finish(postId);
+                return;
+            }
+            for (PhotoSpool.SpooledPhoto photo : photoSpool.pending(postId)) {
+                String url = photoStorageService.savePhoto(photo.getFile(), photo.getFilename(), photo.getContentType());
+                postService.addImageUrls(postId, List.of(url));
+                photoSpool.remove(photo);
+            }
+            photoSpool.finish(postId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
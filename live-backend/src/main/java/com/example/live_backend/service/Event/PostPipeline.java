@@ -0,0 +1,71 @@
+package com.example.live_backend.service.Event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The lanes of the post pipeline, one per consumer so a backlog in one (say,
+ * S3 uploads) cannot delay another (timeline fan-out).
+ *
+ * PostService asks {@link #hasRoom(boolean)} before writing a post and turns
+ * the request away while a lane is full, so nothing is accepted that the
+ * pipeline would then have to drop. The media lane also waits up to
+ * {@code posts.pipeline.media-offer-timeout-ms} for a slot, and its photos are
+ * spooled on disk by {@link PhotoSpool} until stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostPipeline {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${posts.pipeline.threads:2}")
+    private int threads;
+
+    @Value("${posts.pipeline.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${posts.pipeline.media-offer-timeout-ms:2000}")
+    private long mediaOfferTimeoutMillis;
+
+    private WorkLane achievements;
+    private WorkLane fanOut;
+    private WorkLane media;
+
+    @PostConstruct
+    void start() {
+        achievements = new WorkLane("achievements", threads, queueCapacity, meterRegistry);
+        fanOut = new WorkLane("fanout", threads, queueCapacity, meterRegistry);
+        media = new WorkLane("media", threads, queueCapacity, mediaOfferTimeoutMillis, meterRegistry);
+    }
+
+    /**
+     * True if every lane a new post needs can queue another task.
+     */
+    public boolean hasRoom(boolean withPhotos) {
+        return achievements.hasRoom() && fanOut.hasRoom() && (!withPhotos || media.hasRoom());
+    }
+
+    WorkLane achievements() {
+        return achievements;
+    }
+
+    WorkLane fanOut() {
+        return fanOut;
+    }
+
+    WorkLane media() {
+        return media;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        achievements.shutdown(10);
+        fanOut.shutdown(10);
+        media.shutdown(30);
+    }
+}
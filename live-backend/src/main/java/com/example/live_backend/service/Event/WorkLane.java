@@ -0,0 +1,132 @@
+package com.example.live_backend.service.Event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A named worker pool with a bounded queue.
+ *
+ * Submitting never runs work on the caller, which is usually a request thread.
+ * When the queue is full the caller waits up to {@code offerTimeoutMillis} for
+ * a slot (zero means not at all); if none frees up the task is refused, logged
+ * and counted in {@code posts.pipeline.rejected}, and submit returns false.
+ * Callers check {@link #hasRoom()} before accepting work they cannot lose.
+ * Queue depth and lag (age of the oldest queued task) are published as gauges
+ * tagged with the lane name.
+ */
+@Slf4j
+public class WorkLane {
+    private final String name;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    private final Counter failures;
+    private final Counter rejected;
+    private final long offerTimeoutMillis;
+
+    public WorkLane(String name, int threads, int capacity, MeterRegistry meterRegistry) {
+        this(name, threads, capacity, 0, meterRegistry);
+    }
+
+    public WorkLane(String name, int threads, int capacity, long offerTimeoutMillis, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+            new CustomizableThreadFactory("post-" + name + "-"), (task, pool) -> reject(task, pool));
+
+        Gauge.builder("posts.pipeline.queue.depth", queue, BlockingQueue::size)
+            .tag("lane", name)
+            .register(meterRegistry);
+        Gauge.builder("posts.pipeline.queue.lag", this, WorkLane::lagMillis)
+            .tag("lane", name)
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        this.failures = Counter.builder("posts.pipeline.failures")
+            .tag("lane", name)
+            .register(meterRegistry);
+        this.rejected = Counter.builder("posts.pipeline.rejected")
+            .tag("lane", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return false if the lane was full for the whole offer timeout and the task was not queued
+     */
+    public boolean submit(Runnable task) {
+        try {
+            executor.execute(new TimedTask(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public boolean hasRoom() {
+        return queue.remainingCapacity() > 0;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public double lagMillis() {
+        Runnable head = queue.peek();
+        if (head instanceof TimedTask) {
+            return System.currentTimeMillis() - ((TimedTask) head).enqueuedAt;
+        }
+        return 0;
+    }
+
+    // Every worker is busy at this point, so a task put straight on the queue still runs
+    private void reject(Runnable task, ThreadPoolExecutor pool) {
+        if (offerTimeoutMillis > 0 && !pool.isShutdown()) {
+            try {
+                if (queue.offer(task, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        rejected.increment();
+        log.warn("Lane {} is full ({} queued), refusing task", name, queue.size());
+        throw new RejectedExecutionException("Lane " + name + " is full");
+    }
+
+    public void shutdown(long timeoutSeconds) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Lane {} still had {} queued tasks at shutdown", name, queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    private class TimedTask implements Runnable {
+        private final Runnable task;
+        private final long enqueuedAt = System.currentTimeMillis();
+
+        TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Task failed on lane {}", name, e);
+            }
+        }
+    }
+}
@@ -1,26 +1,34 @@
 package com.example.live_backend.service.Experience;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.live_backend.model.Activity.Activity;
 import com.example.live_backend.model.Experience.ActiveExperience;
 import com.example.live_backend.model.Experience.Experience;
-import com.example.live_backend.model.User.ActiveExperienceParticipant;
-import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Activity.ActiveActivityRepository;
 import com.example.live_backend.repository.Experience.ActiveExperienceRepository;
 import com.example.live_backend.mapper.ActivityMapper;
 import com.example.live_backend.dto.Activity.ActiveExperienceResponse;
 import com.example.live_backend.dto.Activity.ActivityResponse;
 import com.example.live_backend.mapper.ActiveExperienceMapper;
 import com.example.live_backend.service.Activity.ActiveActivityService;
-import com.example.live_backend.repository.User.ActiveExperienceParticipantRepository;
-import com.example.live_backend.dto.LocationBroadcast;
+import com.example.live_backend.service.Location.GeofenceEngine;
+import com.example.live_backend.service.Location.LocationHub;
+import com.example.live_backend.service.Location.LocationRateAdvisor;
+import com.example.live_backend.service.Location.ParticipantAccessCache;
+import com.example.live_backend.service.Location.TrackStore;
+import com.example.live_backend.service.TransactionHooks;
+import com.example.live_backend.dto.User.LocationSample;
+import com.example.live_backend.dto.User.LocationUpdateResponse;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -30,9 +38,12 @@ public class ActiveExperienceService {
     private final ActivityMapper activityMapper; 
     private final ActiveExperienceMapper activeExperienceMapper; 
     private final ActiveActivityService activeActivityService;
-    private final ActiveExperienceParticipantRepository participantRepository;
-
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ParticipantAccessCache participantAccessCache;
+    private final LocationHub locationHub;
+    private final LocationRateAdvisor locationRateAdvisor;
+    private final TrackStore trackStore;
+    private final GeofenceEngine geofenceEngine;
+    private final ActiveActivityRepository activeActivityRepository;
 
     public ActiveExperience getActiveExperience(Long activeExperienceId) {
         return activeExperienceRepository.findById(activeExperienceId)
@@ -54,6 +65,7 @@ public class ActiveExperienceService {
         activeExperience.setActive(false);
         activeExperience.setEndTime(LocalDateTime.now());
         activeExperienceRepository.save(activeExperience);
+        geofenceEngine.forget(activeExperience.getId());
     }
 
     /**
@@ -126,7 +138,9 @@ public class ActiveExperienceService {
             activeExperience.setEndTime(LocalDateTime.now());
         }
 
-        return activeExperienceMapper.toResponse(activeExperienceRepository.save(activeExperience));
+        ActiveExperience saved = activeExperienceRepository.save(activeExperience);
+        refreshGeofenceAfterCommit(saved);
+        return activeExperienceMapper.toResponse(saved);
     }
 
     /**
@@ -148,34 +162,156 @@ public class ActiveExperienceService {
             active.setEndTime(LocalDateTime.now());
         }
 
-        return activeExperienceMapper.toResponse(activeExperienceRepository.save(active));
+        ActiveExperience saved = activeExperienceRepository.save(active);
+        refreshGeofenceAfterCommit(saved);
+        return activeExperienceMapper.toResponse(saved);
     }
 
+    /**
+     * Starts the activity a participant just walked into, unless it is no
+     * longer current or was already started. An event for an activity that is
+     * no longer current means this node's fence is stale, so it is re-pointed.
+     */
     @Transactional
-    public void updateUserLocation(Long activeExperienceId, Long userId, Double lat, Double lon) {
-        ActiveExperienceParticipant participant = participantRepository
-            .findByActiveExperienceIdAndUserId(activeExperienceId, userId)
-            .orElseThrow(() -> new RuntimeException("User not in this active experience"));
-
-        User user = participant.getUser();
-        if (!user.isShareLocation()) {
-            return; 
-        }
-        
-        // Update location
-        participant.setLatitude(lat);
-        participant.setLongitude(lon);
-        participant.setLastLocationUpdate(LocalDateTime.now());
-
-        // Now broadcast a message
-        LocationBroadcast payload = new LocationBroadcast(
-            participant.getUser().getId(),
-            participant.getLatitude(),
-            participant.getLongitude(),
-            participant.getLastLocationUpdate()
-        );
-
-        String destination = "/topic/active-experience/" + activeExperienceId + "/location";
-        messagingTemplate.convertAndSend(destination, payload);
+    public void arriveAtActivity(Long activeExperienceId, Long activityId) {
+        ActiveExperience activeExperience = getActiveExperience(activeExperienceId);
+        Activity current = currentActivity(activeExperience);
+        if (current == null || !current.getId().equals(activityId)) {
+            refreshGeofenceAfterCommit(activeExperience);
+            return;
+        }
+        if (activeActivityRepository.existsByActiveExperienceIdAndActivityId(activeExperienceId, activityId)) {
+            return;
+        }
+        activeActivityService.startActivity(activeExperience, current);
+    }
+
+    /**
+     * Completes the current activity once the last participant inside its
+     * geofence has left, provided it was started.
+     */
+    @Transactional
+    public void departFromActivity(Long activeExperienceId, Long activityId) {
+        ActiveExperience activeExperience = getActiveExperience(activeExperienceId);
+        Activity current = currentActivity(activeExperience);
+        if (current == null || !current.getId().equals(activityId)) {
+            refreshGeofenceAfterCommit(activeExperience);
+            return;
+        }
+        if (!activeActivityRepository.existsByActiveExperienceIdAndActivityId(activeExperienceId, activityId)) {
+            return;
+        }
+        completeCurrentActivity(activeExperienceId);
+    }
+
+    public void requireParticipant(Long activeExperienceId, Long userId) {
+        if (participantAccessCache.access(activeExperienceId, userId) == ParticipantAccessCache.Access.NOT_PARTICIPANT) {
+            throw new RuntimeException("User not in this active experience");
+        }
+    }
+
+    /**
+     * Writes every participant's recorded track as NDJSON, downsampled to one
+     * point per {@code resolutionMillis}.
+     */
+    public void exportTracks(Long activeExperienceId, long resolutionMillis, OutputStream out) throws IOException {
+        trackStore.export(activeExperienceId, resolutionMillis, out);
+    }
+
+    /**
+     * Records a ping in the location hub. The participant row is updated later by
+     * ParticipantLocationWriter in a batch, not here. The response says whether
+     * the sample was kept and when the client should send the next one.
+     */
+    public LocationUpdateResponse updateUserLocation(Long activeExperienceId, Long userId, Double lat, Double lon) {
+        return updateUserLocations(activeExperienceId, userId, List.of(new LocationSample(lat, lon, null)));
+    }
+
+    /**
+     * Records a batch of samples, oldest first, after one membership check.
+     * Timestamps in the future are clamped to now. Accepted if any sample was.
+     * A batch with any coordinate out of range is rejected whole, whichever
+     * path it came in on, since the hub, tracks and binary frames all assume
+     * valid degrees.
+     *
+     * Runs outside a transaction. Membership and sharing come from
+     * ParticipantAccessCache and the geofence is loaded once per experience, so
+     * once warm a ping does no database reads.
+     */
+    public LocationUpdateResponse updateUserLocations(Long activeExperienceId, Long userId, List<LocationSample> samples) {
+        samples.forEach(ActiveExperienceService::requireValidCoordinates);
+        ParticipantAccessCache.Access access = participantAccessCache.access(activeExperienceId, userId);
+        if (access == ParticipantAccessCache.Access.NOT_PARTICIPANT) {
+            throw new RuntimeException("User not in this active experience");
+        }
+        if (access == ParticipantAccessCache.Access.NOT_SHARING) {
+            return new LocationUpdateResponse(false, locationRateAdvisor.idleIntervalMillis());
+        }
+
+        if (!geofenceEngine.isKnown(activeExperienceId)) {
+            refreshGeofence(activeExperienceRepository.findWithActivitiesById(activeExperienceId)
+                .orElseThrow(() -> new RuntimeException("ActiveExperience not found")));
+        }
+
+        long now = System.currentTimeMillis();
+        List<LocationSample> ordered = new ArrayList<>(samples);
+        ordered.sort(Comparator.comparingLong(sample -> sample.getTimestamp() == null ? now : sample.getTimestamp()));
+
+        // Broadcast happens on the hub's next tick, coalesced with everyone else's moves
+        boolean accepted = false;
+        double speed = 0;
+        for (LocationSample sample : ordered) {
+            long timestamp = sample.getTimestamp() == null ? now : Math.min(sample.getTimestamp(), now);
+            double result = locationHub.update(activeExperienceId, userId, sample.getLatitude(), sample.getLongitude(), timestamp);
+            if (result >= 0) {
+                accepted = true;
+                speed = result;
+                trackStore.append(activeExperienceId, userId, timestamp, sample.getLatitude(), sample.getLongitude());
+                geofenceEngine.evaluate(activeExperienceId, userId, sample.getLatitude(), sample.getLongitude(), timestamp);
+            }
+        }
+        return new LocationUpdateResponse(accepted, locationRateAdvisor.recommendedIntervalMillis(activeExperienceId, speed));
+    }
+
+    private static void requireValidCoordinates(LocationSample sample) {
+        Double lat = sample.getLatitude();
+        Double lon = sample.getLongitude();
+        // Negated so NaN fails too
+        if (lat == null || lon == null || !(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)) {
+            throw new RuntimeException("Invalid location: " + lat + ", " + lon);
+        }
+    }
+
+    // Points the geofence at the current activity, or clears it when there is none
+    private void refreshGeofence(ActiveExperience activeExperience) {
+        Activity current = currentActivity(activeExperience);
+        if (current == null) {
+            geofenceEngine.setTarget(activeExperience.getId(), null, 0, 0);
+        } else {
+            geofenceEngine.setTarget(activeExperience.getId(), current.getId(), current.getLatitude(), current.getLongitude());
+        }
+    }
+
+    // A fence moved before a rollback would keep pointing at an activity that never became current
+    private void refreshGeofenceAfterCommit(ActiveExperience activeExperience) {
+        Long activeExperienceId = activeExperience.getId();
+        Activity current = currentActivity(activeExperience);
+        if (current == null) {
+            TransactionHooks.afterCommit(() -> geofenceEngine.setTarget(activeExperienceId, null, 0, 0));
+        } else {
+            Long activityId = current.getId();
+            double latitude = current.getLatitude();
+            double longitude = current.getLongitude();
+            TransactionHooks.afterCommit(() -> geofenceEngine.setTarget(activeExperienceId, activityId, latitude, longitude));
+        }
+    }
+
+    private static Activity currentActivity(ActiveExperience activeExperience) {
+        List<Activity> activities = activeExperience.getExperience().getActivities();
+        int index = activeExperience.getCurrentActivityIndex();
+        if (activeExperience.isCompleted() || activities == null || index < 0 || index >= activities.size()) {
+            return null;
+        }
+        return activities.get(index);
     }
 }
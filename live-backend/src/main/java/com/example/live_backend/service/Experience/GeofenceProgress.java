@@ -0,0 +1,67 @@
+package com.example.live_backend.service.Experience;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.service.Event.GeofenceEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts an activity when the first participant arrives at it and completes
+ * it when the last one inside leaves, if {@code location.geofence.auto-progress}
+ * is on.
+ *
+ * Events arrive on the location ingest thread, outside any transaction, and
+ * ingest must not wait on activity writes, so the writes are handed to one
+ * worker thread. Running them in order there also keeps two arrivals from
+ * starting the same activity twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeofenceProgress {
+    private final ActiveExperienceService activeExperienceService;
+
+    @Value("${location.geofence.auto-progress:true}")
+    private boolean autoProgress;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("geofence-"));
+
+    @EventListener
+    public void onGeofence(GeofenceEvent event) {
+        if (!autoProgress) {
+            return;
+        }
+        if (event.getType() == GeofenceEvent.Type.ARRIVED) {
+            worker.execute(() -> run(event, () ->
+                activeExperienceService.arriveAtActivity(event.getActiveExperienceId(), event.getActivityId())));
+        } else if (event.getInside() == 0) {
+            worker.execute(() -> run(event, () ->
+                activeExperienceService.departFromActivity(event.getActiveExperienceId(), event.getActivityId())));
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static void run(GeofenceEvent event, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            log.warn("Geofence {} for activity {} in experience {} failed", event.getType(),
+                event.getActivityId(), event.getActiveExperienceId(), e);
+        }
+    }
+}
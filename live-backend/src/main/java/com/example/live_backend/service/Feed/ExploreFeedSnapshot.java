@@ -0,0 +1,113 @@
+package com.example.live_backend.service.Feed;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.dto.Post.PostResponse;
+import com.example.live_backend.repository.Social.PostRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The explore feed is identical for every viewer, so it is built in the
+ * background: the newest public posts are assembled once, split into pages,
+ * serialized to JSON and published as one immutable snapshot with a volatile
+ * write. Requests are a memory read. Each page carries an ETag derived from the
+ * snapshot version; the version only moves when the serialized content changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExploreFeedSnapshot {
+    private static final byte[] EMPTY_PAGE = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final PostRepository postRepository;
+    private final FeedAssembler feedAssembler;
+    private final ObjectMapper objectMapper;
+
+    @Value("${feed.explore.size:200}")
+    private int size;
+
+    @Value("${feed.explore.page-size:20}")
+    private int pageSize;
+
+    private volatile Snapshot current = new Snapshot(0, List.of(), new byte[0][]);
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final long version;
+        private final List<List<PostResponse>> postPages;
+        private final byte[][] pages;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Page {
+        // Null for a personalized page, which must not be cached across users
+        private final String etag;
+        // Pre-serialized JSON of posts, null for a personalized page
+        private final byte[] body;
+        private final List<PostResponse> posts;
+
+        public static Page personalized(List<PostResponse> posts) {
+            return new Page(null, null, posts);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${feed.explore.refresh-ms:15000}", initialDelayString = "${feed.explore.refresh-ms:15000}")
+    public void rebuild() {
+        List<Long> ids = postRepository.findPublicPostIds(PageRequest.of(0, size));
+        List<PostResponse> posts = List.copyOf(feedAssembler.assemble(ids, null));
+
+        int pageCount = (posts.size() + pageSize - 1) / pageSize;
+        List<List<PostResponse>> postPages = new ArrayList<>(pageCount);
+        byte[][] pages = new byte[pageCount][];
+        for (int i = 0; i < pageCount; i++) {
+            List<PostResponse> pagePosts = posts.subList(i * pageSize, Math.min(posts.size(), (i + 1) * pageSize));
+            postPages.add(pagePosts);
+            pages[i] = serialize(pagePosts);
+        }
+
+        if (!Arrays.deepEquals(pages, current.getPages())) {
+            // Wall-clock version so ETags from before a restart never match a new snapshot
+            long version = Math.max(System.currentTimeMillis(), current.getVersion() + 1);
+            current = new Snapshot(version, Collections.unmodifiableList(postPages), pages);
+        }
+    }
+
+    public Snapshot current() {
+        return current;
+    }
+
+    public Page page(int index) {
+        Snapshot snapshot = current;
+        String etag = "\"explore-" + snapshot.getVersion() + "-" + index + "\"";
+        if (index < 0 || index >= snapshot.getPages().length) {
+            return new Page(etag, EMPTY_PAGE, List.of());
+        }
+        return new Page(etag, snapshot.getPages()[index], snapshot.getPostPages().get(index));
+    }
+
+    private byte[] serialize(List<PostResponse> posts) {
+        try {
+            return objectMapper.writeValueAsBytes(posts);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize explore feed", e);
+        }
+    }
+}
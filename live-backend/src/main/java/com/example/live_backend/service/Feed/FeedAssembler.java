@@ -0,0 +1,78 @@
+package com.example.live_backend.service.Feed;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.dto.Post.PostResponse;
+import com.example.live_backend.mapper.PostMapper;
+import com.example.live_backend.model.Social.Post;
+import com.example.live_backend.repository.Social.PostRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns a page of post ids into PostResponses with at most two queries: the
+ * posts with their authors fetched in, and, when there is a viewer, which of
+ * them the viewer has liked. Like and comment counts are the posts' own counter
+ * columns, with likes not yet flushed added from LikeCounterStore in memory;
+ * the likes and comments collections are never loaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedAssembler {
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final LikeCounterStore likeCounterStore;
+
+    /**
+     * Assembles the given posts in the order of {@code postIds}; ids that no longer
+     * exist are skipped. {@code viewerId} may be null, in which case likedByViewer
+     * is always false.
+     */
+    public List<PostResponse> assemble(List<Long> postIds, Long viewerId) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Post> posts = postRepository.findWithAuthorsByIdIn(postIds).stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+        Set<Long> liked = likedByViewer(postIds, viewerId);
+
+        return postIds.stream()
+            .map(posts::get)
+            .filter(Objects::nonNull)
+            .map(post -> postMapper.toResponse(
+                post,
+                (int) (post.getLikeCount() + likeCounterStore.pendingDelta(post.getId())),
+                post.getCommentCount(),
+                liked.contains(post.getId())))
+            .collect(Collectors.toList());
+    }
+
+    private Set<Long> likedByViewer(Collection<Long> postIds, Long viewerId) {
+        if (viewerId == null) {
+            return Set.of();
+        }
+        Set<Long> liked = new HashSet<>(postRepository.findLikedPostIds(viewerId, postIds));
+        // Likes that have not been flushed to post_likes yet
+        for (Long postId : postIds) {
+            Boolean pending = likeCounterStore.pendingLikeState(postId, viewerId);
+            if (pending != null) {
+                if (pending) {
+                    liked.add(postId);
+                } else {
+                    liked.remove(postId);
+                }
+            }
+        }
+        return liked;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.live_backend.service.Feed;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.repository.User.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Precomputed home timelines (hybrid fan-out).
+ *
+ * New posts are pushed into the {@link TimelineRing} of every follower whose
+ * timeline is resident (fan-out-on-write). Authors with more followers than
+ * {@code feed.timeline.fanout-max-followers} are skipped at write time and their
+ * posts are merged in when a follower reads (fan-out-on-read).
+ *
+ * Memory is bounded by {@code capacity * 16 bytes * max-users}; with the defaults
+ * (400 slots, 20k users) that is about 128 MB. Timelines are evicted LRU and
+ * rebuilt from the database on the next read.
+ */
+@Component
+@RequiredArgsConstructor
+public class HomeTimelineCache {
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+
+    @Value("${feed.timeline.capacity:400}")
+    private int capacity;
+
+    @Value("${feed.timeline.max-users:20000}")
+    private int maxUsers;
+
+    @Value("${feed.timeline.fanout-max-followers:5000}")
+    private long fanoutMaxFollowers;
+
+    private Map<Long, TimelineRing> timelines;
+
+    // Authors whose posts are pulled at read time instead of pushed at write time
+    private final Set<Long> highFanoutAuthors = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        timelines = Collections.synchronizedMap(new LinkedHashMap<Long, TimelineRing>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, TimelineRing> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    /**
+     * Pushes a freshly created post into its author's followers' timelines.
+     */
+    public void fanOut(Long authorId, Long postId, LocalDateTime createdAt) {
+        if (highFanoutAuthors.contains(authorId)) {
+            return;
+        }
+        if (userRepository.countFollowers(authorId) > fanoutMaxFollowers) {
+            highFanoutAuthors.add(authorId);
+            return;
+        }
+        long key = TimelineRing.key(createdAt);
+        for (Long followerId : userRepository.findFollowerIds(authorId)) {
+            // Only resident timelines, including ones still loading; cold ones are rebuilt from the database anyway
+            TimelineRing ring = timelines.get(followerId);
+            if (ring != null) {
+                ring.append(key, postId);
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} post ids older than the {@code before} cursor (or from
+     * the top when it is null), newest first by (createdAt, id). Returns null
+     * when the request reaches past what the cached timeline holds, or the
+     * timeline is still being loaded by another request, in which case the
+     * caller should fall back to the database feed query.
+     */
+    public List<Long> getPage(Long userId, FeedCursor before, int limit) {
+        TimelineRing ring = timelines.get(userId);
+        if (ring == null) {
+            ring = load(userId);
+        }
+        if (ring == null || !ring.isLoaded()) {
+            return null;
+        }
+
+        long beforeKey = before == null ? Long.MAX_VALUE : TimelineRing.key(before.getCreatedAt());
+        long beforeId = before == null ? Long.MAX_VALUE : before.getId();
+        TimelineRing.Page pushed = ring.before(beforeKey, beforeId, limit);
+        if (pushed.ids.length < limit && ring.isFull()) {
+            return null;
+        }
+        return merge(pushed, pulled(userId, before, limit), limit);
+    }
+
+    /**
+     * Drops a user's cached timeline, e.g. after they follow or unfollow someone.
+     */
+    public void invalidate(Long userId) {
+        timelines.remove(userId);
+    }
+
+    /**
+     * Installs an empty ring before reading the database, so a post fanned out
+     * while the query runs lands in the ring instead of being missed; the ring
+     * orders and dedupes whatever arrives from both sides. Returns null if
+     * another request is already loading this timeline.
+     */
+    private TimelineRing load(Long userId) {
+        TimelineRing ring = new TimelineRing(capacity);
+        if (timelines.putIfAbsent(userId, ring) != null) {
+            return null;
+        }
+        try {
+            for (PostRepository.FeedKey post : postRepository.findFollowingFeedKeys(userId, PageRequest.of(0, capacity))) {
+                ring.append(TimelineRing.key(post.getCreatedAt()), post.getId());
+            }
+        } catch (RuntimeException e) {
+            timelines.remove(userId, ring);
+            throw e;
+        }
+        ring.markLoaded();
+        return ring;
+    }
+
+    private List<PostRepository.FeedKey> pulled(Long userId, FeedCursor before, int limit) {
+        if (highFanoutAuthors.isEmpty()) {
+            return List.of();
+        }
+        List<Long> followedAuthors = userRepository.findFollowedIdsAmong(userId, List.copyOf(highFanoutAuthors));
+        if (followedAuthors.isEmpty()) {
+            return List.of();
+        }
+        return before == null
+            ? postRepository.findFeedKeysByAuthors(followedAuthors, PageRequest.of(0, limit))
+            : postRepository.findFeedKeysByAuthorsBefore(followedAuthors, before.getCreatedAt(), before.getId(),
+                PageRequest.of(0, limit));
+    }
+
+    // Merges two lists ordered newest first by (createdAt, id), dropping duplicates
+    private static List<Long> merge(TimelineRing.Page pushed, List<PostRepository.FeedKey> pulled, int limit) {
+        List<Long> merged = new ArrayList<>(Math.min(limit, pushed.ids.length + pulled.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < pushed.ids.length || j < pulled.size())) {
+            if (j >= pulled.size()) {
+                merged.add(pushed.ids[i++]);
+                continue;
+            }
+            long pulledKey = TimelineRing.key(pulled.get(j).getCreatedAt());
+            long pulledId = pulled.get(j).getId();
+            if (i < pushed.ids.length && pushed.ids[i] == pulledId) {
+                merged.add(pushed.ids[i++]);
+                j++;
+            } else if (i < pushed.ids.length && TimelineRing.isOlder(pulledKey, pulledId, pushed.createdAt[i], pushed.ids[i])) {
+                merged.add(pushed.ids[i++]);
+            } else {
+                merged.add(pulledId);
+                j++;
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.live_backend.service.Feed;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.repository.Social.PostRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind like counting.
+ *
+ * Likes land in a per-post liker set (dedupes repeat likes) and a LongAdder
+ * delta (striped, so a hot post does not serialize on one row lock). The set
+ * is changed under its map entry's lock, the same lock flush takes to evict
+ * it, so a like never lands in a set that is being dropped. Loading a set from
+ * the database happens before taking that lock, and a load that raced an
+ * eviction is thrown away and redone. A scheduled flush
+ * writes the changed post_likes rows and the summed like_count deltas in JDBC
+ * batches; a failed batch is merged back and retried on the next run.
+ * Anything liked since the last flush, at most {@code feed.likes.flush-ms},
+ * is lost if the node crashes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeCounterStore {
+    private static final String INSERT_LIKE =
+        "INSERT INTO post_likes (post_id, user_id) SELECT ?, ? " +
+        "WHERE NOT EXISTS (SELECT 1 FROM post_likes WHERE post_id = ? AND user_id = ?)";
+    private static final String DELETE_LIKE =
+        "DELETE FROM post_likes WHERE post_id = ? AND user_id = ?";
+    private static final String ADD_LIKE_COUNT =
+        "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${feed.likes.max-tracked-posts:10000}")
+    private int maxTrackedPosts;
+
+    // Likers per post, loaded from post_likes the first time a post is liked or unliked
+    private final Map<Long, Likers> likers = new ConcurrentHashMap<>();
+
+    // like_count changes not yet written to posts
+    private final Map<Long, LongAdder> pendingDeltas = new ConcurrentHashMap<>();
+
+    // Latest like state per (post, user) not yet written to post_likes
+    private final Map<LikeKey, Boolean> pendingLikes = new ConcurrentHashMap<>();
+
+    // Bumped at the start of every flush; only written under the flush lock
+    private volatile long flushRound;
+
+    // Bumped under the entry lock whenever a likers set is dropped
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static final class Likers {
+        final Set<Long> userIds;
+        // flushRound when a like or unlike last changed this set
+        long changedInRound;
+
+        Likers(Set<Long> userIds) {
+            this.userIds = userIds;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static final class LikeKey {
+        final long postId;
+        final long userId;
+
+        LikeKey(long postId, long userId) {
+            this.postId = postId;
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * Returns true if this was a new like, false if the user had already liked the post.
+     */
+    public boolean like(Long postId, Long userId) {
+        return change(postId, userId, true);
+    }
+
+    /**
+     * Returns true if the like was removed, false if the user had not liked the post.
+     */
+    public boolean unlike(Long postId, Long userId) {
+        return change(postId, userId, false);
+    }
+
+    /**
+     * Likes accepted in memory but not yet added to posts.like_count.
+     */
+    public long pendingDelta(Long postId) {
+        LongAdder delta = pendingDeltas.get(postId);
+        return delta == null ? 0 : delta.sum();
+    }
+
+    /**
+     * The viewer's like state if it changed since the last flush, otherwise null.
+     */
+    public Boolean pendingLikeState(Long postId, Long userId) {
+        return pendingLikes.get(new LikeKey(postId, userId));
+    }
+
+    @Scheduled(fixedDelayString = "${feed.likes.flush-ms:2000}")
+    public synchronized void flush() {
+        long round = ++flushRound;
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        pendingLikes.forEach((key, liked) -> {
+            // Only drain entries that did not change under us; the rest go next round
+            if (pendingLikes.remove(key, liked)) {
+                if (liked) {
+                    inserts.add(new Object[] { key.postId, key.userId, key.postId, key.userId });
+                } else {
+                    deletes.add(new Object[] { key.postId, key.userId });
+                }
+            }
+        });
+
+        List<Object[]> counts = new ArrayList<>();
+        pendingDeltas.forEach((postId, delta) -> {
+            long sum = delta.sumThenReset();
+            if (sum != 0) {
+                counts.add(new Object[] { sum, postId });
+            }
+        });
+
+        try {
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LIKE, inserts);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_LIKE, deletes);
+            }
+            if (!counts.isEmpty()) {
+                jdbcTemplate.batchUpdate(ADD_LIKE_COUNT, counts);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} likes and {} like counts, will retry", inserts.size() + deletes.size(), counts.size(), e);
+            // Row writes are idempotent, so put every drained state back unless a newer one arrived since
+            inserts.forEach(row -> pendingLikes.putIfAbsent(new LikeKey((Long) row[0], (Long) row[1]), Boolean.TRUE));
+            deletes.forEach(row -> pendingLikes.putIfAbsent(new LikeKey((Long) row[0], (Long) row[1]), Boolean.FALSE));
+            counts.forEach(row -> pendingDeltas.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]));
+            return;
+        }
+
+        if (likers.size() > maxTrackedPosts) {
+            // Sets untouched since this round began have everything on disk, so they can be
+            // dropped and reloaded on next touch. Checked under the entry lock like/unlike take.
+            for (Long postId : likers.keySet()) {
+                likers.computeIfPresent(postId, (id, postLikers) -> {
+                    if (postLikers.changedInRound < round) {
+                        evictions.incrementAndGet();
+                        return null;
+                    }
+                    return postLikers;
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean change(Long postId, Long userId, boolean liked) {
+        boolean[] changed = new boolean[1];
+        boolean[] applied = new boolean[1];
+        while (!applied[0]) {
+            // The query runs outside the entry lock, so other posts in the bin are not held up
+            long epoch = evictions.get();
+            Likers loaded = likers.containsKey(postId) ? null : load(postId);
+            likers.compute(postId, (id, postLikers) -> {
+                if (postLikers == null) {
+                    // A set evicted after the load began may have had likes the load missed
+                    if (loaded == null || evictions.get() != epoch) {
+                        return null;
+                    }
+                    postLikers = loaded;
+                }
+                applied[0] = true;
+                changed[0] = liked ? postLikers.userIds.add(userId) : postLikers.userIds.remove(userId);
+                if (changed[0]) {
+                    pendingDeltas.computeIfAbsent(id, key -> new LongAdder()).add(liked ? 1 : -1);
+                    pendingLikes.put(new LikeKey(id, userId), liked);
+                    postLikers.changedInRound = flushRound;
+                }
+                return postLikers;
+            });
+        }
+        return changed[0];
+    }
+
+    private Likers load(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+        return new Likers(new HashSet<>(postRepository.findLikerIds(postId)));
+    }
+}
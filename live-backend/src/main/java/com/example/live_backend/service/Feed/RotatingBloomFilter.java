@@ -0,0 +1,85 @@
+package com.example.live_backend.service.Feed;
+
+import java.util.Arrays;
+
+/**
+ * Two-generation Bloom filter over long ids.
+ *
+ * Inserts go to the current generation; lookups check both. Once the current
+ * generation holds {@code generationCapacity} ids it becomes the previous one
+ * and the old previous generation is discarded, so the filter remembers the
+ * most recent 1-2x generationCapacity ids in fixed memory.
+ */
+public class RotatingBloomFilter {
+    private final int bits;
+    private final int hashes;
+    private final int generationCapacity;
+
+    private long[] current;
+    private long[] previous;
+    private int insertedInCurrent;
+
+    /**
+     * @param bits number of bits per generation, rounded up to a multiple of 64
+     */
+    public RotatingBloomFilter(int bits, int hashes, int generationCapacity) {
+        int words = (bits + 63) / 64;
+        this.bits = words * 64;
+        this.hashes = hashes;
+        this.generationCapacity = generationCapacity;
+        this.current = new long[words];
+        this.previous = new long[words];
+    }
+
+    public synchronized void add(long id) {
+        if (contains(current, id)) {
+            return;
+        }
+        if (insertedInCurrent >= generationCapacity) {
+            long[] recycled = previous;
+            Arrays.fill(recycled, 0L);
+            previous = current;
+            current = recycled;
+            insertedInCurrent = 0;
+        }
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            current[bit >>> 6] |= 1L << bit;
+        }
+        insertedInCurrent++;
+    }
+
+    public synchronized boolean mightContain(long id) {
+        return contains(current, id) || contains(previous, id);
+    }
+
+    /**
+     * Heap used by the bit arrays of one filter, in bytes.
+     */
+    public int sizeInBytes() {
+        return current.length * 8 * 2;
+    }
+
+    private boolean contains(long[] generation, long id) {
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((generation[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // SplitMix64 finalizer; post ids are sequential so they need spreading
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.live_backend.service.Feed;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user record of recently seen posts, used to drop repeats from the explore
+ * and trending feeds.
+ *
+ * Each active user gets a {@link RotatingBloomFilter} of two 8192-bit generations
+ * (2 KB) holding 800 ids each, so it remembers roughly the last 800-1600
+ * impressions. A full generation has about a 0.9% false-positive rate (a post
+ * wrongly hidden); a lookup checks both, so with both full it is about 1.7%.
+ * At most {@code feed.seen.max-users} filters are kept, evicted LRU, which
+ * bounds the whole structure to about 2 KB x max-users (40 MB at the default).
+ */
+@Component
+public class SeenPostFilter {
+    static final int BITS_PER_GENERATION = 8192;
+    static final int HASHES = 5;
+    static final int IDS_PER_GENERATION = 800;
+
+    @Value("${feed.seen.max-users:20000}")
+    private int maxUsers;
+
+    private Map<Long, RotatingBloomFilter> filters;
+
+    @PostConstruct
+    void init() {
+        filters = Collections.synchronizedMap(new LinkedHashMap<Long, RotatingBloomFilter>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RotatingBloomFilter> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public void markSeen(Long userId, Collection<Long> postIds) {
+        RotatingBloomFilter filter = filters.computeIfAbsent(userId,
+            id -> new RotatingBloomFilter(BITS_PER_GENERATION, HASHES, IDS_PER_GENERATION));
+        for (Long postId : postIds) {
+            filter.add(postId);
+        }
+    }
+
+    public boolean hasSeen(Long userId, Long postId) {
+        RotatingBloomFilter filter = filters.get(userId);
+        return filter != null && filter.mightContain(postId);
+    }
+
+    /**
+     * False when the user has no impressions recorded, letting callers skip filtering.
+     */
+    public boolean isTracking(Long userId) {
+        return filters.containsKey(userId);
+    }
+}
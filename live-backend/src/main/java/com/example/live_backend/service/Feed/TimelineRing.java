@@ -0,0 +1,149 @@
+package com.example.live_backend.service.Feed;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring of post ids kept newest first by (createdAt, id), the
+ * same order as the feed cursor and the database feed query.
+ *
+ * Backed by two long[]s, createdAt as epoch microseconds and the id, so a
+ * resident timeline costs 16 bytes per slot and no boxing. When the ring is
+ * full the oldest post is overwritten.
+ */
+public class TimelineRing {
+    private final long[] createdAt;
+    private final long[] ids;
+    private int head; // next slot to write
+    private int size;
+
+    // Set once the initial fill from the database is done
+    private volatile boolean loaded;
+
+    /**
+     * Posts on one page, newest first; {@code createdAt[i]} belongs to {@code ids[i]}.
+     */
+    public static final class Page {
+        public final long[] createdAt;
+        public final long[] ids;
+
+        Page(long[] createdAt, long[] ids) {
+            this.createdAt = createdAt;
+            this.ids = ids;
+        }
+    }
+
+    public TimelineRing(int capacity) {
+        this.createdAt = new long[capacity];
+        this.ids = new long[capacity];
+    }
+
+    /**
+     * Sort key for a post's createdAt. Microseconds, which is what the database keeps.
+     */
+    public static long key(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+    }
+
+    public synchronized void append(long createdAtKey, long postId) {
+        int capacity = ids.length;
+        if (size == capacity && isOlder(createdAtKey, postId, head)) {
+            // Older than everything we still hold; it would be evicted immediately
+            return;
+        }
+        if (size > 0 && !isOlder(createdAt[slot(0)], ids[slot(0)], createdAtKey, postId) && indexOf(postId) >= 0) {
+            return;
+        }
+
+        createdAt[head] = createdAtKey;
+        ids[head] = postId;
+        head = (head + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+
+        // Fan-out can deliver slightly out of order; bubble the new post into place
+        for (int rank = 0; rank + 1 < size; rank++) {
+            int current = slot(rank);
+            int older = slot(rank + 1);
+            if (isOlder(createdAt[older], ids[older], createdAt[current], ids[current])) {
+                break;
+            }
+            swap(older, current);
+        }
+    }
+
+    /**
+     * Up to {@code limit} posts strictly older than ({@code createdAtKey},
+     * {@code postId}), newest first. Pass {@code Long.MAX_VALUE} for both to
+     * start at the top.
+     */
+    public synchronized Page before(long createdAtKey, long postId, int limit) {
+        int length = Math.min(limit, size);
+        long[] pageCreatedAt = new long[length];
+        long[] pageIds = new long[length];
+        int count = 0;
+        for (int rank = 0; rank < size && count < length; rank++) {
+            int slot = slot(rank);
+            if (isOlder(createdAt[slot], ids[slot], createdAtKey, postId)) {
+                pageCreatedAt[count] = createdAt[slot];
+                pageIds[count++] = ids[slot];
+            }
+        }
+        return count == length
+            ? new Page(pageCreatedAt, pageIds)
+            : new Page(Arrays.copyOf(pageCreatedAt, count), Arrays.copyOf(pageIds, count));
+    }
+
+    /**
+     * True once the ring has wrapped, i.e. older ids may have been dropped and a
+     * short read does not mean the timeline is exhausted.
+     */
+    public synchronized boolean isFull() {
+        return size == ids.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    private boolean isOlder(long createdAtKey, long postId, int slot) {
+        return isOlder(createdAtKey, postId, createdAt[slot], ids[slot]);
+    }
+
+    static boolean isOlder(long createdAtKey, long postId, long thanCreatedAt, long thanId) {
+        return createdAtKey < thanCreatedAt || (createdAtKey == thanCreatedAt && postId < thanId);
+    }
+
+    private void swap(int a, int b) {
+        long tmp = createdAt[a];
+        createdAt[a] = createdAt[b];
+        createdAt[b] = tmp;
+        tmp = ids[a];
+        ids[a] = ids[b];
+        ids[b] = tmp;
+    }
+
+    private int indexOf(long postId) {
+        for (int rank = 0; rank < size; rank++) {
+            if (ids[slot(rank)] == postId) {
+                return rank;
+            }
+        }
+        return -1;
+    }
+
+    // Physical slot of the rank-th newest post
+    private int slot(int rank) {
+        return Math.floorMod(head - 1 - rank, ids.length);
+    }
+}
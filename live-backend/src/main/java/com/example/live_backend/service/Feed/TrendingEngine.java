@@ -0,0 +1,187 @@
+package com.example.live_backend.service.Feed;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.repository.Social.PostRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-process trending ranking for recent public posts.
+ *
+ * Every post, like and comment adds weight * 2^((t - epoch) / halfLife) to the
+ * post's score. Growing the weight of new events instead of shrinking old
+ * scores gives the same ordering as exponential decay while keeping each event
+ * an O(1) add. The top K is rebuilt on a fixed interval and readers only ever
+ * see the last immutable snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendingEngine {
+    static final double POST_WEIGHT = 1.0;
+    static final double LIKE_WEIGHT = 1.0;
+    static final double COMMENT_WEIGHT = 2.0;
+
+    // Rebase once event weights reach 2^REBASE_HALF_LIVES to stay well clear of overflow
+    private static final int REBASE_HALF_LIVES = 256;
+
+    private final PostRepository postRepository;
+
+    @Value("${feed.trending.half-life-hours:6}")
+    private double halfLifeHours;
+
+    @Value("${feed.trending.window-hours:48}")
+    private long windowHours;
+
+    @Value("${feed.trending.size:200}")
+    private int topK;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Writers share the read lock; a rebase takes the write lock to rescale every score
+    private final ReadWriteLock rebaseLock = new ReentrantReadWriteLock();
+    private volatile long epochMillis = System.currentTimeMillis();
+
+    private volatile List<Long> snapshot = List.of();
+
+    private static class Entry {
+        final long createdAtMillis;
+        final DoubleAdder score = new DoubleAdder();
+
+        Entry(long createdAtMillis) {
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minusHours(windowHours);
+        postRepository.findTrendingSeeds(since).forEach(seed ->
+            seed(seed.getId(), seed.getCreatedAt(), seed.getLikeCount(), seed.getCommentCount()));
+        recompute();
+    }
+
+    /**
+     * Starts tracking a public post. Private posts never trend, so callers skip them.
+     */
+    public void recordPost(Long postId, LocalDateTime createdAt) {
+        seed(postId, createdAt, 0, 0);
+    }
+
+    /**
+     * Tracks a post with likes and comments it already has, counting them at its creation time.
+     */
+    public void seed(Long postId, LocalDateTime createdAt, int likeCount, int commentCount) {
+        long createdAtMillis = toMillis(createdAt);
+        Entry entry = entries.computeIfAbsent(postId, id -> new Entry(createdAtMillis));
+        add(entry, POST_WEIGHT + likeCount * LIKE_WEIGHT + commentCount * COMMENT_WEIGHT, createdAtMillis);
+    }
+
+    public void recordLike(Long postId) {
+        record(postId, LIKE_WEIGHT);
+    }
+
+    public void recordUnlike(Long postId) {
+        record(postId, -LIKE_WEIGHT);
+    }
+
+    public void recordComment(Long postId) {
+        record(postId, COMMENT_WEIGHT);
+    }
+
+    public void recordCommentDeleted(Long postId) {
+        record(postId, -COMMENT_WEIGHT);
+    }
+
+    /**
+     * The current top post ids, best first. Constant time; reflects the last recompute.
+     */
+    public List<Long> top(int limit) {
+        List<Long> current = snapshot;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${feed.trending.refresh-ms:30000}")
+    public void recompute() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - windowHours * 3_600_000L;
+        entries.values().removeIf(entry -> entry.createdAtMillis < cutoff);
+
+        if (now - epochMillis > REBASE_HALF_LIVES * halfLifeMillis()) {
+            rebase(now);
+        }
+
+        // Min-heap of the best K seen so far
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(topK + 1, byScore);
+        entries.forEach((postId, entry) -> {
+            heap.offer(Map.entry(postId, entry.score.sum()));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        });
+
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        snapshot = Collections.unmodifiableList(ranked);
+    }
+
+    private void record(Long postId, double weight) {
+        Entry entry = entries.get(postId);
+        if (entry != null) {
+            add(entry, weight, System.currentTimeMillis());
+        }
+    }
+
+    private void add(Entry entry, double weight, long atMillis) {
+        rebaseLock.readLock().lock();
+        try {
+            entry.score.add(weight * Math.pow(2, (atMillis - epochMillis) / halfLifeMillis()));
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    // Moves the reference time forward and scales every score down to match
+    private void rebase(long newEpochMillis) {
+        rebaseLock.writeLock().lock();
+        try {
+            double factor = Math.pow(2, (epochMillis - newEpochMillis) / halfLifeMillis());
+            entries.values().forEach(entry -> {
+                double rescaled = entry.score.sumThenReset() * factor;
+                entry.score.add(rescaled);
+            });
+            epochMillis = newEpochMillis;
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+    }
+
+    private double halfLifeMillis() {
+        return halfLifeHours * 3_600_000d;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.live_backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.live_backend.dto.User.UserResponse;
+import com.example.live_backend.mapper.UserMapper;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Graph.SocialGraphIndex;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * "People you may know": friends of the user's friends whom the user does not
+ * follow yet, ranked by how many friends they share.
+ *
+ * Counting merges every friend's sorted friend list from
+ * {@link SocialGraphIndex} into one sorted run of (id, count) arrays, with no
+ * per-candidate boxing. For users with many friends the merge is split across
+ * the common fork-join pool.
+ * Rankings are cached per user for {@code graph.suggestions.ttl-seconds}, so
+ * follows made in the meantime only show up after the entry expires.
+ */
+@Service
+@RequiredArgsConstructor
+public class FriendSuggestionService {
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private final SocialGraphIndex socialGraphIndex;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    @Value("${graph.suggestions.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${graph.suggestions.max-users:10000}")
+    private int maxUsers;
+
+    // Friends per fork-join leaf; below this the whole count runs on the caller
+    @Value("${graph.suggestions.parallel-threshold:256}")
+    private int parallelThreshold;
+
+    private static class Ranked {
+        final long[] userIds;
+        final int[] mutualCounts;
+        final long expiresAt;
+
+        Ranked(long[] userIds, int[] mutualCounts, long expiresAt) {
+            this.userIds = userIds;
+            this.mutualCounts = mutualCounts;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private Map<Long, Ranked> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<Long, Ranked>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Ranked> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public List<UserResponse> getSuggestions(Long userId, int limit) {
+        Ranked ranked = ranked(userId);
+        int count = Math.min(Math.max(limit, 0), ranked.userIds.length);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(ranked.userIds[i]);
+        }
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserResponse> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = users.get(ranked.userIds[i]);
+            if (user != null) {
+                UserResponse response = userMapper.toResponse(user);
+                response.setMutualFriendCount(ranked.mutualCounts[i]);
+                suggestions.add(response);
+            }
+        }
+        return suggestions;
+    }
+
+    private Ranked ranked(Long userId) {
+        Ranked cached = cache.get(userId);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached;
+        }
+        Ranked ranked = rank(userId);
+        cache.put(userId, ranked);
+        return ranked;
+    }
+
+    private Ranked rank(Long userId) {
+        long[] friends = socialGraphIndex.friends(userId);
+        MutualCounts counts = friends.length == 0 ? MutualCounts.EMPTY
+            : friends.length <= parallelThreshold
+                ? new MutualCount(friends, 0, friends.length).compute()
+                : ForkJoinPool.commonPool().invoke(new MutualCount(friends, 0, friends.length));
+
+        long[] following = socialGraphIndex.following(userId);
+        // Worst first, so the heap head is the one to drop; ties go to the lower id
+        PriorityQueue<Integer> top = new PriorityQueue<>(
+            Comparator.<Integer>comparingInt(i -> counts.counts[i])
+                .thenComparing(i -> counts.ids[i], Comparator.reverseOrder()));
+        for (int i = 0; i < counts.size; i++) {
+            long candidateId = counts.ids[i];
+            if (candidateId == userId || Arrays.binarySearch(following, candidateId) >= 0) {
+                continue;
+            }
+            top.add(i);
+            if (top.size() > MAX_SUGGESTIONS) {
+                top.poll();
+            }
+        }
+
+        long[] ids = new long[top.size()];
+        int[] mutualCounts = new int[top.size()];
+        for (int i = top.size() - 1; i >= 0; i--) {
+            int index = top.poll();
+            ids[i] = counts.ids[index];
+            mutualCounts[i] = counts.counts[index];
+        }
+        return new Ranked(ids, mutualCounts, System.currentTimeMillis() + ttlSeconds * 1000);
+    }
+
+    /**
+     * Friend-of-a-friend ids in ascending order, each with how many friends
+     * lead to it. Only the first {@code size} entries are used.
+     */
+    private static final class MutualCounts {
+        static final MutualCounts EMPTY = new MutualCounts(new long[0], new int[0], 0);
+
+        final long[] ids;
+        final int[] counts;
+        final int size;
+
+        MutualCounts(long[] ids, int[] counts, int size) {
+            this.ids = ids;
+            this.counts = counts;
+            this.size = size;
+        }
+
+        // One friend's friend list, which the index keeps sorted
+        static MutualCounts of(long[] friends) {
+            int[] counts = new int[friends.length];
+            Arrays.fill(counts, 1);
+            return new MutualCounts(friends, counts, friends.length);
+        }
+
+        // Merges two sorted runs, adding the counts of ids found in both
+        static MutualCounts merge(MutualCounts a, MutualCounts b) {
+            long[] ids = new long[a.size + b.size];
+            int[] counts = new int[a.size + b.size];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.size && j < b.size) {
+                if (a.ids[i] < b.ids[j]) {
+                    ids[n] = a.ids[i];
+                    counts[n++] = a.counts[i++];
+                } else if (a.ids[i] > b.ids[j]) {
+                    ids[n] = b.ids[j];
+                    counts[n++] = b.counts[j++];
+                } else {
+                    ids[n] = a.ids[i];
+                    counts[n++] = a.counts[i++] + b.counts[j++];
+                }
+            }
+            for (; i < a.size; i++, n++) {
+                ids[n] = a.ids[i];
+                counts[n] = a.counts[i];
+            }
+            for (; j < b.size; j++, n++) {
+                ids[n] = b.ids[j];
+                counts[n] = b.counts[j];
+            }
+            return new MutualCounts(ids, counts, n);
+        }
+    }
+
+    /**
+     * Counts, for every friend-of-a-friend, how many of {@code friends[from, to)}
+     * they are friends with, by merging the friends' sorted friend lists
+     * pairwise. Ranges over {@code parallelThreshold} fork.
+     */
+    private class MutualCount extends RecursiveTask<MutualCounts> {
+        private final long[] friends;
+        private final int from;
+        private final int to;
+
+        MutualCount(long[] friends, int from, int to) {
+            this.friends = friends;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MutualCounts compute() {
+            if (to - from == 1) {
+                return MutualCounts.of(socialGraphIndex.friends(friends[from]));
+            }
+            int mid = (from + to) >>> 1;
+            MutualCount left = new MutualCount(friends, from, mid);
+            if (to - from <= parallelThreshold) {
+                return MutualCounts.merge(left.compute(), new MutualCount(friends, mid, to).compute());
+            }
+            left.fork();
+            MutualCounts right = new MutualCount(friends, mid, to).compute();
+            return MutualCounts.merge(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.live_backend.service.Graph;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * One direction of the follow graph in compressed sparse row form.
+ *
+ * Node ids are kept sorted in {@code nodeIds}; the neighbours of node i are
+ * {@code edges[offsets[i] .. offsets[i + 1])}, also sorted. The arrays are
+ * buffers so the same structure can sit on the heap (freshly built) or on a
+ * memory-mapped snapshot file ({@link GraphSnapshot}). Immutable once built and
+ * only read with absolute gets, so any thread can read it without locking.
+ * Costs 8 bytes per edge plus 12 bytes per node.
+ */
+public final class CsrAdjacency {
+    static final long[] NO_NEIGHBOURS = new long[0];
+
+    private final LongBuffer nodeIds;
+    private final IntBuffer offsets;
+    private final LongBuffer edges;
+
+    CsrAdjacency(LongBuffer nodeIds, IntBuffer offsets, LongBuffer edges) {
+        this.nodeIds = nodeIds;
+        this.offsets = offsets;
+        this.edges = edges;
+    }
+
+    static CsrAdjacency empty() {
+        return build(NO_NEIGHBOURS, NO_NEIGHBOURS, NO_NEIGHBOURS, 0);
+    }
+
+    /**
+     * Builds the adjacency of {@code from -> to} over the first {@code count} pairs.
+     * {@code nodeIds} must be sorted and contain every id in {@code from}.
+     */
+    static CsrAdjacency build(long[] nodeIds, long[] from, long[] to, int count) {
+        int[] offsets = new int[nodeIds.length + 1];
+        int[] nodeOf = new int[count];
+        for (int e = 0; e < count; e++) {
+            nodeOf[e] = Arrays.binarySearch(nodeIds, from[e]);
+            offsets[nodeOf[e] + 1]++;
+        }
+        for (int i = 0; i < nodeIds.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        long[] edges = new long[count];
+        int[] cursor = Arrays.copyOf(offsets, nodeIds.length);
+        for (int e = 0; e < count; e++) {
+            edges[cursor[nodeOf[e]]++] = to[e];
+        }
+        for (int i = 0; i < nodeIds.length; i++) {
+            Arrays.sort(edges, offsets[i], offsets[i + 1]);
+        }
+        return new CsrAdjacency(LongBuffer.wrap(nodeIds), IntBuffer.wrap(offsets), LongBuffer.wrap(edges));
+    }
+
+    public long[] neighbours(long nodeId) {
+        int i = indexOf(nodeId);
+        if (i < 0) {
+            return NO_NEIGHBOURS;
+        }
+        int start = offsets.get(i);
+        long[] out = new long[offsets.get(i + 1) - start];
+        edges.get(start, out);
+        return out;
+    }
+
+    public int degree(long nodeId) {
+        int i = indexOf(nodeId);
+        return i < 0 ? 0 : offsets.get(i + 1) - offsets.get(i);
+    }
+
+    public boolean contains(long nodeId, long neighbour) {
+        int i = indexOf(nodeId);
+        return i >= 0 && search(edges, offsets.get(i), offsets.get(i + 1), neighbour) >= 0;
+    }
+
+    public int nodeCount() {
+        return nodeIds.limit();
+    }
+
+    public long nodeId(int index) {
+        return nodeIds.get(index);
+    }
+
+    public int edgeCount() {
+        return edges.limit();
+    }
+
+    LongBuffer nodeIdBuffer() {
+        return nodeIds.duplicate();
+    }
+
+    IntBuffer offsetBuffer() {
+        return offsets.duplicate();
+    }
+
+    LongBuffer edgeBuffer() {
+        return edges.duplicate();
+    }
+
+    private int indexOf(long nodeId) {
+        return search(nodeIds, 0, nodeIds.limit(), nodeId);
+    }
+
+    private static int search(LongBuffer sorted, int from, int to, long key) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = sorted.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.live_backend.service.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of both directions of the follow graph.
+ *
+ * Layout, little-endian:
+ * <pre>
+ *   int    magic ("SGR1")
+ *   long   version      last follow_events id known to be included
+ *   int    nodeCount    n
+ *   int    edgeCount    m
+ *   long[n]   node ids, sorted
+ *   int[n+1]  following offsets
+ *   long[m]   following edges
+ *   int[n+1]  follower offsets
+ *   long[m]   follower edges
+ * </pre>
+ * Files are written to a temp file and moved into place, so a reader never sees
+ * a partial snapshot. Reading maps the file and wraps the sections as buffers
+ * without copying; a single mapping caps the file at 2 GB (about 120M edges),
+ * so larger graphs are refused on write and on read rather than half-mapped.
+ */
+public final class GraphSnapshot {
+    private static final int MAGIC = 0x53475231;
+    private static final int HEADER_BYTES = 4 + 8 + 4 + 4;
+
+    public final long version;
+    public final CsrAdjacency following;
+    public final CsrAdjacency followers;
+
+    GraphSnapshot(long version, CsrAdjacency following, CsrAdjacency followers) {
+        this.version = version;
+        this.following = following;
+        this.followers = followers;
+    }
+
+    static void write(Path path, long version, CsrAdjacency following, CsrAdjacency followers) throws IOException {
+        long size = size(following.nodeCount(), following.edgeCount());
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Social graph too large to snapshot: " + size + " bytes");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putLong(version).putInt(following.nodeCount()).putInt(following.edgeCount());
+
+            LongBuffer nodeIds = following.nodeIdBuffer();
+            while (nodeIds.hasRemaining()) {
+                drainIfFull(channel, buffer, 8);
+                buffer.putLong(nodeIds.get());
+            }
+            for (CsrAdjacency direction : new CsrAdjacency[] { following, followers }) {
+                IntBuffer offsets = direction.offsetBuffer();
+                while (offsets.hasRemaining()) {
+                    drainIfFull(channel, buffer, 4);
+                    buffer.putInt(offsets.get());
+                }
+                LongBuffer edges = direction.edgeBuffer();
+                while (edges.hasRemaining()) {
+                    drainIfFull(channel, buffer, 8);
+                    buffer.putLong(edges.get());
+                }
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static GraphSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Social graph snapshot too large to map: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a social graph snapshot: " + path);
+            }
+            long version = mapped.getLong(4);
+            int nodes = mapped.getInt(12);
+            int edges = mapped.getInt(16);
+
+            if (channel.size() != size(nodes, edges)) {
+                throw new IOException("Truncated social graph snapshot: " + path);
+            }
+
+            int position = HEADER_BYTES;
+            LongBuffer nodeIds = slice(mapped, position, 8 * nodes).asLongBuffer();
+            position += 8 * nodes;
+            CsrAdjacency[] directions = new CsrAdjacency[2];
+            for (int d = 0; d < 2; d++) {
+                IntBuffer offsets = slice(mapped, position, 4 * (nodes + 1)).asIntBuffer();
+                position += 4 * (nodes + 1);
+                LongBuffer edgeIds = slice(mapped, position, 8 * edges).asLongBuffer();
+                position += 8 * edges;
+                directions[d] = new CsrAdjacency(nodeIds, offsets, edgeIds);
+            }
+            // The mapping stays valid after the channel is closed
+            return new GraphSnapshot(version, directions[0], directions[1]);
+        }
+    }
+
+    private static long size(int nodes, int edges) {
+        return HEADER_BYTES + 8L * nodes + 2 * (4L * (nodes + 1) + 8L * edges);
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer mapped, int position, int length) {
+        return mapped.slice(position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void drainIfFull(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,431 @@
+package com.example.live_backend.service.Graph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The whole follow graph in memory, so follower/following/friend lookups never
+ * go through JPA.
+ *
+ * The bulk of the graph lives in two immutable {@link CsrAdjacency} arrays (who
+ * a user follows, and who follows them). Follows and unfollows are applied
+ * copy-on-write: the touched user's neighbour list is copied with the change
+ * into an overlay map, which readers check before the CSR. Once the overlay
+ * grows past a threshold it is folded into fresh CSR arrays. All neighbour
+ * lists are returned sorted ascending, which is what the intersection helpers
+ * expect.
+ *
+ * On boot the graph is memory-mapped from the last {@link GraphSnapshot} and
+ * caught up by replaying follow_events newer than the snapshot's version;
+ * without a snapshot it is read from user_following. A fresh snapshot is
+ * written periodically while there are changes.
+ *
+ * Local follows are applied right after they commit; follows made through
+ * other instances arrive by tailing follow_events on a schedule. Each tail
+ * re-reads the events still inside the snapshot lag window, since a lower id
+ * can commit after a higher one, so another instance's change shows up within
+ * one tail interval once committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SocialGraphIndex {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${social.graph.compact-threshold:50000}")
+    private int compactThreshold;
+
+    @Value("${social.graph.snapshot-path:data/social-graph.snap}")
+    private String snapshotPath;
+
+    // Events younger than this may still be uncommitted, so snapshots never claim them
+    @Value("${social.graph.snapshot-lag-seconds:60}")
+    private long snapshotLagSeconds;
+
+    private static final class Graph {
+        final CsrAdjacency following;
+        final CsrAdjacency followers;
+        final Map<Long, long[]> followingOverlay = new ConcurrentHashMap<>();
+        final Map<Long, long[]> followersOverlay = new ConcurrentHashMap<>();
+
+        Graph(CsrAdjacency following, CsrAdjacency followers) {
+            this.following = following;
+            this.followers = followers;
+        }
+    }
+
+    private volatile Graph graph;
+
+    // Changes applied since the last snapshot was written
+    private final AtomicLong changesSinceSnapshot = new AtomicLong();
+
+    // Serializes snapshot writers, which share the temp file
+    private final Object snapshotLock = new Object();
+
+    // follow_events up to this id are known to be reflected in the graph
+    private volatile long tailedVersion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ensureLoaded();
+    }
+
+    public long[] following(Long userId) {
+        Graph g = ensureLoaded();
+        long[] overlay = g.followingOverlay.get(userId);
+        return overlay != null ? overlay.clone() : g.following.neighbours(userId);
+    }
+
+    public long[] followers(Long userId) {
+        Graph g = ensureLoaded();
+        long[] overlay = g.followersOverlay.get(userId);
+        return overlay != null ? overlay.clone() : g.followers.neighbours(userId);
+    }
+
+    // Mutual follows
+    public long[] friends(Long userId) {
+        return intersect(following(userId), followers(userId));
+    }
+
+    public boolean isFollowing(Long userId, Long otherUserId) {
+        Graph g = ensureLoaded();
+        long[] overlay = g.followingOverlay.get(userId);
+        return overlay != null
+            ? Arrays.binarySearch(overlay, otherUserId) >= 0
+            : g.following.contains(userId, otherUserId);
+    }
+
+    public boolean isFriends(Long userId, Long otherUserId) {
+        return isFollowing(userId, otherUserId) && isFollowing(otherUserId, userId);
+    }
+
+    public int followingCount(Long userId) {
+        Graph g = ensureLoaded();
+        long[] overlay = g.followingOverlay.get(userId);
+        return overlay != null ? overlay.length : g.following.degree(userId);
+    }
+
+    public int followerCount(Long userId) {
+        Graph g = ensureLoaded();
+        long[] overlay = g.followersOverlay.get(userId);
+        return overlay != null ? overlay.length : g.followers.degree(userId);
+    }
+
+    /**
+     * Applies a follow that has been committed to user_following. Idempotent.
+     */
+    public synchronized void addFollow(Long followerId, Long followeeId) {
+        Graph g = ensureLoaded();
+        apply(g, followerId, followeeId, true);
+        compactIfNeeded(g, compactThreshold);
+    }
+
+    /**
+     * Applies an unfollow that has been committed to user_following. Idempotent.
+     */
+    public synchronized void removeFollow(Long followerId, Long followeeId) {
+        Graph g = ensureLoaded();
+        apply(g, followerId, followeeId, false);
+        compactIfNeeded(g, compactThreshold);
+    }
+
+    /**
+     * Replaces the whole graph with the given (follower, followee) pairs.
+     */
+    public synchronized void rebuild(long[] followerIds, long[] followeeIds, int edgeCount) {
+        long[] nodeIds = distinctSorted(followerIds, followeeIds, edgeCount);
+        graph = new Graph(
+            CsrAdjacency.build(nodeIds, followerIds, followeeIds, edgeCount),
+            CsrAdjacency.build(nodeIds, followeeIds, followerIds, edgeCount));
+    }
+
+    /**
+     * Folds pending changes into the CSR and writes it to {@code path}, tagged
+     * with {@code version}. Only the fold holds the index monitor; the CSR
+     * arrays never change once built, so follows applied during the write go to
+     * the overlay and count toward the next snapshot.
+     */
+    public void writeSnapshot(Path path, long version) throws IOException {
+        synchronized (snapshotLock) {
+            Graph g;
+            long written;
+            synchronized (this) {
+                compactIfNeeded(ensureLoaded(), 1);
+                g = graph;
+                written = changesSinceSnapshot.get();
+            }
+            GraphSnapshot.write(path, version, g.following, g.followers);
+            changesSinceSnapshot.addAndGet(-written);
+        }
+    }
+
+    /**
+     * Maps a snapshot in place of the current graph. Returns its version.
+     */
+    public synchronized long loadSnapshot(Path path) throws IOException {
+        GraphSnapshot snapshot = GraphSnapshot.read(path);
+        graph = new Graph(snapshot.following, snapshot.followers);
+        return snapshot.version;
+    }
+
+    /**
+     * Applies follow_events written since the last tail, including those made
+     * through other instances. Replaying an event already applied is a no-op.
+     */
+    @Scheduled(fixedDelayString = "${social.graph.tail-interval-ms:5000}")
+    public void tailEvents() {
+        if (graph == null) {
+            return;
+        }
+        // Read before the events, so everything up to it is in the batch below
+        long safeVersion = safeEventVersion();
+        long after = tailedVersion;
+        EventBuffer events = readEvents(after);
+        synchronized (this) {
+            Graph g = graph;
+            events.applyTo(this, g);
+            compactIfNeeded(g, compactThreshold);
+        }
+        tailedVersion = Math.max(after, safeVersion);
+    }
+
+    @Scheduled(fixedDelayString = "${social.graph.snapshot-interval-ms:600000}")
+    public void snapshot() {
+        if (graph == null || changesSinceSnapshot.get() == 0) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            writeSnapshot(Paths.get(snapshotPath), safeEventVersion());
+            log.info("Wrote social graph snapshot in {} ms", System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            log.warn("Could not write social graph snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    public static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    public static int intersectionSize(long[] a, long[] b) {
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                n++;
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private Graph ensureLoaded() {
+        Graph g = graph;
+        if (g != null) {
+            return g;
+        }
+        synchronized (this) {
+            if (graph == null) {
+                loadFromStorage();
+            }
+            return graph;
+        }
+    }
+
+    private void loadFromStorage() {
+        long started = System.currentTimeMillis();
+        long version = -1;
+        Path path = Paths.get(snapshotPath);
+        if (Files.exists(path)) {
+            try {
+                version = loadSnapshot(path);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable social graph snapshot {}", path, e);
+            }
+        }
+
+        if (version < 0) {
+            // Events after this version are replayed below, so edges read meanwhile are fine
+            version = safeEventVersion();
+            EdgeBuffer edges = new EdgeBuffer();
+            jdbcTemplate.query("SELECT follower_id, followee_id FROM user_following",
+                (RowCallbackHandler) rs -> edges.add(rs.getLong(1), rs.getLong(2)));
+            rebuild(edges.from, edges.to, edges.size);
+        }
+
+        Graph g = graph;
+        EventBuffer events = readEvents(version);
+        events.applyTo(this, g);
+        compactIfNeeded(g, compactThreshold);
+        tailedVersion = version;
+
+        log.info("Loaded social graph: {} edges, {} events replayed, in {} ms",
+            graph.following.edgeCount(), events.size, System.currentTimeMillis() - started);
+    }
+
+    // Replaying in id order leaves every edge in its latest state, even if some were already included
+    private EventBuffer readEvents(long afterId) {
+        EventBuffer events = new EventBuffer();
+        jdbcTemplate.query(
+            "SELECT follower_id, followee_id, followed FROM follow_events WHERE id > ? ORDER BY id",
+            (RowCallbackHandler) rs -> events.add(rs.getLong(1), rs.getLong(2), rs.getBoolean(3)),
+            afterId);
+        return events;
+    }
+
+    private long safeEventVersion() {
+        Long version = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MAX(id), 0) FROM follow_events WHERE created_at < ?",
+            Long.class, Timestamp.valueOf(LocalDateTime.now().minusSeconds(snapshotLagSeconds)));
+        return version == null ? 0 : version;
+    }
+
+    // Caller holds the monitor
+    private void apply(Graph g, long followerId, long followeeId, boolean followed) {
+        long[] following = g.followingOverlay.containsKey(followerId)
+            ? g.followingOverlay.get(followerId) : g.following.neighbours(followerId);
+        long[] followers = g.followersOverlay.containsKey(followeeId)
+            ? g.followersOverlay.get(followeeId) : g.followers.neighbours(followeeId);
+        long[] newFollowing = followed ? withId(following, followeeId) : withoutId(following, followeeId);
+        long[] newFollowers = followed ? withId(followers, followerId) : withoutId(followers, followerId);
+        // Already in this state, e.g. an event replayed by the tail
+        if (newFollowing == following && newFollowers == followers) {
+            return;
+        }
+        g.followingOverlay.put(followerId, newFollowing);
+        g.followersOverlay.put(followeeId, newFollowers);
+        changesSinceSnapshot.incrementAndGet();
+    }
+
+    // Folds the overlay into new CSR arrays; caller holds the monitor
+    private void compactIfNeeded(Graph g, int threshold) {
+        if (g.followingOverlay.size() + g.followersOverlay.size() < threshold) {
+            return;
+        }
+        TreeSet<Long> nodes = new TreeSet<>(g.followingOverlay.keySet());
+        for (int i = 0; i < g.following.nodeCount(); i++) {
+            nodes.add(g.following.nodeId(i));
+        }
+
+        EdgeBuffer edges = new EdgeBuffer();
+        for (Long followerId : nodes) {
+            long[] overlay = g.followingOverlay.get(followerId);
+            for (long followeeId : overlay != null ? overlay : g.following.neighbours(followerId)) {
+                edges.add(followerId, followeeId);
+            }
+        }
+        rebuild(edges.from, edges.to, edges.size);
+    }
+
+    private static long[] withId(long[] sorted, long id) {
+        int i = Arrays.binarySearch(sorted, id);
+        if (i >= 0) {
+            return sorted;
+        }
+        int at = -i - 1;
+        long[] out = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, out, 0, at);
+        out[at] = id;
+        System.arraycopy(sorted, at, out, at + 1, sorted.length - at);
+        return out;
+    }
+
+    private static long[] withoutId(long[] sorted, long id) {
+        int i = Arrays.binarySearch(sorted, id);
+        if (i < 0) {
+            return sorted;
+        }
+        long[] out = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, out, 0, i);
+        System.arraycopy(sorted, i + 1, out, i, sorted.length - i - 1);
+        return out;
+    }
+
+    private static long[] distinctSorted(long[] a, long[] b, int count) {
+        long[] all = new long[count * 2];
+        System.arraycopy(a, 0, all, 0, count);
+        System.arraycopy(b, 0, all, count, count);
+        Arrays.sort(all);
+        int n = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (n == 0 || all[i] != all[n - 1]) {
+                all[n++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, n);
+    }
+
+    private static final class EventBuffer {
+        final EdgeBuffer edges = new EdgeBuffer();
+        boolean[] followed = new boolean[1024];
+        int size;
+
+        void add(long followerId, long followeeId, boolean follow) {
+            if (size == followed.length) {
+                followed = Arrays.copyOf(followed, size * 2);
+            }
+            edges.add(followerId, followeeId);
+            followed[size++] = follow;
+        }
+
+        // Caller holds the index monitor
+        void applyTo(SocialGraphIndex index, Graph g) {
+            for (int i = 0; i < size; i++) {
+                index.apply(g, edges.from[i], edges.to[i], followed[i]);
+            }
+        }
+    }
+
+    private static final class EdgeBuffer {
+        long[] from = new long[1024];
+        long[] to = new long[1024];
+        int size;
+
+        void add(long followerId, long followeeId) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+            }
+            from[size] = followerId;
+            to[size] = followeeId;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.live_backend.service.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Latest position of every participant in one active experience, in parallel
+ * primitive arrays indexed by a per-experience slot. A participant keeps their
+ * slot for the life of the experience. Each slot carries two change flags: one
+ * cleared by the broadcast tick, one by the database write-behind. All methods
+ * synchronize on the instance.
+ */
+public class ExperienceLocations {
+    public static final double SUPPRESSED = -1;
+    public static final double STALE = -2;
+
+    /**
+     * A participant's position as drained for a frame.
+     */
+    public static class Position {
+        public final long userId;
+        public final double latitude;
+        public final double longitude;
+        public final long timestampMillis;
+
+        Position(long userId, double latitude, double longitude, long timestampMillis) {
+            this.userId = userId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.timestampMillis = timestampMillis;
+        }
+    }
+
+    private final LongIntHashMap slotByUser = new LongIntHashMap(16);
+    private long[] userIds = new long[8];
+    private double[] latitudes = new double[8];
+    private double[] longitudes = new double[8];
+    private long[] timestamps = new long[8];
+    private boolean[] dirty = new boolean[8];
+    private boolean[] unpersisted = new boolean[8];
+    private int slots;
+    private int dirtyCount;
+    private int unpersistedCount;
+    // Server time of the last accepted update, for idle eviction; sample times only order positions
+    private volatile long lastUpdateMillis;
+
+    /**
+     * Records a sample unless it is older than the stored position or within
+     * {@code minMoveMeters} of it. A stationary participant is still accepted
+     * once {@code maxSilenceMillis} has passed since their last accepted sample,
+     * so subscribers and the database see they are alive.
+     *
+     * @return speed in m/s since the last accepted sample, or {@link #SUPPRESSED}
+     *         or {@link #STALE} if the sample was dropped
+     */
+    public synchronized double update(long userId, double latitude, double longitude, long timestampMillis,
+                                      double minMoveMeters, long maxSilenceMillis) {
+        int slot = slotByUser.get(userId);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = addSlot(userId);
+        }
+        // Out-of-order samples never overwrite a newer position
+        if (timestampMillis < timestamps[slot]) {
+            return STALE;
+        }
+        lastUpdateMillis = System.currentTimeMillis();
+
+        double speed = 0;
+        if (timestamps[slot] != 0) {
+            double moved = GeoMath.equirectangularMeters(latitudes[slot], longitudes[slot], latitude, longitude);
+            long elapsed = timestampMillis - timestamps[slot];
+            if (moved < minMoveMeters && elapsed < maxSilenceMillis) {
+                return SUPPRESSED;
+            }
+            speed = elapsed > 0 ? moved * 1000 / elapsed : 0;
+        }
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        timestamps[slot] = timestampMillis;
+        if (!dirty[slot]) {
+            dirty[slot] = true;
+            dirtyCount++;
+        }
+        markUnpersisted(slot);
+        return speed;
+    }
+
+    /**
+     * The positions not yet written to the database, in slot order; empty if none.
+     */
+    public synchronized List<Position> drainUnpersisted() {
+        if (unpersistedCount == 0) {
+            return List.of();
+        }
+        List<Position> changed = new ArrayList<>(unpersistedCount);
+        for (int slot = 0; slot < slots; slot++) {
+            if (unpersisted[slot]) {
+                unpersisted[slot] = false;
+                changed.add(new Position(userIds[slot], latitudes[slot], longitudes[slot], timestamps[slot]));
+            }
+        }
+        unpersistedCount = 0;
+        return changed;
+    }
+
+    // After a failed write; the slot's current (possibly newer) position goes out next time
+    public synchronized void markUnpersisted(long userId) {
+        int slot = slotByUser.get(userId);
+        if (slot != LongIntHashMap.MISSING) {
+            markUnpersisted(slot);
+        }
+    }
+
+    public synchronized boolean hasUnpersisted() {
+        return unpersistedCount > 0;
+    }
+
+    /**
+     * The positions that changed since the last drain, in slot order; empty if none.
+     */
+    public synchronized List<Position> drainChanged() {
+        if (dirtyCount == 0) {
+            return List.of();
+        }
+        List<Position> changed = new ArrayList<>(dirtyCount);
+        for (int slot = 0; slot < slots; slot++) {
+            if (dirty[slot]) {
+                dirty[slot] = false;
+                changed.add(new Position(userIds[slot], latitudes[slot], longitudes[slot], timestamps[slot]));
+            }
+        }
+        dirtyCount = 0;
+        return changed;
+    }
+
+    /**
+     * Every participant's current position, without touching the change flags.
+     */
+    public synchronized List<Position> all() {
+        List<Position> positions = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            if (timestamps[slot] != 0) {
+                positions.add(new Position(userIds[slot], latitudes[slot], longitudes[slot], timestamps[slot]));
+            }
+        }
+        return positions;
+    }
+
+    public synchronized Position get(long userId) {
+        int slot = slotByUser.get(userId);
+        if (slot == LongIntHashMap.MISSING || timestamps[slot] == 0) {
+            return null;
+        }
+        return new Position(userIds[slot], latitudes[slot], longitudes[slot], timestamps[slot]);
+    }
+
+    public synchronized int participantCount() {
+        return slots;
+    }
+
+    public long lastUpdateMillis() {
+        return lastUpdateMillis;
+    }
+
+    private void markUnpersisted(int slot) {
+        if (!unpersisted[slot]) {
+            unpersisted[slot] = true;
+            unpersistedCount++;
+        }
+    }
+
+    private int addSlot(long userId) {
+        if (slots == userIds.length) {
+            int capacity = slots * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            dirty = Arrays.copyOf(dirty, capacity);
+            unpersisted = Arrays.copyOf(unpersisted, capacity);
+        }
+        int slot = slots++;
+        userIds[slot] = userId;
+        slotByUser.put(userId, slot);
+        return slot;
+    }
+}
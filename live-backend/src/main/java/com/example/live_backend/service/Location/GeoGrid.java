@@ -0,0 +1,194 @@
+package com.example.live_backend.service.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable fixed-cell grid over points, for radius and k-nearest queries.
+ *
+ * Points are bucketed into cells of {@code cellDegrees} square and stored
+ * sorted by cell key (row-major), so every row of a query's bounding box is one
+ * binary search followed by a contiguous scan. Candidates are filtered with the
+ * equirectangular distance and confirmed with haversine. At 0.01 degree cells
+ * (about 1.1km) a 1km radius touches at most 9 cells. Each point also carries
+ * a small kind tag that queries can filter on with a bit mask.
+ *
+ * Cells must be at least about 0.0025 degrees. Queries near the antimeridian
+ * do not wrap.
+ */
+public final class GeoGrid {
+    private static final double METERS_PER_DEGREE = GeoMath.EARTH_RADIUS_METERS * Math.PI / 180;
+
+    /**
+     * A point found by a query.
+     */
+    public static class Hit {
+        public final long id;
+        public final int kind;
+        public final double latitude;
+        public final double longitude;
+        public final double distanceMeters;
+
+        Hit(long id, int kind, double latitude, double longitude, double distanceMeters) {
+            this.id = id;
+            this.kind = kind;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.distanceMeters = distanceMeters;
+        }
+    }
+
+    private final double cellDegrees;
+    private final long columns;
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final long[] ids;
+    private final byte[] kinds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private GeoGrid(double cellDegrees, long[] cellKeys, int[] cellStart,
+                    long[] ids, byte[] kinds, double[] latitudes, double[] longitudes) {
+        this.cellDegrees = cellDegrees;
+        this.columns = (long) Math.ceil(360 / cellDegrees) + 1;
+        this.cellKeys = cellKeys;
+        this.cellStart = cellStart;
+        this.ids = ids;
+        this.kinds = kinds;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    public static GeoGrid empty(double cellDegrees) {
+        return new GeoGrid(cellDegrees, new long[0], new int[] { 0 }, new long[0], new byte[0], new double[0], new double[0]);
+    }
+
+    /**
+     * Builds a grid over the first {@code count} points. Kinds must be in 0..62.
+     */
+    public static GeoGrid build(double cellDegrees, long[] ids, byte[] kinds,
+                                double[] latitudes, double[] longitudes, int count) {
+        GeoGrid shape = empty(cellDegrees);
+        if ((shape.row(90) + 1) * shape.columns >= 1L << 31) {
+            throw new IllegalArgumentException("Cells smaller than " + cellDegrees + " degrees are not supported");
+        }
+        // Sort (cell key, point) pairs packed in one long: key in the high bits
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = shape.cellKey(latitudes[i], longitudes[i]) << 32 | i;
+        }
+        Arrays.sort(order);
+
+        long[] sortedIds = new long[count];
+        byte[] sortedKinds = new byte[count];
+        double[] sortedLats = new double[count];
+        double[] sortedLons = new double[count];
+        long[] keys = new long[count];
+        int[] starts = new int[count + 1];
+        int cells = 0;
+        for (int i = 0; i < count; i++) {
+            int source = (int) order[i];
+            long key = order[i] >>> 32;
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = i;
+                cells++;
+            }
+            sortedIds[i] = ids[source];
+            sortedKinds[i] = kinds[source];
+            sortedLats[i] = latitudes[source];
+            sortedLons[i] = longitudes[source];
+        }
+        starts[cells] = count;
+        return new GeoGrid(cellDegrees, Arrays.copyOf(keys, cells), Arrays.copyOf(starts, cells + 1),
+            sortedIds, sortedKinds, sortedLats, sortedLons);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Points of a kind in {@code kindMask} within {@code radiusMeters}, nearest
+     * first, at most {@code limit}.
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusMeters, long kindMask, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        collect(latitude, longitude, radiusMeters, kindMask, hits);
+        hits.sort((a, b) -> Double.compare(a.distanceMeters, b.distanceMeters));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * The {@code k} points of a kind in {@code kindMask} nearest to the given
+     * position, no farther than {@code maxRadiusMeters}. Searches a radius of
+     * one cell and doubles it until k points are inside; everything outside the
+     * searched circle is farther than everything in it, so the first k are exact.
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k, double maxRadiusMeters, long kindMask) {
+        double radius = Math.min(maxRadiusMeters, cellDegrees * METERS_PER_DEGREE);
+        while (true) {
+            List<Hit> hits = withinRadius(latitude, longitude, radius, kindMask, k);
+            if (hits.size() >= k || radius >= maxRadiusMeters) {
+                return hits;
+            }
+            radius = Math.min(maxRadiusMeters, radius * 2);
+        }
+    }
+
+    private void collect(double latitude, double longitude, double radiusMeters, long kindMask, List<Hit> hits) {
+        double deltaLat = radiusMeters / METERS_PER_DEGREE;
+        // Widest longitude span is at the box edge nearest the pole
+        double deltaLon = deltaLat / Math.max(Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + deltaLat))), 1e-6);
+        long firstRow = row(Math.max(-90, latitude - deltaLat));
+        long lastRow = row(Math.min(90, latitude + deltaLat));
+        long firstColumn = column(Math.max(-180, longitude - deltaLon));
+        long lastColumn = column(Math.min(180, longitude + deltaLon));
+        // Margin so the cheap distance never rejects a point haversine would keep;
+        // past 50km the flat approximation is no longer trusted
+        double prefilter = radiusMeters > 50_000 ? Double.MAX_VALUE : radiusMeters * 1.01 + 1;
+
+        for (long row = firstRow; row <= lastRow; row++) {
+            long lastKey = row * columns + lastColumn;
+            for (int cell = lowerBound(row * columns + firstColumn); cell < cellKeys.length && cellKeys[cell] <= lastKey; cell++) {
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    if ((kindMask & (1L << kinds[i])) == 0
+                            || GeoMath.equirectangularMeters(latitude, longitude, latitudes[i], longitudes[i]) > prefilter) {
+                        continue;
+                    }
+                    double distance = GeoMath.haversineMeters(latitude, longitude, latitudes[i], longitudes[i]);
+                    if (distance <= radiusMeters) {
+                        hits.add(new Hit(ids[i], kinds[i], latitudes[i], longitudes[i], distance));
+                    }
+                }
+            }
+        }
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = cellKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cellKeys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return row(latitude) * columns + column(longitude);
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private long column(double longitude) {
+        return (long) Math.floor((longitude + 180) / cellDegrees);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.live_backend.service.Location;
+
+/**
+ * Distances between WGS84 coordinates, in meters.
+ */
+public final class GeoMath {
+    public static final double EARTH_RADIUS_METERS = 6371e3;
+
+    private GeoMath() {
+    }
+
+    /**
+     * Great-circle distance. Exact enough at any range.
+     */
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double deltaPhi = Math.toRadians(lat2 - lat1);
+        double deltaLambda = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(deltaPhi / 2) * Math.sin(deltaPhi / 2) +
+                Math.cos(phi1) * Math.cos(phi2) *
+                Math.sin(deltaLambda / 2) * Math.sin(deltaLambda / 2);
+        return EARTH_RADIUS_METERS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Flat-earth approximation: one cosine and a square root. Within a fraction of
+     * a percent of haversine over a few kilometers away from the poles, which is
+     * all movement thresholds and geofences need.
+     */
+    public static double equirectangularMeters(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return EARTH_RADIUS_METERS * Math.sqrt(x * x + y * y);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.live_backend.service.Location;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.service.Event.GeofenceEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tracks which participants are inside the geofence around each experience's
+ * current activity and publishes a {@link GeofenceEvent} when one crosses it.
+ *
+ * The owner of the experience sets the fence whenever the current activity
+ * changes; {@link #evaluate} then costs one map lookup, one set lookup and an
+ * equirectangular distance, with haversine only near the boundary. A
+ * participant arrives within {@code location.geofence.radius-meters} and only
+ * departs beyond that plus {@code location.geofence.exit-margin-meters}, so GPS
+ * jitter at the edge does not flap. State is per node and starts empty: a
+ * participant already standing at the activity arrives on their next ping.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeofenceEngine {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${location.geofence.radius-meters:10}")
+    private double radiusMeters;
+
+    @Value("${location.geofence.exit-margin-meters:15}")
+    private double exitMarginMeters;
+
+    private final Map<Long, Fence> fences = new ConcurrentHashMap<>();
+
+    private static final class Fence {
+        final Long activityId;
+        final double latitude;
+        final double longitude;
+        final Set<Long> inside = ConcurrentHashMap.newKeySet();
+
+        Fence(Long activityId, double latitude, double longitude) {
+            this.activityId = activityId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    public double radiusMeters() {
+        return radiusMeters;
+    }
+
+    /**
+     * Whether a fence, or the absence of one, is known for the experience.
+     */
+    public boolean isKnown(Long activeExperienceId) {
+        return fences.containsKey(activeExperienceId);
+    }
+
+    /**
+     * Moves the experience's fence to an activity, or clears it when
+     * {@code activityId} is null. Everyone starts outside the new fence.
+     */
+    public void setTarget(Long activeExperienceId, Long activityId, double latitude, double longitude) {
+        fences.put(activeExperienceId, new Fence(activityId, latitude, longitude));
+    }
+
+    public void forget(Long activeExperienceId) {
+        fences.remove(activeExperienceId);
+    }
+
+    /**
+     * Drops a participant who left the experience, so they arrive again if they
+     * rejoin. No event is published.
+     */
+    public void removeParticipant(Long activeExperienceId, Long userId) {
+        Fence fence = fences.get(activeExperienceId);
+        if (fence != null) {
+            fence.inside.remove(userId);
+        }
+    }
+
+    public void evaluate(Long activeExperienceId, Long userId, double latitude, double longitude, long timestampMillis) {
+        Fence fence = fences.get(activeExperienceId);
+        if (fence == null || fence.activityId == null) {
+            return;
+        }
+        boolean wasInside = fence.inside.contains(userId);
+        double boundary = wasInside ? radiusMeters + exitMarginMeters : radiusMeters;
+        // Margin so the cheap distance never rejects a point haversine would keep
+        double rough = GeoMath.equirectangularMeters(latitude, longitude, fence.latitude, fence.longitude);
+        boolean within = rough <= boundary * 1.01 + 1
+            && GeoMath.haversineMeters(latitude, longitude, fence.latitude, fence.longitude) <= boundary;
+
+        if (within && !wasInside && fence.inside.add(userId)) {
+            publish(GeofenceEvent.Type.ARRIVED, activeExperienceId, fence, userId, timestampMillis);
+        } else if (!within && wasInside && fence.inside.remove(userId)) {
+            publish(GeofenceEvent.Type.DEPARTED, activeExperienceId, fence, userId, timestampMillis);
+        }
+    }
+
+    private void publish(GeofenceEvent.Type type, Long activeExperienceId, Fence fence, Long userId, long timestampMillis) {
+        eventPublisher.publishEvent(new GeofenceEvent(type, activeExperienceId, fence.activityId, userId,
+            timestampMillis, fence.inside.size()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.live_backend.service.Location;
+
+import java.util.Map;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+/**
+ * Moves a SUBSCRIBE to an experience's location topic over to its binary twin
+ * (see {@link LocationFrameCodec}) when the frame carries
+ * {@code x-location-format: binary}. Without the header clients keep JSON.
+ *
+ * SockJS delivers every frame as text, which would mangle the varints, so
+ * binary is only honoured on sessions opened on the plain WebSocket endpoint
+ * {@link #NATIVE_ENDPOINT}. A SockJS client asking for binary stays on JSON.
+ */
+@Component
+public class LocationFormatInterceptor implements ChannelInterceptor {
+    public static final String FORMAT_HEADER = "x-location-format";
+    public static final String NATIVE_ENDPOINT = "/ws-native";
+
+    private static final String NATIVE_SESSION = LocationFormatInterceptor.class.getName() + ".native";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(message);
+        if (headers.getCommand() != StompCommand.SUBSCRIBE || !wantsBinary(headers)) {
+            return message;
+        }
+        String destination = headers.getDestination();
+        if (destination == null || !destination.matches("/topic/active-experience/\\d+/location")) {
+            return message;
+        }
+        headers.setDestination(destination + LocationHub.BINARY_SUFFIX);
+        return MessageBuilder.createMessage(message.getPayload(), headers.getMessageHeaders());
+    }
+
+    /**
+     * Whether the frame asks for binary and its session can carry it.
+     */
+    public static boolean wantsBinary(StompHeaderAccessor headers) {
+        Map<String, Object> attributes = headers.getSessionAttributes();
+        return "binary".equalsIgnoreCase(headers.getFirstNativeHeader(FORMAT_HEADER))
+            && attributes != null && Boolean.TRUE.equals(attributes.get(NATIVE_SESSION));
+    }
+
+    /**
+     * Marks sessions opened on {@link #NATIVE_ENDPOINT} as able to take binary frames.
+     */
+    public static HandshakeInterceptor nativeSessionMarker() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(NATIVE_SESSION, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+}
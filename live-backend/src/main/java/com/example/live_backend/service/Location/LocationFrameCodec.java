@@ -0,0 +1,234 @@
+package com.example.live_backend.service.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Binary location frames for clients that subscribe with
+ * {@code x-location-format: binary}.
+ *
+ * <pre>
+ * frame    := flags:u8 seq:varint baseTime:varint count:varint entry*
+ * keyframe entry := index:varint userId:varint lat:zigzag lon:zigzag age:varint
+ * delta entry    := index:varint dLat:zigzag dLon:zigzag age:varint
+ * </pre>
+ *
+ * Coordinates are degrees x 1e7 (about 1cm). A keyframe ({@code flags & 1})
+ * carries every known participant with absolute coordinates and binds each
+ * participant index to a user id. A delta frame carries only participants that
+ * moved, as the difference from the position last sent for that index. Ages
+ * are milliseconds before {@code baseTime}, the newest sample in the frame.
+ * {@code seq} increases by one per frame; a client that sees a gap must drop
+ * deltas until the next keyframe.
+ *
+ * A participant moving a few meters costs about 8 bytes against roughly 100
+ * for the JSON LocationBroadcast.
+ */
+public final class LocationFrameCodec {
+    public static final int FLAG_KEYFRAME = 1;
+    public static final double SCALE = 1e7;
+
+    private LocationFrameCodec() {
+    }
+
+    /**
+     * Stateful encoder for one experience's binary topic. Not thread-safe; the
+     * hub's tick is its only caller.
+     */
+    public static class Encoder {
+        private final int keyframeEvery;
+        private final LongIntHashMap indexByUser = new LongIntHashMap(16);
+        private int[] sentLat = new int[8];
+        private int[] sentLon = new int[8];
+        private int participants;
+        private long seq;
+        private int sinceKeyframe;
+        private long subscriberEpoch = -1;
+
+        public Encoder(int keyframeEvery) {
+            this.keyframeEvery = keyframeEvery;
+        }
+
+        /**
+         * @param changed         positions that moved this tick
+         * @param everyone        all current positions, read only for keyframes
+         * @param subscriberEpoch changes whenever a binary subscriber joins, so they
+         *                        get a keyframe to start from
+         */
+        public byte[] encode(List<ExperienceLocations.Position> changed,
+                             Supplier<List<ExperienceLocations.Position>> everyone, long subscriberEpoch) {
+            boolean keyframe = subscriberEpoch != this.subscriberEpoch || ++sinceKeyframe >= keyframeEvery;
+            for (int i = 0; !keyframe && i < changed.size(); i++) {
+                keyframe = indexByUser.get(changed.get(i).userId) == LongIntHashMap.MISSING;
+            }
+            this.subscriberEpoch = subscriberEpoch;
+
+            List<ExperienceLocations.Position> entries = keyframe ? everyone.get() : changed;
+            long baseTime = 0;
+            for (ExperienceLocations.Position position : entries) {
+                baseTime = Math.max(baseTime, position.timestampMillis);
+            }
+
+            ByteSink out = new ByteSink(16 + entries.size() * (keyframe ? 16 : 8));
+            out.write(keyframe ? FLAG_KEYFRAME : 0);
+            out.writeVarint(seq++);
+            out.writeVarint(baseTime);
+            out.writeVarint(entries.size());
+            for (ExperienceLocations.Position position : entries) {
+                int index = indexOf(position.userId);
+                int lat = toFixed(position.latitude);
+                int lon = toFixed(position.longitude);
+                out.writeVarint(index);
+                if (keyframe) {
+                    out.writeVarint(position.userId);
+                    out.writeZigzag(lat);
+                    out.writeZigzag(lon);
+                } else {
+                    out.writeZigzag((long) lat - sentLat[index]);
+                    out.writeZigzag((long) lon - sentLon[index]);
+                }
+                out.writeVarint(baseTime - position.timestampMillis);
+                sentLat[index] = lat;
+                sentLon[index] = lon;
+            }
+            if (keyframe) {
+                sinceKeyframe = 0;
+            }
+            return out.toByteArray();
+        }
+
+        private int indexOf(long userId) {
+            int index = indexByUser.get(userId);
+            if (index == LongIntHashMap.MISSING) {
+                if (participants == sentLat.length) {
+                    sentLat = Arrays.copyOf(sentLat, participants * 2);
+                    sentLon = Arrays.copyOf(sentLon, participants * 2);
+                }
+                index = participants++;
+                indexByUser.put(userId, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Reference decoder, mirroring what clients implement.
+     */
+    public static class Decoder {
+        private long[] userIds = new long[8];
+        private int[] lats = new int[8];
+        private int[] lons = new int[8];
+        private long expectedSeq = -1;
+
+        /**
+         * @throws IllegalStateException on a delta frame without the frame before it
+         */
+        public List<ExperienceLocations.Position> decode(byte[] frame) {
+            ByteSource in = new ByteSource(frame);
+            boolean keyframe = (in.read() & FLAG_KEYFRAME) != 0;
+            long seq = in.readVarint();
+            if (!keyframe && seq != expectedSeq) {
+                expectedSeq = -1;
+                throw new IllegalStateException("Missed frame before " + seq + "; waiting for a keyframe");
+            }
+            expectedSeq = seq + 1;
+
+            long baseTime = in.readVarint();
+            int count = (int) in.readVarint();
+            List<ExperienceLocations.Position> positions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = (int) in.readVarint();
+                ensureCapacity(index + 1);
+                if (keyframe) {
+                    userIds[index] = in.readVarint();
+                    lats[index] = (int) in.readZigzag();
+                    lons[index] = (int) in.readZigzag();
+                } else {
+                    lats[index] += (int) in.readZigzag();
+                    lons[index] += (int) in.readZigzag();
+                }
+                long timestamp = baseTime - in.readVarint();
+                positions.add(new ExperienceLocations.Position(
+                    userIds[index], lats[index] / SCALE, lons[index] / SCALE, timestamp));
+            }
+            return positions;
+        }
+
+        private void ensureCapacity(int size) {
+            if (size > userIds.length) {
+                int capacity = Math.max(size, userIds.length * 2);
+                userIds = Arrays.copyOf(userIds, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                lons = Arrays.copyOf(lons, capacity);
+            }
+        }
+    }
+
+    // Fits an int for any valid coordinate; past about 214 degrees it would wrap
+    static int toFixed(double degrees) {
+        return (int) Math.round(degrees * SCALE);
+    }
+
+    private static class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        ByteSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void write(int b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeZigzag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static class ByteSource {
+        private final byte[] bytes;
+        private int position;
+
+        ByteSource(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int read() {
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        long readZigzag() {
+            long raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.live_backend.service.Location;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.example.live_backend.dto.LocationBroadcast;
+import com.example.live_backend.dto.LocationFrame;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Holds the latest position of every participant of every live experience and
+ * broadcasts them in coalesced frames.
+ *
+ * Updates only overwrite the participant's slot. Once per tick
+ * ({@code location.hub.tick-ms}), every experience with changes gets a single
+ * {@link LocationFrame} on /topic/active-experience/{id}/location carrying each
+ * participant that moved, so fan-out is one message per experience per tick
+ * however often phones report. Experiences with no updates for
+ * {@code location.hub.idle-eviction-ms} and nothing left to persist are
+ * dropped, under the same map entry lock updates take.
+ *
+ * Samples less than {@code location.suppress.min-move-meters} from the
+ * participant's last accepted position are dropped before they mark anything
+ * changed. Counts per outcome are published as {@code location.updates}
+ * (tagged accepted, suppressed or stale) alongside a suppression ratio gauge.
+ *
+ * Clients that subscribed with {@code x-location-format: binary} get the same
+ * frames on the {@code .bin} twin of the topic, encoded by
+ * {@link LocationFrameCodec}, as binary WebSocket messages. Only sessions on the
+ * plain {@code /ws-native} endpoint can ask for them; SockJS would re-encode
+ * them as text. JSON is only sent while someone listens for it, or when nobody
+ * has asked for binary.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationHub {
+    public static final String BINARY_SUFFIX = ".bin";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final LocationWatchers locationWatchers;
+
+    @Value("${location.hub.idle-eviction-ms:600000}")
+    private long idleEvictionMillis;
+
+    @Value("${location.suppress.min-move-meters:5}")
+    private double minMoveMeters;
+
+    @Value("${location.suppress.max-silence-ms:30000}")
+    private long maxSilenceMillis;
+
+    @Value("${location.binary.keyframe-every:20}")
+    private int keyframeEvery;
+
+    private final Map<Long, ExperienceLocations> experiences = new ConcurrentHashMap<>();
+
+    // Only touched by tick(); present while the experience has binary subscribers
+    private final Map<Long, LocationFrameCodec.Encoder> encoders = new ConcurrentHashMap<>();
+
+    private Counter accepted;
+    private Counter suppressed;
+    private Counter stale;
+
+    @PostConstruct
+    void init() {
+        accepted = meterRegistry.counter("location.updates", "result", "accepted");
+        suppressed = meterRegistry.counter("location.updates", "result", "suppressed");
+        stale = meterRegistry.counter("location.updates", "result", "stale");
+        Gauge.builder("location.updates.suppression.ratio", this, LocationHub::suppressionRatio)
+            .description("Share of location updates dropped as too small a move since startup")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the participant's speed in m/s, or {@link ExperienceLocations#SUPPRESSED}
+     *         / {@link ExperienceLocations#STALE} if the sample was dropped
+     */
+    public double update(Long activeExperienceId, Long userId, double latitude, double longitude, long timestampMillis) {
+        double[] result = new double[1];
+        // Under the entry's lock, which tick() also takes to evict, so a ping never lands in a dropped experience
+        experiences.compute(activeExperienceId, (id, locations) -> {
+            if (locations == null) {
+                locations = new ExperienceLocations();
+            }
+            result[0] = locations.update(userId, latitude, longitude, timestampMillis, minMoveMeters, maxSilenceMillis);
+            return locations;
+        });
+        double speed = result[0];
+        if (speed == ExperienceLocations.SUPPRESSED) {
+            suppressed.increment();
+        } else if (speed == ExperienceLocations.STALE) {
+            stale.increment();
+        } else {
+            accepted.increment();
+        }
+        return speed;
+    }
+
+    public ExperienceLocations.Position latest(Long activeExperienceId, Long userId) {
+        ExperienceLocations locations = experiences.get(activeExperienceId);
+        return locations == null ? null : locations.get(userId);
+    }
+
+    @Scheduled(fixedRateString = "${location.hub.tick-ms:1000}")
+    public void tick() {
+        long idleBefore = System.currentTimeMillis() - idleEvictionMillis;
+        experiences.forEach((activeExperienceId, locations) -> {
+            List<ExperienceLocations.Position> changed = locations.drainChanged();
+            if (!changed.isEmpty()) {
+                broadcast(activeExperienceId, locations, changed);
+            } else if (isIdle(locations, idleBefore)
+                    && experiences.computeIfPresent(activeExperienceId,
+                        (id, current) -> isIdle(current, idleBefore) ? null : current) == null) {
+                encoders.remove(activeExperienceId);
+            }
+        });
+    }
+
+    // Every accepted ping marks its slot unpersisted, so this also covers pings since the last drain
+    private static boolean isIdle(ExperienceLocations locations, long idleBefore) {
+        return locations.lastUpdateMillis() < idleBefore && !locations.hasUnpersisted();
+    }
+
+    private void broadcast(Long activeExperienceId, ExperienceLocations locations,
+                           List<ExperienceLocations.Position> changed) {
+        int binaryWatchers = locationWatchers.binaryWatchers(activeExperienceId);
+        if (binaryWatchers == 0 || locationWatchers.jsonWatchers(activeExperienceId) > 0) {
+            messagingTemplate.convertAndSend(destination(activeExperienceId), toFrame(activeExperienceId, changed));
+        }
+        if (binaryWatchers == 0) {
+            encoders.remove(activeExperienceId);
+            return;
+        }
+        byte[] frame = encoders.computeIfAbsent(activeExperienceId, id -> new LocationFrameCodec.Encoder(keyframeEvery))
+            .encode(changed, locations::all, locationWatchers.binaryJoins(activeExperienceId));
+        // octet-stream makes the STOMP handler send a binary WebSocket message rather than text
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSend(binaryDestination(activeExperienceId), frame, headers.getMessageHeaders());
+    }
+
+    /**
+     * Calls {@code sink} with every experience's positions not yet written to the
+     * database, clearing their flags.
+     */
+    public void drainUnpersisted(BiConsumer<Long, List<ExperienceLocations.Position>> sink) {
+        experiences.forEach((activeExperienceId, locations) -> {
+            List<ExperienceLocations.Position> changed = locations.drainUnpersisted();
+            if (!changed.isEmpty()) {
+                sink.accept(activeExperienceId, changed);
+            }
+        });
+    }
+
+    public void markUnpersisted(Long activeExperienceId, Long userId) {
+        ExperienceLocations locations = experiences.get(activeExperienceId);
+        if (locations != null) {
+            locations.markUnpersisted(userId);
+        }
+    }
+
+    double suppressionRatio() {
+        double total = accepted.count() + suppressed.count();
+        return total == 0 ? 0 : suppressed.count() / total;
+    }
+
+    public static String destination(Long activeExperienceId) {
+        return "/topic/active-experience/" + activeExperienceId + "/location";
+    }
+
+    public static String binaryDestination(Long activeExperienceId) {
+        return destination(activeExperienceId) + BINARY_SUFFIX;
+    }
+
+    private static LocationFrame toFrame(Long activeExperienceId, List<ExperienceLocations.Position> changed) {
+        return new LocationFrame(activeExperienceId, changed.stream()
+            .map(position -> new LocationBroadcast(
+                position.userId,
+                position.latitude,
+                position.longitude,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(position.timestampMillis), ZoneId.systemDefault())))
+            .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.live_backend.service.Location;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tells a phone how often to send its location.
+ *
+ * A moving participant is asked for a sample every
+ * {@code location.rate.target-spacing-meters} of travel, clamped between the
+ * min and max intervals, so a walker reports every few seconds and a driver
+ * every second. Nobody subscribed to the experience's location topic means
+ * nobody sees the dot move, so the phone drops to the idle interval. The
+ * sender's own subscription counts as a watcher.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationRateAdvisor {
+    private final LocationWatchers locationWatchers;
+
+    @Value("${location.rate.target-spacing-meters:15}")
+    private double targetSpacingMeters;
+
+    @Value("${location.rate.min-interval-ms:1000}")
+    private long minIntervalMillis;
+
+    @Value("${location.rate.max-interval-ms:10000}")
+    private long maxIntervalMillis;
+
+    @Value("${location.rate.idle-interval-ms:30000}")
+    private long idleIntervalMillis;
+
+    /**
+     * @param speedMetersPerSecond the participant's latest speed; 0 when stationary
+     */
+    public long recommendedIntervalMillis(Long activeExperienceId, double speedMetersPerSecond) {
+        if (locationWatchers.watchers(activeExperienceId) == 0) {
+            return idleIntervalMillis;
+        }
+        if (speedMetersPerSecond <= 0) {
+            return maxIntervalMillis;
+        }
+        long interval = (long) (targetSpacingMeters * 1000 / speedMetersPerSecond);
+        return Math.max(minIntervalMillis, Math.min(maxIntervalMillis, interval));
+    }
+
+    public long idleIntervalMillis() {
+        return idleIntervalMillis;
+    }
+}
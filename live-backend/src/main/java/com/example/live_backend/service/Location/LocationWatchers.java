@@ -0,0 +1,137 @@
+package com.example.live_backend.service.Location;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Counts STOMP subscriptions to each experience's JSON and binary location
+ * topics, maintained from the broker's session events so reading a count is a
+ * map lookup.
+ */
+@Component
+public class LocationWatchers {
+    private static final String PREFIX = "/topic/active-experience/";
+    private static final String JSON_SUFFIX = "/location";
+    private static final String BINARY_SUFFIX = JSON_SUFFIX + LocationHub.BINARY_SUFFIX;
+
+    private final Map<Long, AtomicInteger> jsonCounts = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> binaryCounts = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> binaryJoins = new ConcurrentHashMap<>();
+
+    // sessionId -> subscriptionId -> watched topic, to undo on unsubscribe and disconnect
+    private final Map<String, Map<String, Topic>> subscriptions = new ConcurrentHashMap<>();
+
+    private static final class Topic {
+        final Long activeExperienceId;
+        final boolean binary;
+
+        Topic(Long activeExperienceId, boolean binary) {
+            this.activeExperienceId = activeExperienceId;
+            this.binary = binary;
+        }
+    }
+
+    public int watchers(Long activeExperienceId) {
+        return jsonWatchers(activeExperienceId) + binaryWatchers(activeExperienceId);
+    }
+
+    public int jsonWatchers(Long activeExperienceId) {
+        return count(jsonCounts, activeExperienceId);
+    }
+
+    public int binaryWatchers(Long activeExperienceId) {
+        return count(binaryCounts, activeExperienceId);
+    }
+
+    /**
+     * Number of binary subscriptions ever made to the experience; changes when a
+     * new binary subscriber needs a keyframe.
+     */
+    public long binaryJoins(Long activeExperienceId) {
+        AtomicLong joins = binaryJoins.get(activeExperienceId);
+        return joins == null ? 0 : joins.get();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Topic topic = topicOf(headers.getDestination());
+        if (topic == null || headers.getSessionId() == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+        // The event carries the frame as the client sent it, before LocationFormatInterceptor rerouted it
+        if (!topic.binary && LocationFormatInterceptor.wantsBinary(headers)) {
+            topic = new Topic(topic.activeExperienceId, true);
+        }
+        Topic previous = subscriptions.computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+            .put(headers.getSubscriptionId(), topic);
+        if (previous != null) {
+            release(previous);
+        }
+        // Increment inside compute so it can't race a release removing the entry
+        (topic.binary ? binaryCounts : jsonCounts).compute(topic.activeExperienceId, (id, count) -> {
+            AtomicInteger counted = count == null ? new AtomicInteger() : count;
+            counted.incrementAndGet();
+            return counted;
+        });
+        if (topic.binary) {
+            binaryJoins.computeIfAbsent(topic.activeExperienceId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Topic> session = headers.getSessionId() == null ? null : subscriptions.get(headers.getSessionId());
+        if (session != null && headers.getSubscriptionId() != null) {
+            release(session.remove(headers.getSubscriptionId()));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Topic> session = subscriptions.remove(event.getSessionId());
+        if (session != null) {
+            session.values().forEach(this::release);
+        }
+    }
+
+    private void release(Topic topic) {
+        if (topic == null) {
+            return;
+        }
+        (topic.binary ? binaryCounts : jsonCounts).computeIfPresent(topic.activeExperienceId,
+            (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private static int count(Map<Long, AtomicInteger> counts, Long activeExperienceId) {
+        AtomicInteger count = counts.get(activeExperienceId);
+        return count == null ? 0 : count.get();
+    }
+
+    // Experience and format of /topic/active-experience/{id}/location[.bin], or null for any other destination
+    private static Topic topicOf(String destination) {
+        if (destination == null || !destination.startsWith(PREFIX)) {
+            return null;
+        }
+        boolean binary = destination.endsWith(BINARY_SUFFIX);
+        String suffix = binary ? BINARY_SUFFIX : JSON_SUFFIX;
+        if (destination.length() <= PREFIX.length() + suffix.length() || !destination.endsWith(suffix)) {
+            return null;
+        }
+        try {
+            return new Topic(Long.valueOf(destination.substring(PREFIX.length(), destination.length() - suffix.length())), binary);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
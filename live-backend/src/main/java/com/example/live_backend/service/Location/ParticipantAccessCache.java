@@ -0,0 +1,123 @@
+package com.example.live_backend.service.Location;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.live_backend.repository.User.ActiveExperienceParticipantRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Whether a user may send locations to an active experience, cached per
+ * (activeExperienceId, userId) so pings after the first do no database reads.
+ *
+ * A miss costs one query joining the participant row to the user's
+ * share-location flag. Non-members are cached only for
+ * {@code location.access.negative-ttl-ms}, enough to absorb a burst of pings
+ * without keeping out someone who joined through another node for long. Entries
+ * are invalidated when a participant joins or leaves and when a user changes
+ * their share-location setting, and expire after {@code location.access.ttl-ms}
+ * to pick up any change made outside those paths. An invalidation bumps a
+ * generation counter first, so a load that read the old row cannot overwrite it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParticipantAccessCache {
+    private final ActiveExperienceParticipantRepository participantRepository;
+
+    @Value("${location.access.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${location.access.negative-ttl-ms:5000}")
+    private long negativeTtlMillis;
+
+    public enum Access {
+        NOT_PARTICIPANT,
+        NOT_SHARING,
+        SHARING
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private static final class Key {
+        final long activeExperienceId;
+        final long userId;
+
+        Key(long activeExperienceId, long userId) {
+            this.activeExperienceId = activeExperienceId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return activeExperienceId == key.activeExperienceId && userId == key.userId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(activeExperienceId, userId);
+        }
+    }
+
+    private static final class Entry {
+        final Access access;
+        final long expiresAt;
+
+        Entry(Access access, long expiresAt) {
+            this.access = access;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public Access access(Long activeExperienceId, Long userId) {
+        Key key = new Key(activeExperienceId, userId);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.access;
+        }
+
+        long seen = generation.get();
+        Access access = participantRepository.findShareLocation(activeExperienceId, userId)
+            .map(sharing -> sharing ? Access.SHARING : Access.NOT_SHARING)
+            .orElse(Access.NOT_PARTICIPANT);
+        Entry loaded = new Entry(access, now + (access == Access.NOT_PARTICIPANT ? negativeTtlMillis : ttlMillis));
+        entries.compute(key, (k, current) -> generation.get() == seen ? loaded : current);
+        return access;
+    }
+
+    public void invalidate(Long activeExperienceId, Long userId) {
+        generation.incrementAndGet();
+        entries.remove(new Key(activeExperienceId, userId));
+    }
+
+    /**
+     * Drops the user's entries in every experience. Scans the cache, which is
+     * fine for a settings change.
+     */
+    public void invalidateUser(Long userId) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(key -> key.userId == userId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${location.access.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+}
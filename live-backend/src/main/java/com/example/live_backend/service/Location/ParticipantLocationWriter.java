@@ -0,0 +1,76 @@
+package com.example.live_backend.service.Location;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind for participant locations.
+ *
+ * Pings only touch {@link LocationHub}; every {@code location.persist.interval-ms}
+ * the latest position of each participant who moved is written to
+ * active_experience_participant in one JDBC batch. However many pings arrive,
+ * each participant costs at most one UPDATE per interval, and a crash loses at
+ * most one interval of positions. A failed batch is re-marked and retried on
+ * the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParticipantLocationWriter {
+    private final LocationHub locationHub;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static class PendingWrite {
+        final Long activeExperienceId;
+        final ExperienceLocations.Position position;
+
+        PendingWrite(Long activeExperienceId, ExperienceLocations.Position position) {
+            this.activeExperienceId = activeExperienceId;
+            this.position = position;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${location.persist.interval-ms:5000}")
+    public synchronized void flush() {
+        List<PendingWrite> pending = new ArrayList<>();
+        locationHub.drainUnpersisted((activeExperienceId, positions) ->
+            positions.forEach(position -> pending.add(new PendingWrite(activeExperienceId, position))));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (PendingWrite write : pending) {
+            rows.add(new Object[] {
+                write.position.latitude,
+                write.position.longitude,
+                new Timestamp(write.position.timestampMillis),
+                write.activeExperienceId,
+                write.position.userId
+            });
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                "UPDATE active_experience_participant SET latitude = ?, longitude = ?, last_location_update = ? " +
+                "WHERE active_experience_id = ? AND user_id = ?", rows);
+        } catch (DataAccessException e) {
+            log.warn("Failed to persist {} participant locations, will retry", pending.size(), e);
+            pending.forEach(write -> locationHub.markUnpersisted(write.activeExperienceId, write.position.userId));
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.live_backend.service.Location;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One participant's location track, appended to a memory-mapped file.
+ *
+ * Layout:
+ * <pre>
+ *   int    magic ("TRK1"), little-endian
+ *   int    end          offset just past the last complete record
+ *   record*             zigzag varints: dt millis, dLat, dLon
+ * </pre>
+ * Each record is the difference from the previous one; the first is relative
+ * to zero. Coordinates are degrees x 1e7. A walker sampled every few seconds
+ * costs about 6 bytes per sample. {@code end} is written after the record, so a
+ * crash mid-append loses at most that record. The mapping doubles from 64 KB as
+ * the track grows and no file handle is held between remaps.
+ *
+ * A single mapping cannot pass 2 GB, so once a file reaches the segment size
+ * the track continues in {@code <path>.1}, {@code <path>.2}, ... with the same
+ * layout. Each segment starts its delta chain from zero again; only the last
+ * one is mapped for writing, earlier ones are mapped read-only while visited.
+ *
+ * Appends and other state changes synchronize on the instance; reads only
+ * take the lock long enough to pin the written range.
+ */
+public class TrackFile {
+    private static final int MAGIC = 0x544B5231;
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_BYTES = 64 * 1024;
+    public static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+    // Longest record: three 10-byte varints
+    private static final int MAX_RECORD_BYTES = 30;
+
+    /**
+     * Receives samples in time order.
+     */
+    public interface SampleVisitor {
+        void accept(long timestampMillis, double latitude, double longitude);
+    }
+
+    private final Path path;
+    private final int segmentBytes;
+    // Index of the segment being appended to, 0 for the file at path itself
+    private int segment;
+    private MappedByteBuffer buffer;
+    private long lastTimestamp;
+    private int lastLat;
+    private int lastLon;
+    private volatile long lastAppendMillis;
+    private boolean closed;
+
+    private TrackFile(Path path, int segmentBytes) {
+        this.path = path;
+        this.segmentBytes = segmentBytes;
+    }
+
+    public static TrackFile open(Path path) throws IOException {
+        return open(path, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens or creates the track at {@code path}, replaying its last segment to
+     * find the last sample so appends continue its delta chain. Segments are
+     * rolled once they reach {@code segmentBytes}.
+     */
+    public static TrackFile open(Path path, int segmentBytes) throws IOException {
+        if (segmentBytes < INITIAL_BYTES) {
+            throw new IllegalArgumentException("Segment size below " + INITIAL_BYTES + " bytes");
+        }
+        List<Path> existing = segments(path);
+        boolean exists = !existing.isEmpty();
+        TrackFile track = new TrackFile(path, segmentBytes);
+        track.segment = exists ? existing.size() - 1 : 0;
+        Path current = segmentPath(path, track.segment);
+        if (!exists && path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long size = exists ? Math.max(Files.size(current), INITIAL_BYTES) : INITIAL_BYTES;
+        track.buffer = map(current, size);
+        if (!exists || track.buffer.getInt(0) == 0) {
+            track.buffer.putInt(0, MAGIC);
+            track.buffer.putInt(4, HEADER_BYTES);
+        } else if (track.buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a track file: " + current);
+        } else {
+            forEach(track.buffer, track.buffer.getInt(4), track::remember);
+        }
+        return track;
+    }
+
+    /**
+     * The files holding the track at {@code path}, oldest first; empty if there is none.
+     */
+    public static List<Path> segments(Path path) {
+        List<Path> segments = new ArrayList<>();
+        for (int i = 0; Files.exists(segmentPath(path, i)); i++) {
+            segments.add(segmentPath(path, i));
+        }
+        return segments;
+    }
+
+    /**
+     * @return false if the track was closed; reopen it and append again
+     */
+    public synchronized boolean append(long timestampMillis, double latitude, double longitude) throws IOException {
+        if (closed) {
+            return false;
+        }
+        int lat = LocationFrameCodec.toFixed(latitude);
+        int lon = LocationFrameCodec.toFixed(longitude);
+        int end = buffer.getInt(4);
+        if (end + MAX_RECORD_BYTES > buffer.capacity()) {
+            buffer.force();
+            long grown = Math.min((long) buffer.capacity() * 2, segmentBytes);
+            if (end + MAX_RECORD_BYTES > grown) {
+                roll();
+                end = HEADER_BYTES;
+            } else {
+                buffer = map(segmentPath(path, segment), grown);
+            }
+        }
+        buffer.position(end);
+        writeVarint(buffer, zigzag(timestampMillis - lastTimestamp));
+        writeVarint(buffer, zigzag((long) lat - lastLat));
+        writeVarint(buffer, zigzag((long) lon - lastLon));
+        buffer.putInt(4, buffer.position());
+        lastTimestamp = timestampMillis;
+        lastLat = lat;
+        lastLon = lon;
+        lastAppendMillis = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Visits every complete sample written before the call. Only the current
+     * write position is read under the lock; decoding and the visitor run
+     * outside it, so a slow visitor never holds up {@link #append}.
+     */
+    public void forEach(SampleVisitor visitor) throws IOException {
+        int segments;
+        ByteBuffer current;
+        int end;
+        synchronized (this) {
+            segments = segment;
+            // Records below end are never rewritten, and a remap leaves this view on the old mapping
+            current = buffer.asReadOnlyBuffer();
+            end = buffer.getInt(4);
+        }
+        for (int i = 0; i < segments; i++) {
+            ByteBuffer finished = mapReadOnly(segmentPath(path, i));
+            forEach(finished, finished.getInt(4), visitor);
+        }
+        forEach(current, end, visitor);
+    }
+
+    private static void forEach(ByteBuffer mapped, int end, SampleVisitor visitor) {
+        ByteBuffer records = mapped.duplicate();
+        records.position(HEADER_BYTES).limit(end);
+        long timestamp = 0;
+        int lat = 0;
+        int lon = 0;
+        try {
+            while (records.hasRemaining()) {
+                timestamp += unzigzag(readVarint(records));
+                lat += (int) unzigzag(readVarint(records));
+                lon += (int) unzigzag(readVarint(records));
+                visitor.accept(timestamp, lat / LocationFrameCodec.SCALE, lon / LocationFrameCodec.SCALE);
+            }
+        } catch (BufferUnderflowException e) {
+            // Corrupt tail; stop at the last whole record
+        }
+    }
+
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes and closes the track if nothing was appended since {@code idleBefore}.
+     * The mapping itself is released once the instance is unreachable.
+     */
+    public synchronized boolean closeIfIdle(long idleBefore) {
+        if (lastAppendMillis >= idleBefore) {
+            return false;
+        }
+        buffer.force();
+        closed = true;
+        return true;
+    }
+
+    /**
+     * Bytes used in the segment being appended to.
+     */
+    public synchronized int bytesUsed() {
+        return buffer.getInt(4);
+    }
+
+    public long lastAppendMillis() {
+        return lastAppendMillis;
+    }
+
+    private void remember(long timestampMillis, double latitude, double longitude) {
+        lastTimestamp = timestampMillis;
+        lastLat = LocationFrameCodec.toFixed(latitude);
+        lastLon = LocationFrameCodec.toFixed(longitude);
+    }
+
+    // Starts the next segment; its delta chain begins from zero
+    private void roll() throws IOException {
+        segment++;
+        buffer = map(segmentPath(path, segment), INITIAL_BYTES);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, HEADER_BYTES);
+        lastTimestamp = 0;
+        lastLat = 0;
+        lastLon = 0;
+    }
+
+    private static Path segmentPath(Path path, int segment) {
+        return segment == 0 ? path : path.resolveSibling(path.getFileName() + "." + segment);
+    }
+
+    private static MappedByteBuffer mapReadOnly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return mapped;
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return mapped;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long raw) {
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static void writeVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
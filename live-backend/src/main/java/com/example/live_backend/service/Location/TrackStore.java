@@ -0,0 +1,278 @@
+package com.example.live_backend.service.Location;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Full location history of every participant, one {@link TrackFile} per
+ * participant under {@code location.tracks.dir}/{activeExperienceId}/{userId}.trk.
+ *
+ * Only samples the hub accepted are recorded, so stationary jitter never
+ * reaches disk. Tracks untouched for {@code location.tracks.idle-close-ms} are
+ * flushed and released; reading or appending reopens them. A failed append is
+ * logged and dropped rather than failing the location update.
+ *
+ * Files roll to a new segment every {@code location.tracks.segment-bytes}.
+ * Closed tracks whose files were last written more than
+ * {@code location.tracks.retention-ms} ago are deleted every
+ * {@code location.tracks.retention-sweep-ms}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrackStore {
+    private static final String SUFFIX = ".trk";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${location.tracks.dir:data/tracks}")
+    private String directory;
+
+    @Value("${location.tracks.idle-close-ms:600000}")
+    private long idleCloseMillis;
+
+    // 1 GB, well below the 2 GB a single mapping can cover
+    @Value("${location.tracks.segment-bytes:1073741824}")
+    private int segmentBytes;
+
+    // 30 days
+    @Value("${location.tracks.retention-ms:2592000000}")
+    private long retentionMillis;
+
+    private final Map<Path, TrackFile> open = new ConcurrentHashMap<>();
+
+    /**
+     * Totals over a track at full resolution, whatever was downsampled away.
+     */
+    @Getter
+    public static class TrackSummary {
+        private int samples;
+        private int emitted;
+        private double distanceMeters;
+        private long startedAt;
+        private long endedAt;
+
+        private double lastLatitude;
+        private double lastLongitude;
+
+        void add(long timestampMillis, double latitude, double longitude) {
+            if (samples == 0) {
+                startedAt = timestampMillis;
+            } else {
+                distanceMeters += GeoMath.haversineMeters(lastLatitude, lastLongitude, latitude, longitude);
+            }
+            samples++;
+            endedAt = timestampMillis;
+            lastLatitude = latitude;
+            lastLongitude = longitude;
+        }
+    }
+
+    public void append(Long activeExperienceId, Long userId, long timestampMillis, double latitude, double longitude) {
+        try {
+            Path path = path(activeExperienceId, userId);
+            TrackFile track = track(path);
+            // Closed by the sweep between lookup and append; reopen it
+            while (!track.append(timestampMillis, latitude, longitude)) {
+                open.remove(path, track);
+                track = track(path);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Dropped track sample for user {} in experience {}", userId, activeExperienceId, e);
+        }
+    }
+
+    /**
+     * Users with a stored track in the experience, in id order.
+     */
+    public List<Long> participants(Long activeExperienceId) throws IOException {
+        Path dir = Paths.get(directory, String.valueOf(activeExperienceId));
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(SUFFIX))
+                .map(name -> Long.valueOf(name.substring(0, name.length() - SUFFIX.length())))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Visits a participant's track downsampled to at most one sample per
+     * {@code resolutionMillis}, always including the last, and returns totals
+     * over every stored sample. Empty if there is no track.
+     */
+    public TrackSummary read(Long activeExperienceId, Long userId, long resolutionMillis,
+                             TrackFile.SampleVisitor visitor) throws IOException {
+        TrackSummary summary = new TrackSummary();
+        Path path = path(activeExperienceId, userId);
+        if (!open.containsKey(path) && !Files.exists(path)) {
+            return summary;
+        }
+        long[] lastEmitted = { Long.MIN_VALUE };
+        track(path).forEach((timestamp, latitude, longitude) -> {
+            summary.add(timestamp, latitude, longitude);
+            if (lastEmitted[0] == Long.MIN_VALUE || timestamp - lastEmitted[0] >= resolutionMillis) {
+                visitor.accept(timestamp, latitude, longitude);
+                summary.emitted++;
+                lastEmitted[0] = timestamp;
+            }
+        });
+        if (summary.samples > 0 && lastEmitted[0] != summary.endedAt) {
+            visitor.accept(summary.endedAt, summary.lastLatitude, summary.lastLongitude);
+            summary.emitted++;
+        }
+        return summary;
+    }
+
+    /**
+     * Writes every participant's track as NDJSON: one "point" line per
+     * downsampled sample, then a "summary" line per participant.
+     */
+    public void export(Long activeExperienceId, long resolutionMillis, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+            for (Long userId : participants(activeExperienceId)) {
+                TrackSummary summary = read(activeExperienceId, userId, resolutionMillis, (timestamp, latitude, longitude) -> {
+                    try {
+                        json.writeStartObject();
+                        json.writeStringField("type", "point");
+                        json.writeNumberField("userId", userId);
+                        json.writeNumberField("timestamp", timestamp);
+                        json.writeNumberField("latitude", latitude);
+                        json.writeNumberField("longitude", longitude);
+                        json.writeEndObject();
+                        json.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeStartObject();
+                json.writeStringField("type", "summary");
+                json.writeNumberField("userId", userId);
+                json.writeNumberField("samples", summary.getSamples());
+                json.writeNumberField("distanceMeters", Math.round(summary.getDistanceMeters()));
+                json.writeNumberField("startedAt", summary.getStartedAt());
+                json.writeNumberField("endedAt", summary.getEndedAt());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                json.flush();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${location.tracks.sweep-ms:60000}")
+    public void closeIdle() {
+        long idleBefore = System.currentTimeMillis() - idleCloseMillis;
+        open.keySet().forEach(path -> open.computeIfPresent(path, (p, track) -> track.closeIfIdle(idleBefore) ? null : track));
+    }
+
+    /**
+     * Deletes closed tracks not written to within the retention period, and
+     * experience directories left empty.
+     */
+    @Scheduled(fixedDelayString = "${location.tracks.retention-sweep-ms:3600000}")
+    public void deleteExpired() {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        long expiredBefore = System.currentTimeMillis() - retentionMillis;
+        try (Stream<Path> experiences = Files.list(root)) {
+            for (Path dir : experiences.filter(Files::isDirectory).collect(Collectors.toList())) {
+                deleteExpired(dir, expiredBefore);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Track retention sweep failed", e);
+        }
+    }
+
+    private void deleteExpired(Path dir, long expiredBefore) throws IOException {
+        List<Path> tracks;
+        try (Stream<Path> files = Files.list(dir)) {
+            tracks = files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).collect(Collectors.toList());
+        }
+        for (Path path : tracks) {
+            // Under the entry lock track() opens with, so a track is never deleted while reopening
+            open.compute(path, (p, track) -> {
+                if (track == null) {
+                    deleteIfExpired(p, expiredBefore);
+                }
+                return track;
+            });
+        }
+        try (Stream<Path> rest = Files.list(dir)) {
+            if (rest.findAny().isEmpty()) {
+                Files.deleteIfExists(dir);
+            }
+        } catch (DirectoryNotEmptyException e) {
+            // A participant started a track meanwhile
+        }
+    }
+
+    private static void deleteIfExpired(Path path, long expiredBefore) {
+        try {
+            List<Path> segments = TrackFile.segments(path);
+            // The last segment is the one appended to most recently
+            if (segments.isEmpty()
+                    || Files.getLastModifiedTime(segments.get(segments.size() - 1)).toMillis() >= expiredBefore) {
+                return;
+            }
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    void flush() {
+        open.values().forEach(TrackFile::force);
+    }
+
+    private TrackFile track(Path path) throws IOException {
+        try {
+            return open.computeIfAbsent(path, p -> {
+                try {
+                    return TrackFile.open(p, segmentBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Path path(Long activeExperienceId, Long userId) {
+        return Paths.get(directory, String.valueOf(activeExperienceId), userId + SUFFIX);
+    }
+}
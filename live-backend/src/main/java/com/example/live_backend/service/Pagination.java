@@ -0,0 +1,23 @@
+package com.example.live_backend.service;
+
+/**
+ * Page size limits shared by the cursor-paged endpoints (feeds, comments,
+ * follower lists).
+ */
+public final class Pagination {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private Pagination() {
+    }
+
+    /**
+     * The default for a missing or non-positive limit, otherwise the limit capped at the maximum.
+     */
+    public static int clampPageSize(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
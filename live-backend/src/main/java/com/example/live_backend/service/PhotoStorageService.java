@@ -2,6 +2,9 @@ package com.example.live_backend.service;
 
 import java.net.URI;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
@@ -42,6 +45,21 @@ public class PhotoStorageService {
         }
     }
 
+    // For uploads that outlive their request, e.g. photos spooled for the post pipeline
+    public String savePhoto(Path file, String filename, String contentType) {
+        String key = UUID.randomUUID().toString() + "_" + filename;
+        try (InputStream in = Files.newInputStream(file)) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(Files.size(file));
+            metadata.setContentType(contentType);
+
+            amazonS3.putObject(new PutObjectRequest(bucketName, key, in, metadata));
+            return amazonS3.getUrl(bucketName, key).toString();
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to upload file to S3", ex);
+        }
+    }
+
     public void deletePhoto(String photoUrl) {
         // 1) We need to parse the "key" from the URL or store the key separately
         // If you're storing the entire S3 URL in DB, parse out the last part as "key".
@@ -1,18 +1,37 @@
 package com.example.live_backend.service;
 
 import com.example.live_backend.repository.Social.PostRepository;
-import com.example.live_backend.repository.User.UserRepository;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.Collections;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import lombok.RequiredArgsConstructor;
 
+import com.example.live_backend.dto.Post.FeedPageResponse;
+import com.example.live_backend.dto.Post.PostRequest;
 import com.example.live_backend.dto.Post.PostResponse;
 import com.example.live_backend.mapper.PostMapper;
+import com.example.live_backend.model.Social.Post;
 import com.example.live_backend.model.User.User;
+import com.example.live_backend.service.Event.PhotoSpool;
+import com.example.live_backend.service.Event.PostCreatedEvent;
+import com.example.live_backend.service.Event.PostPipeline;
+import com.example.live_backend.service.Feed.ExploreFeedSnapshot;
+import com.example.live_backend.service.Feed.FeedAssembler;
+import com.example.live_backend.service.Feed.FeedCursor;
+import com.example.live_backend.service.Feed.HomeTimelineCache;
+import com.example.live_backend.service.Feed.LikeCounterStore;
+import com.example.live_backend.service.Feed.SeenPostFilter;
+import com.example.live_backend.service.Feed.TrendingEngine;
 
 import java.util.stream.Collectors;
 
@@ -20,36 +39,137 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PostService {
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final FeedAssembler feedAssembler;
+    private final HomeTimelineCache homeTimelineCache;
+    private final TrendingEngine trendingEngine;
+    private final LikeCounterStore likeCounterStore;
+    private final ExploreFeedSnapshot exploreFeedSnapshot;
+    private final SeenPostFilter seenPostFilter;
     private final PostMapper postMapper;
-    public List<PostResponse> getFollowingFeed(String currentUsername) {
-        User currentUser = userRepository.findByUsername(currentUsername)
-            .orElseThrow(() -> new UsernameNotFoundException(currentUsername));
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostPipeline postPipeline;
+    private final PhotoSpool photoSpool;
 
-        // The users that the current user is following
-        Set<User> usersIFollow = currentUser.getFollowing();
+    /**
+     * Writes the post and returns immediately. Achievements, timeline fan-out and
+     * photo uploads run on the post pipeline once the transaction commits, so the
+     * response carries no uploaded image urls yet. Answers 503 while the pipeline
+     * has no room for the post's work.
+     */
+    @Transactional
+    public PostResponse createPost(User author, PostRequest request, List<MultipartFile> photos) {
+        boolean withPhotos = photos != null && !photos.isEmpty();
+        // Refuse up front rather than accept a post whose side effects would be dropped
+        if (!postPipeline.hasRoom(withPhotos)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many posts in progress, try again shortly");
+        }
 
-        if (usersIFollow.isEmpty()) {
-            return Collections.emptyList();
+        // Multipart temp files are deleted when the request ends, so spool them to disk now
+        Path stagedPhotos = null;
+        if (withPhotos) {
+            try {
+                stagedPhotos = photoSpool.stage(photos);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read uploaded photo", e);
+            }
         }
 
-        // Query posts where author is in the set of followed users
-        return postRepository.findByUsers(usersIFollow).stream()
-            .map(postMapper::toResponse)
-            .collect(Collectors.toList());
+        Post post = postRepository.save(postMapper.toEntity(request, author));
+        eventPublisher.publishEvent(new PostCreatedEvent(
+            post.getId(), author.getId(), post.getCreatedAt(), post.isPublic(), stagedPhotos));
+        return postMapper.toResponse(post, 0, 0, false);
     }
 
-    // For the "explore" feed
-    public List<PostResponse> getExploreFeed() {
-        return postRepository.findPublicPostsOrderByCreatedAtDesc().stream()
-            .map(postMapper::toResponse)
-            .collect(Collectors.toList());
+    /**
+     * Appends uploaded photo urls with a single-column UPDATE. The loaded post is
+     * left untouched so flushing it cannot write back stale like/comment counts.
+     */
+    @Transactional
+    public void addImageUrls(Long postId, List<String> urls) {
+        Post post = postRepository.findById(postId)
+            .orElseThrow(() -> new RuntimeException("Post not found"));
+        List<String> imageUrls = post.getImageUrl() == null ? new ArrayList<>() : new ArrayList<>(post.getImageUrl());
+        imageUrls.addAll(urls);
+        postRepository.updateImageUrls(postId, imageUrls);
+    }
+
+    /**
+     * One page of posts from the users that {@code userId} follows, newest first.
+     * Pass the previous page's nextCursor to continue; a null cursor starts from the top.
+     *
+     * Served from the cached home timeline when it reaches deep enough, otherwise
+     * from the keyset query against the database.
+     */
+    public FeedPageResponse getFollowingFeed(Long userId, String cursor, int limit) {
+        int pageSize = Pagination.clampPageSize(limit);
+        FeedCursor after = FeedCursor.decode(cursor);
+
+        // Ask for one extra id so we know whether another page exists
+        List<Long> ids = homeTimelineCache.getPage(userId, after, pageSize + 1);
+        if (ids == null) {
+            Pageable page = PageRequest.of(0, pageSize + 1);
+            ids = after == null
+                ? postRepository.findFollowingFeedIds(userId, page)
+                : postRepository.findFollowingFeedIdsBefore(userId, after.getCreatedAt(), after.getId(), page);
+        }
+
+        return toFeedPage(ids, pageSize, userId);
+    }
+
+    /**
+     * The "explore" feed is the same for everyone and served from a prebuilt snapshot.
+     * Posts the viewer has already seen are dropped, in which case the page is
+     * personalized and no longer the shared pre-serialized one.
+     *
+     * Page numbers stay those of the snapshot, so a personalized page can be short
+     * or even empty while later pages still have posts. Clients keep paging until
+     * they get the shared empty page (an empty list with an ETag) past the end.
+     */
+    public ExploreFeedSnapshot.Page getExplorePage(Long viewerId, int page) {
+        ExploreFeedSnapshot.Page explorePage = exploreFeedSnapshot.page(page);
+        if (!seenPostFilter.isTracking(viewerId)
+                || explorePage.getPosts().stream().noneMatch(post -> seenPostFilter.hasSeen(viewerId, post.getId()))) {
+            return explorePage;
+        }
+        return ExploreFeedSnapshot.Page.personalized(explorePage.getPosts().stream()
+            .filter(post -> !seenPostFilter.hasSeen(viewerId, post.getId()))
+            .collect(Collectors.toList()));
     }
 
-    // or for trending:
-    public List<PostResponse> getTrendingFeed() {
-        return postRepository.findPublicPostsOrderByLikeCountDesc().stream()
-            .map(postMapper::toResponse)
+    // Trending is ranked in memory; only the page itself is loaded
+    public List<PostResponse> getTrendingFeed(Long viewerId, int limit) {
+        List<Long> unseen = trendingEngine.top(Integer.MAX_VALUE).stream()
+            .filter(postId -> !seenPostFilter.hasSeen(viewerId, postId))
+            .limit(Pagination.clampPageSize(limit))
             .collect(Collectors.toList());
+        return feedAssembler.assemble(unseen, viewerId);
+    }
+
+    public void recordImpressions(Long userId, List<Long> postIds) {
+        seenPostFilter.markSeen(userId, postIds);
+    }
+
+    public void likePost(Long postId, Long userId) {
+        if (likeCounterStore.like(postId, userId)) {
+            trendingEngine.recordLike(postId);
+        }
+    }
+
+    public void unlikePost(Long postId, Long userId) {
+        if (likeCounterStore.unlike(postId, userId)) {
+            trendingEngine.recordUnlike(postId);
+        }
+    }
+
+    private FeedPageResponse toFeedPage(List<Long> ids, int pageSize, Long viewerId) {
+        boolean hasMore = ids.size() > pageSize;
+        List<PostResponse> posts = feedAssembler.assemble(hasMore ? ids.subList(0, pageSize) : ids, viewerId);
+
+        String nextCursor = null;
+        if (hasMore && !posts.isEmpty()) {
+            PostResponse last = posts.get(posts.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPageResponse(posts, nextCursor);
     }
-}
\ No newline at end of file
+}
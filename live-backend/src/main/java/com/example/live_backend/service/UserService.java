@@ -4,9 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.example.live_backend.dto.User.UserPageResponse;
 import com.example.live_backend.dto.User.UserRequest;
 import com.example.live_backend.dto.User.UserResponse;
 import com.example.live_backend.mapper.UserMapper;
@@ -14,8 +19,13 @@ import java.util.Set;
 
 import com.example.live_backend.model.User.GroupMembership;
 import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.User.FollowEventRepository;
 import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Feed.HomeTimelineCache;
+import com.example.live_backend.service.Graph.SocialGraphIndex;
+import com.example.live_backend.service.Location.ParticipantAccessCache;
 
+import java.util.Arrays;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,8 +33,12 @@ import java.util.stream.Collectors;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final FollowEventRepository followEventRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final HomeTimelineCache homeTimelineCache;
+    private final SocialGraphIndex socialGraphIndex;
+    private final ParticipantAccessCache participantAccessCache;
 
     public UserResponse createUser(UserRequest request) {
         User user = userMapper.toEntity(request);
@@ -44,6 +58,16 @@ public class UserService {
         return userMapper.toResponse(user);
     }
 
+    // A profile as seen by another user, including how many friends they share
+    public UserResponse getUserProfile(Long id, Long viewerId) {
+        UserResponse response = getUserById(id);
+        if (!id.equals(viewerId)) {
+            response.setMutualFriendCount(SocialGraphIndex.intersectionSize(
+                socialGraphIndex.friends(id), socialGraphIndex.friends(viewerId)));
+        }
+        return response;
+    }
+
     @Transactional
     public UserResponse updateUser(Long id, UserRequest request) {
         User user = userRepository.findById(id)
@@ -69,47 +93,111 @@ public class UserService {
     }
 
     public Set<UserResponse> getFriends(Long id) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        
-        return user.getFriends().stream()
-            .map(userMapper::toResponse)
-            .collect(Collectors.toSet());
+        return toResponses(socialGraphIndex.friends(id));
     }
 
+    // Writes user_following directly; neither user's collections are loaded
+    @Transactional
     public void followUser(Long currentUserId, Long userIdToFollow) {
-        User currentUser = userRepository.findById(currentUserId)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found")); 
-        User userToFollow = userRepository.findById(userIdToFollow)
-            .orElseThrow(() -> new UsernameNotFoundException("User to follow not found"));
+        if (currentUserId.equals(userIdToFollow)) {
+            throw new RuntimeException("Cannot follow yourself");
+        }
+        if (!userRepository.existsById(userIdToFollow)) {
+            throw new UsernameNotFoundException("User to follow not found");
+        }
 
-        // Add userToFollow to currentUser's following set
-        currentUser.getFollowing().add(userToFollow);
-        userRepository.save(currentUser);
+        if (userRepository.insertFollow(currentUserId, userIdToFollow) == 1) {
+            userRepository.adjustFollowingCount(currentUserId, 1);
+            userRepository.adjustFollowerCount(userIdToFollow, 1);
+            followEventRepository.record(currentUserId, userIdToFollow, true);
+        }
+        TransactionHooks.afterCommit(() -> {
+            socialGraphIndex.addFollow(currentUserId, userIdToFollow);
+            homeTimelineCache.invalidate(currentUserId);
+        });
     }
 
+    @Transactional
     public void unfollowUser(Long currentUserId, Long userIdToUnfollow) {
-        User currentUser = userRepository.findById(currentUserId)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        User userToUnfollow = userRepository.findById(userIdToUnfollow)
-            .orElseThrow(() -> new UsernameNotFoundException("User to unfollow not found"));
+        if (userRepository.deleteFollow(currentUserId, userIdToUnfollow) == 1) {
+            userRepository.adjustFollowingCount(currentUserId, -1);
+            userRepository.adjustFollowerCount(userIdToUnfollow, -1);
+            followEventRepository.record(currentUserId, userIdToUnfollow, false);
+        }
+        TransactionHooks.afterCommit(() -> {
+            socialGraphIndex.removeFollow(currentUserId, userIdToUnfollow);
+            homeTimelineCache.invalidate(currentUserId);
+        });
+    }
 
-        currentUser.getFollowing().remove(userToUnfollow);
-        userRepository.save(currentUser);
+    /**
+     * Follows many users at once, e.g. contacts imported during onboarding. The
+     * statement count is fixed whatever the list size; unknown ids, the user
+     * themself and users already followed are skipped. Returns the ids newly followed.
+     */
+    @Transactional
+    public List<Long> bulkFollow(Long currentUserId, Collection<Long> userIds) {
+        List<Long> candidates = userIds.stream().distinct().collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<Long> toFollow = userRepository.findNotFollowedAmong(currentUserId, candidates);
+        if (toFollow.isEmpty()) {
+            return List.of();
+        }
+
+        userRepository.insertFollows(currentUserId, toFollow);
+        userRepository.incrementFollowerCounts(toFollow);
+        userRepository.adjustFollowingCount(currentUserId, toFollow.size());
+        followEventRepository.recordFollows(currentUserId, toFollow);
+        TransactionHooks.afterCommit(() -> {
+            toFollow.forEach(followeeId -> socialGraphIndex.addFollow(currentUserId, followeeId));
+            homeTimelineCache.invalidate(currentUserId);
+        });
+        return toFollow;
     }
 
-    public Set<UserResponse > getFollowing(Long id) {   
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return user.getFollowing().stream()
+    /**
+     * One page of the users {@code id} follows, in id order. Pass the previous
+     * page's nextCursor to continue.
+     */
+    public UserPageResponse getFollowing(Long id, Long cursor, int limit) {
+        return toPage(socialGraphIndex.following(id), cursor, limit);
+    }
+
+    public UserPageResponse getFollowers(Long id, Long cursor, int limit) {
+        return toPage(socialGraphIndex.followers(id), cursor, limit);
+    }
+
+    public boolean isFriends(Long userId, Long otherUserId) {
+        return socialGraphIndex.isFriends(userId, otherUserId);
+    }
+
+    private UserPageResponse toPage(long[] sortedIds, Long cursor, int limit) {
+        int start = 0;
+        if (cursor != null) {
+            int i = Arrays.binarySearch(sortedIds, cursor);
+            start = i >= 0 ? i + 1 : -i - 1;
+        }
+        int end = Math.min(sortedIds.length, start + Pagination.clampPageSize(limit));
+        List<Long> pageIds = Arrays.stream(sortedIds, start, end).boxed().collect(Collectors.toList());
+
+        Map<Long, User> users = userRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<UserResponse> page = pageIds.stream()
+            .map(users::get)
+            .filter(Objects::nonNull)
             .map(userMapper::toResponse)
-            .collect(Collectors.toSet());
+            .collect(Collectors.toList());
+        return new UserPageResponse(page, end < sortedIds.length ? sortedIds[end - 1] : null);
     }
 
-    public Set<UserResponse > getFollowers(Long id) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return user.getFollowers().stream()
+    // Ids come from the graph index; the rows themselves are one findAllById
+    private Set<UserResponse> toResponses(long[] userIds) {
+        if (userIds.length == 0) {
+            return Set.of();
+        }
+        return userRepository.findAllById(Arrays.stream(userIds).boxed().collect(Collectors.toList())).stream()
             .map(userMapper::toResponse)
             .collect(Collectors.toSet());
     }
@@ -131,5 +219,6 @@ public class UserService {
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         user.setShareLocation(shareLocation);
         userRepository.save(user);
+        TransactionHooks.afterCommit(() -> participantAccessCache.invalidateUser(userId));
     }
 } 
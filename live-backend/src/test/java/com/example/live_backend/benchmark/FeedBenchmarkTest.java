@@ -0,0 +1,172 @@
+package com.example.live_backend.benchmark;
+
+import com.example.live_backend.mapper.PostMapper;
+import com.example.live_backend.mapper.UserMapper;
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.service.PostService;
+import com.example.live_backend.service.Feed.ExploreFeedSnapshot;
+import com.example.live_backend.service.Feed.FeedAssembler;
+import com.example.live_backend.service.Feed.HomeTimelineCache;
+import com.example.live_backend.service.Feed.LikeCounterStore;
+import com.example.live_backend.service.Feed.SeenPostFilter;
+import com.example.live_backend.service.Feed.TrendingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency and SQL statement counts for the three feeds over generated graphs of
+ * increasing size. Excluded from the normal build; run with
+ *
+ *   mvn test -Pbenchmark -Dbenchmark.sizes=10000,100000,300000
+ *
+ * Each viewer is called once before measuring, so the figures are for warm
+ * caches. Results are written to target/benchmark/feed-benchmark.json, one entry
+ * per graph size, so runs can be diffed or charted.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ FeedAssembler.class, PostMapper.class, UserMapper.class, LikeCounterStore.class,
+          HomeTimelineCache.class, ExploreFeedSnapshot.class, SeenPostFilter.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class FeedBenchmarkTest {
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PostRepository postRepository;
+    @Autowired private FeedAssembler feedAssembler;
+    @Autowired private HomeTimelineCache homeTimelineCache;
+    @Autowired private LikeCounterStore likeCounterStore;
+    @Autowired private ExploreFeedSnapshot exploreFeedSnapshot;
+    @Autowired private SeenPostFilter seenPostFilter;
+    @Autowired private PostMapper postMapper;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void feeds() throws IOException {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "1000,10000,50000").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int viewerCount = Integer.getInteger("benchmark.viewers", 100);
+        int rounds = Integer.getInteger("benchmark.rounds", 3);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (int users : sizes) {
+            SocialDatasetGenerator generator = new SocialDatasetGenerator(jdbcTemplate, 42);
+            generator.reset();
+            long started = System.nanoTime();
+            SocialDatasetGenerator.Dataset dataset = generator.generate(SocialDatasetGenerator.Spec.ofUsers(users));
+            long generationMillis = (System.nanoTime() - started) / 1_000_000;
+
+            PostService postService = freshPostService();
+            exploreFeedSnapshot.rebuild();
+            List<Long> viewers = dataset.sampleViewers(viewerCount, new Random(7));
+            // Ids restart with every graph, so timelines cached for the previous one are wrong
+            viewers.forEach(homeTimelineCache::invalidate);
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("following", measure(statistics, viewers, rounds,
+                viewer -> postService.getFollowingFeed(viewer, null, PAGE_SIZE)));
+            results.put("explore", measure(statistics, viewers, rounds,
+                viewer -> postService.getExplorePage(viewer, 0)));
+            results.put("trending", measure(statistics, viewers, rounds,
+                viewer -> postService.getTrendingFeed(viewer, PAGE_SIZE)));
+
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("users", users);
+            run.put("follows", dataset.follows);
+            run.put("posts", dataset.posts);
+            run.put("likes", dataset.likes);
+            run.put("comments", dataset.comments);
+            run.put("generationMillis", generationMillis);
+            run.put("results", results);
+            runs.add(run);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", LocalDateTime.now().toString());
+        report.put("pageSize", PAGE_SIZE);
+        report.put("viewers", viewerCount);
+        report.put("rounds", rounds);
+        report.put("runs", runs);
+
+        File out = new File("target/benchmark/feed-benchmark.json");
+        out.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+        assertThat(out).exists();
+    }
+
+    // The trending engine is stateful, so each graph gets its own, warmed from that graph
+    private PostService freshPostService() {
+        TrendingEngine trendingEngine = new TrendingEngine(postRepository);
+        ReflectionTestUtils.setField(trendingEngine, "halfLifeHours", 6.0);
+        ReflectionTestUtils.setField(trendingEngine, "windowHours", 48L);
+        ReflectionTestUtils.setField(trendingEngine, "topK", 200);
+        trendingEngine.warmUp();
+        return new PostService(postRepository, feedAssembler, homeTimelineCache, trendingEngine,
+            likeCounterStore, exploreFeedSnapshot, seenPostFilter, postMapper, eventPublisher);
+    }
+
+    private Map<String, Object> measure(Statistics statistics, List<Long> viewers, int rounds,
+                                        LongConsumer call) {
+        // One unmeasured pass to warm the JIT and the connection pool
+        viewers.forEach(call::accept);
+
+        long[] nanos = new long[viewers.size() * rounds];
+        long statements = 0;
+        int i = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (long viewer : viewers) {
+                statistics.clear();
+                long started = System.nanoTime();
+                call.accept(viewer);
+                nanos[i++] = System.nanoTime() - started;
+                statements += statistics.getPrepareStatementCount();
+            }
+        }
+        Arrays.sort(nanos);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", nanos.length);
+        result.put("p50Micros", percentile(nanos, 0.50) / 1000);
+        result.put("p99Micros", percentile(nanos, 0.99) / 1000);
+        result.put("maxMicros", nanos[nanos.length - 1] / 1000);
+        result.put("statementsPerCall", (double) statements / nanos.length);
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.round(p * (sorted.length - 1))];
+    }
+}
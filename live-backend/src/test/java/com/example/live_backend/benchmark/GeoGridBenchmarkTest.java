@@ -0,0 +1,86 @@
+package com.example.live_backend.benchmark;
+
+import com.example.live_backend.service.Location.GeoGrid;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Radius and k-nearest latency of the nearby-activity grid, at 1M points by
+ * default. Nine in ten points cluster around one city so cells are dense; the
+ * rest are spread worldwide. Run with
+ *
+ *   mvn test -Pbenchmark -Dbenchmark.geo.points=1000000
+ *
+ * Results go to target/benchmark/geo-grid.json.
+ */
+@Tag("benchmark")
+public class GeoGridBenchmarkTest {
+
+    @Test
+    void queries() throws Exception {
+        int points = Integer.getInteger("benchmark.geo.points", 1_000_000);
+        int queries = Integer.getInteger("benchmark.geo.queries", 20_000);
+        Random random = new Random(3);
+        long[] ids = new long[points];
+        byte[] kinds = new byte[points];
+        double[] latitudes = new double[points];
+        double[] longitudes = new double[points];
+        for (int i = 0; i < points; i++) {
+            ids[i] = i + 1;
+            kinds[i] = (byte) (i % 2);
+            if (i % 10 == 0) {
+                latitudes[i] = -80 + 160 * random.nextDouble();
+                longitudes[i] = -179 + 358 * random.nextDouble();
+            } else {
+                latitudes[i] = 40.7 + random.nextGaussian() * 0.3;
+                longitudes[i] = -74 + random.nextGaussian() * 0.3;
+            }
+        }
+
+        long started = System.nanoTime();
+        GeoGrid grid = GeoGrid.build(0.01, ids, kinds, latitudes, longitudes, points);
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+
+        long[] radiusNanos = new long[queries];
+        long[] nearestNanos = new long[queries];
+        for (int q = 0; q < queries; q++) {
+            double lat = 40.7 + random.nextGaussian() * 0.3;
+            double lon = -74 + random.nextGaussian() * 0.3;
+            long start = System.nanoTime();
+            grid.withinRadius(lat, lon, 1000, 0b11, 50);
+            radiusNanos[q] = System.nanoTime() - start;
+            start = System.nanoTime();
+            grid.nearest(lat, lon, 20, 50_000, 0b11);
+            nearestNanos[q] = System.nanoTime() - start;
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", LocalDateTime.now().toString());
+        report.put("points", points);
+        report.put("buildMillis", buildMillis);
+        report.put("radius1kmMicros", percentiles(radiusNanos));
+        report.put("nearest20Micros", percentiles(nearestNanos));
+
+        File out = new File("target/benchmark/geo-grid.json");
+        out.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+    }
+
+    private static Map<String, Double> percentiles(long[] nanos) {
+        Arrays.sort(nanos);
+        Map<String, Double> result = new LinkedHashMap<>();
+        result.put("p50", nanos[nanos.length / 2] / 1000.0);
+        result.put("p99", nanos[(int) (nanos.length * 0.99)] / 1000.0);
+        return result;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.live_backend.benchmark;
+
+import com.example.live_backend.dto.User.LocationBatchRequest;
+import com.example.live_backend.dto.User.LocationSample;
+import com.example.live_backend.dto.User.LocationUpdateResponse;
+import com.example.live_backend.model.Experience.ActiveExperience;
+import com.example.live_backend.model.Experience.Experience;
+import com.example.live_backend.model.User.ActiveExperienceParticipant;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Experience.ActiveExperienceRepository;
+import com.example.live_backend.repository.Experience.ExperienceRepository;
+import com.example.live_backend.repository.User.ActiveExperienceParticipantRepository;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.security.CustomUserDetails;
+import com.example.live_backend.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Location ingest throughput over REST (one ping per POST, JWT parsed every
+ * time) against STOMP (batches on one authenticated session), end to end on a
+ * real server port. Excluded from the normal build; run with
+ *
+ *   mvn test -Pbenchmark -Dbenchmark.location.samples=20000 -Dbenchmark.location.batch=10
+ *
+ * Results go to target/benchmark/location-ingest-benchmark.json.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LocationIngestBenchmarkTest {
+
+    @LocalServerPort private int port;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ExperienceRepository experienceRepository;
+    @Autowired private ActiveExperienceRepository activeExperienceRepository;
+    @Autowired private ActiveExperienceParticipantRepository participantRepository;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void ingest() throws Exception {
+        int samples = Integer.getInteger("benchmark.location.samples", 5000);
+        int batchSize = Integer.getInteger("benchmark.location.batch", 10);
+
+        User user = new User();
+        user.setUsername("bench-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("unused");
+        user.setShareLocation(true);
+        user = userRepository.save(user);
+        Experience experience = new Experience();
+        experience.setTitle("Location ingest benchmark");
+        experience.setStartDate(LocalDateTime.now());
+        experience.setUser(user);
+        experience = experienceRepository.save(experience);
+        ActiveExperience active = new ActiveExperience();
+        active.setExperience(experience);
+        active.setUser(user);
+        active = activeExperienceRepository.save(active);
+        ActiveExperienceParticipant participant = new ActiveExperienceParticipant();
+        participant.setActiveExperience(active);
+        participant.setUser(user);
+        participantRepository.save(participant);
+        String token = jwtUtil.generateToken(new CustomUserDetails(user));
+
+        Map<String, Object> rest = restIngest(active.getId(), token, samples);
+        Map<String, Object> stomp = stompIngest(active.getId(), token, samples, batchSize);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", LocalDateTime.now().toString());
+        report.put("samples", samples);
+        report.put("rest", rest);
+        report.put("stomp", stomp);
+        report.put("speedup", (double) stomp.get("samplesPerSecond") / (double) rest.get("samplesPerSecond"));
+
+        File out = new File("target/benchmark/location-ingest-benchmark.json");
+        out.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+        assertThat(out).exists();
+        assertThat((double) rest.get("samplesPerSecond")).isPositive();
+        assertThat((double) stomp.get("samplesPerSecond")).isPositive();
+    }
+
+    private Map<String, Object> restIngest(Long activeExperienceId, String token, int samples) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + port + "/" + activeExperienceId + "/location");
+        long[] micros = new long[samples];
+        long started = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            String body = objectMapper.writeValueAsString(sample(i, null));
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+            long sent = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            micros[i] = (System.nanoTime() - sent) / 1000;
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        return result(samples, System.nanoTime() - started, micros);
+    }
+
+    private Map<String, Object> stompIngest(Long activeExperienceId, String token, int samples, int batchSize)
+            throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        StompSession session = client.connectAsync("ws://localhost:" + port + "/ws/websocket",
+                new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() { })
+            .get(10, TimeUnit.SECONDS);
+
+        int batches = (samples + batchSize - 1) / batchSize;
+        CountDownLatch acks = new CountDownLatch(batches);
+        session.subscribe("/user/queue/location-ack", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return LocationUpdateResponse.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                acks.countDown();
+            }
+        });
+        // No receipts from the simple broker; give the SUBSCRIBE a moment to land
+        Thread.sleep(500);
+
+        long now = System.currentTimeMillis();
+        long started = System.nanoTime();
+        for (int b = 0; b < batches; b++) {
+            List<LocationSample> batch = new ArrayList<>(batchSize);
+            for (int i = b * batchSize; i < Math.min(samples, (b + 1) * batchSize); i++) {
+                batch.add(sample(i, now + i));
+            }
+            LocationBatchRequest request = new LocationBatchRequest();
+            request.setSamples(batch);
+            session.send("/app/active-experience/" + activeExperienceId + "/location", request);
+        }
+        assertThat(acks.await(60, TimeUnit.SECONDS)).isTrue();
+        long elapsed = System.nanoTime() - started;
+        session.disconnect();
+        client.stop();
+
+        Map<String, Object> result = result(samples, elapsed, null);
+        result.put("batchSize", batchSize);
+        return result;
+    }
+
+    // Each sample ~11m north of the previous one so none is suppressed
+    private static LocationSample sample(int i, Long timestamp) {
+        return new LocationSample(40.0 + i * 0.0001, -74.0, timestamp);
+    }
+
+    private static Map<String, Object> result(int samples, long elapsedNanos, long[] micros) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("elapsedMillis", elapsedNanos / 1_000_000);
+        result.put("samplesPerSecond", samples * 1e9 / elapsedNanos);
+        if (micros != null) {
+            Arrays.sort(micros);
+            result.put("p50Micros", micros[micros.length / 2]);
+            result.put("p99Micros", micros[(int) (micros.length * 0.99)]);
+        }
+        return result;
+    }
+}
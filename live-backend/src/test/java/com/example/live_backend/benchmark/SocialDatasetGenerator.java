@@ -0,0 +1,268 @@
+package com.example.live_backend.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Fills the schema with a synthetic social graph for benchmarks.
+ *
+ * Popularity follows a Zipf distribution, so a few accounts collect most of the
+ * followers and likes, and out-degrees are Pareto distributed, so a few users
+ * follow thousands of accounts. Rows are written with plain JDBC batches since
+ * going through JPA would dominate the run time at a few hundred thousand users.
+ * Seeded, so the same spec always produces the same graph.
+ */
+public class SocialDatasetGenerator {
+    private static final int BATCH_SIZE = 5000;
+    private static final int MAX_FOLLOWS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    public SocialDatasetGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    public static class Spec {
+        final int users;
+        final double avgFollows;
+        final double postsPerUser;
+        final double avgLikesPerPost;
+        final double avgCommentsPerPost;
+
+        public Spec(int users, double avgFollows, double postsPerUser, double avgLikesPerPost, double avgCommentsPerPost) {
+            this.users = users;
+            this.avgFollows = avgFollows;
+            this.postsPerUser = postsPerUser;
+            this.avgLikesPerPost = avgLikesPerPost;
+            this.avgCommentsPerPost = avgCommentsPerPost;
+        }
+
+        public static Spec ofUsers(int users) {
+            return new Spec(users, 20, 3, 5, 1);
+        }
+    }
+
+    public static class Dataset {
+        public final long[] userIds;
+        public final int[] followingCounts;
+        public long follows;
+        public long posts;
+        public long likes;
+        public long comments;
+
+        Dataset(long[] userIds) {
+            this.userIds = userIds;
+            this.followingCounts = new int[userIds.length];
+        }
+
+        /**
+         * Half the heaviest followers (the worst case for the following feed) and
+         * half chosen at random.
+         */
+        public List<Long> sampleViewers(int count, Random random) {
+            Integer[] byDegree = new Integer[userIds.length];
+            for (int i = 0; i < byDegree.length; i++) {
+                byDegree[i] = i;
+            }
+            Arrays.sort(byDegree, (a, b) -> Integer.compare(followingCounts[b], followingCounts[a]));
+
+            List<Long> viewers = new ArrayList<>();
+            for (int i = 0; i < Math.min(count / 2, byDegree.length); i++) {
+                viewers.add(userIds[byDegree[i]]);
+            }
+            while (viewers.size() < Math.min(count, userIds.length)) {
+                viewers.add(userIds[random.nextInt(userIds.length)]);
+            }
+            return viewers;
+        }
+    }
+
+    // Empties every table the generator writes to and restarts their ids
+    public void reset() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        for (String table : List.of("comments", "post_likes", "posts", "user_following", "users")) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+        }
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    public Dataset generate(Spec spec) {
+        Dataset dataset = new Dataset(insertUsers(spec.users));
+        insertFollows(spec, dataset);
+        insertPostsLikesAndComments(spec, dataset);
+        return dataset;
+    }
+
+    private long[] insertUsers(int count) {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[] { "user" + i, "user" + i + "@example.com", "password" });
+            if (batch.size() == BATCH_SIZE) {
+                flushUsers(batch);
+            }
+        }
+        flushUsers(batch);
+        return jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class)
+            .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void flushUsers(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO users (username, email, password, share_location, prefers_dark_mode, role) " +
+            "VALUES (?, ?, ?, FALSE, FALSE, 'USER')", batch);
+        batch.clear();
+    }
+
+    private void insertFollows(Spec spec, Dataset dataset) {
+        int n = dataset.userIds.length;
+        ZipfSampler popularity = new ZipfSampler(n, 1.1, random);
+        List<Object[]> batch = new ArrayList<>();
+
+        for (int follower = 0; follower < n; follower++) {
+            int degree = Math.min(Math.min(n - 1, MAX_FOLLOWS), pareto(spec.avgFollows));
+            Set<Integer> followees = new HashSet<>();
+            // Bounded retries: for tiny graphs the popular head saturates quickly
+            for (int attempt = 0; followees.size() < degree && attempt < degree * 4; attempt++) {
+                int followee = popularity.next();
+                if (followee != follower) {
+                    followees.add(followee);
+                }
+            }
+            for (int followee : followees) {
+                batch.add(new Object[] { dataset.userIds[follower], dataset.userIds[followee] });
+            }
+            dataset.followingCounts[follower] = followees.size();
+            dataset.follows += followees.size();
+            if (batch.size() >= BATCH_SIZE) {
+                flush("INSERT INTO user_following (follower_id, followee_id) VALUES (?, ?)", batch);
+            }
+        }
+        flush("INSERT INTO user_following (follower_id, followee_id) VALUES (?, ?)", batch);
+    }
+
+    private void insertPostsLikesAndComments(Spec spec, Dataset dataset) {
+        int n = dataset.userIds.length;
+        int postCount = (int) (n * spec.postsPerUser);
+        ZipfSampler authors = new ZipfSampler(n, 1.0, random);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Decide the engagement per post up front so like/comment counts can be written with the row
+        int[] likeCounts = new int[postCount];
+        int[] commentCounts = new int[postCount];
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < postCount; i++) {
+            likeCounts[i] = Math.min(n, pareto(spec.avgLikesPerPost) - 1);
+            commentCounts[i] = Math.max(0, pareto(spec.avgCommentsPerPost + 1) - 1);
+            LocalDateTime createdAt = now.minusSeconds(random.nextInt(7 * 24 * 3600));
+            batch.add(new Object[] {
+                dataset.userIds[authors.next()], Timestamp.valueOf(createdAt), "post " + i,
+                random.nextInt(10) < 8, likeCounts[i], commentCounts[i]
+            });
+            if (batch.size() == BATCH_SIZE) {
+                flushPosts(batch);
+            }
+        }
+        flushPosts(batch);
+        long[] postIds = jdbcTemplate.queryForList("SELECT id FROM posts ORDER BY id", Long.class)
+            .stream().mapToLong(Long::longValue).toArray();
+        dataset.posts = postIds.length;
+
+        List<Object[]> likes = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < postIds.length; i++) {
+            Set<Integer> likers = new HashSet<>();
+            while (likers.size() < likeCounts[i]) {
+                likers.add(random.nextInt(n));
+            }
+            for (int liker : likers) {
+                likes.add(new Object[] { postIds[i], dataset.userIds[liker] });
+            }
+            for (int c = 0; c < commentCounts[i]; c++) {
+                comments.add(new Object[] {
+                    postIds[i], dataset.userIds[random.nextInt(n)], "comment " + c,
+                    Timestamp.valueOf(now.minusSeconds(random.nextInt(24 * 3600)))
+                });
+            }
+            dataset.likes += likers.size();
+            dataset.comments += commentCounts[i];
+            if (likes.size() >= BATCH_SIZE) {
+                flush("INSERT INTO post_likes (post_id, user_id) VALUES (?, ?)", likes);
+            }
+            if (comments.size() >= BATCH_SIZE) {
+                flush("INSERT INTO comments (post_id, user_id, content, created_at) VALUES (?, ?, ?, ?)", comments);
+            }
+        }
+        flush("INSERT INTO post_likes (post_id, user_id) VALUES (?, ?)", likes);
+        flush("INSERT INTO comments (post_id, user_id, content, created_at) VALUES (?, ?, ?, ?)", comments);
+    }
+
+    private void flushPosts(List<Object[]> batch) {
+        flush("INSERT INTO posts (user_id, created_at, caption, is_public, like_count, comment_count) " +
+              "VALUES (?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    // Pareto with shape 2, scaled so the mean is close to the requested one; always at least 1
+    private int pareto(double mean) {
+        double scale = mean / 2;
+        return Math.max(1, (int) Math.round(scale / Math.sqrt(1 - random.nextDouble())));
+    }
+
+    /**
+     * Draws indexes in [0, n) with probability proportional to 1 / rank^exponent.
+     * Ranks are shuffled so the most popular accounts are spread over the id range.
+     */
+    static class ZipfSampler {
+        private final double[] cumulative;
+        private final int[] indexByRank;
+        private final Random random;
+
+        ZipfSampler(int n, double exponent, Random random) {
+            this.random = random;
+            this.cumulative = new double[n];
+            double total = 0;
+            for (int rank = 0; rank < n; rank++) {
+                total += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= total;
+            }
+
+            indexByRank = new int[n];
+            for (int i = 0; i < n; i++) {
+                indexByRank[i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = indexByRank[i];
+                indexByRank[i] = indexByRank[j];
+                indexByRank[j] = swap;
+            }
+        }
+
+        int next() {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            return indexByRank[Math.min(rank, indexByRank.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.live_backend.benchmark;
+
+import com.example.live_backend.service.Graph.SocialGraphIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of starting the social graph from a database scan versus from a mapped
+ * snapshot, at 10M edges by default. Run with
+ *
+ *   mvn test -Pbenchmark -Dbenchmark.graph.edges=10000000
+ *
+ * The in-memory build stands in for the user_following scan (the JDBC read
+ * comes on top of it). Results go to target/benchmark/social-graph-snapshot.json.
+ */
+@Tag("benchmark")
+public class SocialGraphSnapshotBenchmarkTest {
+
+    @Test
+    void snapshotStartup(@TempDir Path dir) throws Exception {
+        int edges = Integer.getInteger("benchmark.graph.edges", 10_000_000);
+        int users = Math.max(2, edges / 20);
+        long[] followers = new long[edges];
+        long[] followees = new long[edges];
+        SocialDatasetGenerator.ZipfSampler popularity = new SocialDatasetGenerator.ZipfSampler(users, 1.1, new Random(42));
+        Random random = new Random(7);
+        for (int e = 0; e < edges; e++) {
+            followers[e] = 1 + random.nextInt(users);
+            followees[e] = 1 + popularity.next();
+        }
+
+        SocialGraphIndex built = new SocialGraphIndex(mock(JdbcTemplate.class));
+        long heapBeforeBuild = usedHeap();
+        long started = System.nanoTime();
+        built.rebuild(followers, followees, edges);
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        long builtHeapBytes = usedHeap() - heapBeforeBuild;
+
+        Path file = dir.resolve("graph.snap");
+        started = System.nanoTime();
+        built.writeSnapshot(file, 1L);
+        long writeMillis = (System.nanoTime() - started) / 1_000_000;
+        long probeUser = followers[0];
+        long[] expected = built.following(probeUser);
+
+        // Drop the heap copies before measuring the mapped one
+        built = null;
+        followers = null;
+        followees = null;
+
+        SocialGraphIndex mapped = new SocialGraphIndex(mock(JdbcTemplate.class));
+        long heapBeforeMap = usedHeap();
+        started = System.nanoTime();
+        mapped.loadSnapshot(file);
+        long mapMillis = (System.nanoTime() - started) / 1_000_000;
+        long mappedHeapBytes = usedHeap() - heapBeforeMap;
+
+        started = System.nanoTime();
+        long[] probed = mapped.following(probeUser);
+        long firstLookupMicros = (System.nanoTime() - started) / 1000;
+        assertThat(probed).containsExactly(expected);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", LocalDateTime.now().toString());
+        report.put("edges", edges);
+        report.put("users", users);
+        report.put("buildMillis", buildMillis);
+        report.put("builtHeapBytes", builtHeapBytes);
+        report.put("snapshotBytes", Files.size(file));
+        report.put("writeMillis", writeMillis);
+        report.put("mapMillis", mapMillis);
+        report.put("mappedHeapBytes", mappedHeapBytes);
+        report.put("firstLookupMicros", firstLookupMicros);
+
+        File out = new File("target/benchmark/social-graph-snapshot.json");
+        out.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.live_backend.controller;
+
+import com.example.live_backend.model.Experience.ActiveExperience;
+import com.example.live_backend.model.Experience.Experience;
+import com.example.live_backend.model.User.ActiveExperienceParticipant;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Experience.ActiveExperienceRepository;
+import com.example.live_backend.repository.Experience.ExperienceRepository;
+import com.example.live_backend.repository.User.ActiveExperienceParticipantRepository;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.security.CustomUserDetails;
+import com.example.live_backend.security.JwtUtil;
+import com.example.live_backend.service.Experience.ActiveExperienceService;
+import com.example.live_backend.service.Location.ExperienceLocations;
+import com.example.live_backend.service.Location.LocationFormatInterceptor;
+import com.example.live_backend.service.Location.LocationFrameCodec;
+import com.example.live_backend.service.Location.LocationHub;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Offset.offset;
+
+/**
+ * Binary location frames over a real STOMP session on the plain WebSocket
+ * endpoint: the bytes a client receives must decode with {@link LocationFrameCodec}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LocationBinaryFrameTest {
+
+    @LocalServerPort private int port;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ExperienceRepository experienceRepository;
+    @Autowired private ActiveExperienceRepository activeExperienceRepository;
+    @Autowired private ActiveExperienceParticipantRepository participantRepository;
+    @Autowired private ActiveExperienceService activeExperienceService;
+    @Autowired private JwtUtil jwtUtil;
+
+    @Test
+    void subscribe_ShouldReceiveDecodableBinaryFrameOnNativeEndpoint() throws Exception {
+        User user = new User();
+        user.setUsername("binary-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("unused");
+        user.setShareLocation(true);
+        user = userRepository.save(user);
+        Experience experience = new Experience();
+        experience.setTitle("Binary frames");
+        experience.setStartDate(LocalDateTime.now());
+        experience.setUser(user);
+        experience = experienceRepository.save(experience);
+        ActiveExperience active = new ActiveExperience();
+        active.setExperience(experience);
+        active.setUser(user);
+        active = activeExperienceRepository.save(active);
+        ActiveExperienceParticipant participant = new ActiveExperienceParticipant();
+        participant.setActiveExperience(active);
+        participant.setUser(user);
+        participantRepository.save(participant);
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new ByteArrayMessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtUtil.generateToken(new CustomUserDetails(user)));
+        StompSession session = client.connectAsync("ws://localhost:" + port + LocationFormatInterceptor.NATIVE_ENDPOINT,
+                new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() { })
+            .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<byte[]> frames = new LinkedBlockingQueue<>();
+        StompHeaders subscribe = new StompHeaders();
+        subscribe.setDestination(LocationHub.destination(active.getId()));
+        subscribe.add(LocationFormatInterceptor.FORMAT_HEADER, "binary");
+        session.subscribe(subscribe, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frames.add((byte[]) payload);
+            }
+        });
+        // No receipts from the simple broker; give the SUBSCRIBE a moment to land
+        Thread.sleep(500);
+
+        activeExperienceService.updateUserLocation(active.getId(), user.getId(), 40.7128001, -74.0060002);
+
+        // Sent on the hub's next scheduled tick
+        byte[] frame = frames.poll(5, TimeUnit.SECONDS);
+        session.disconnect();
+        client.stop();
+
+        assertThat(frame).isNotNull();
+        List<ExperienceLocations.Position> positions = new LocationFrameCodec.Decoder().decode(frame);
+        Long userId = user.getId();
+        assertThat(positions).singleElement().satisfies(position -> {
+            assertThat(position.userId).isEqualTo(userId);
+            assertThat(position.latitude).isCloseTo(40.7128001, offset(1e-7));
+            assertThat(position.longitude).isCloseTo(-74.0060002, offset(1e-7));
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.live_backend.repository;
+
+import com.example.live_backend.dto.Post.PostResponse;
+import com.example.live_backend.mapper.PostMapper;
+import com.example.live_backend.mapper.UserMapper;
+import com.example.live_backend.model.Social.Post;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.service.Feed.FeedAssembler;
+import com.example.live_backend.service.Feed.LikeCounterStore;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ FeedAssembler.class, PostMapper.class, UserMapper.class, LikeCounterStore.class })
+public class FeedAssemblerTest {
+
+    // posts + authors (with denormalized counts), viewer likes
+    private static final long QUERIES_PER_PAGE = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FeedAssembler feedAssembler;
+
+    private User viewer;
+    private final List<Long> postIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        viewer = createUser("viewer");
+
+        for (int i = 0; i < 20; i++) {
+            User author = createUser("author" + i);
+            Post post = new Post();
+            post.setUser(author);
+            post.setCaption("post " + i);
+            post.setLikeCount(i);
+            post.setCommentCount(i % 3);
+            if (i % 2 == 0) {
+                post.getLikes().add(viewer);
+            }
+            entityManager.persist(post);
+            postIds.add(post.getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return entityManager.persist(user);
+    }
+
+    @Test
+    void assemble_ShouldUseFixedNumberOfQueriesPerPage() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PostResponse> page = feedAssembler.assemble(postIds, viewer.getId());
+
+        assertThat(page).hasSize(20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(QUERIES_PER_PAGE);
+    }
+
+    @Test
+    void assemble_ShouldKeepOrderAndFillCountsAndLikedState() {
+        List<Long> reversed = new ArrayList<>(postIds);
+        Collections.reverse(reversed);
+
+        List<PostResponse> page = feedAssembler.assemble(reversed, viewer.getId());
+
+        PostResponse first = page.get(0);
+        assertThat(first.getId()).isEqualTo(postIds.get(19));
+        assertThat(first.getUser().getUsername()).isEqualTo("author19");
+        assertThat(first.getLikeCount()).isEqualTo(19);
+        assertThat(first.getCommentCount()).isEqualTo(1);
+        assertThat(first.isLikedByViewer()).isFalse();
+        assertThat(page.get(1).isLikedByViewer()).isTrue();
+    }
+}
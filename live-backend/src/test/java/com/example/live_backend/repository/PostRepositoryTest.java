@@ -0,0 +1,140 @@
+package com.example.live_backend.repository;
+
+import com.example.live_backend.model.Social.Comment;
+import com.example.live_backend.model.Social.Post;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Social.PostRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class PostRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private User reader;
+    private User author;
+    private User stranger;
+    private final List<Post> authorPosts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        reader = createUser("reader");
+        author = createUser("author");
+        stranger = createUser("stranger");
+
+        reader.getFollowing().add(author);
+        entityManager.persist(reader);
+
+        for (int i = 0; i < 5; i++) {
+            authorPosts.add(createPost(author, "post " + i));
+        }
+        createPost(stranger, "not followed");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return entityManager.persist(user);
+    }
+
+    private Post createPost(User user, String caption) {
+        Post post = new Post();
+        post.setUser(user);
+        post.setCaption(caption);
+        return entityManager.persist(post);
+    }
+
+    @Test
+    void findFollowingFeedIds_ShouldOnlyReturnFollowedAuthorsNewestFirst() {
+        List<Long> page = postRepository.findFollowingFeedIds(reader.getId(), PageRequest.of(0, 10));
+
+        assertThat(page).hasSize(5);
+        assertThat(page).containsAll(authorPosts.stream().map(Post::getId).toList());
+        assertThat(page.get(0)).isEqualTo(authorPosts.get(4).getId());
+    }
+
+    @Test
+    void findFollowingFeedIdsBefore_ShouldContinueAfterCursorWithoutOverlap() {
+        List<Long> firstPage = postRepository.findFollowingFeedIds(reader.getId(), PageRequest.of(0, 2));
+        Post last = postRepository.findById(firstPage.get(firstPage.size() - 1)).orElseThrow();
+
+        List<Long> secondPage = postRepository.findFollowingFeedIdsBefore(
+            reader.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 10));
+
+        assertThat(secondPage).hasSize(3);
+        assertThat(secondPage).doesNotContainAnyElementsOf(firstPage);
+    }
+
+    @Test
+    void findFollowingFeedKeys_ShouldMatchFeedIdsWithTheirCreatedAt() {
+        List<Long> ids = postRepository.findFollowingFeedIds(reader.getId(), PageRequest.of(0, 10));
+
+        List<PostRepository.FeedKey> keys = postRepository.findFollowingFeedKeys(reader.getId(), PageRequest.of(0, 10));
+
+        assertThat(keys).extracting(PostRepository.FeedKey::getId).containsExactlyElementsOf(ids);
+        assertThat(keys).allSatisfy(key -> assertThat(key.getCreatedAt()).isNotNull());
+    }
+
+    @Test
+    void updateImageUrls_ShouldLeaveCountersWrittenMeanwhileAlone() {
+        Long postId = authorPosts.get(0).getId();
+        // Another writer bumps the counter after this one would have loaded the post
+        postRepository.adjustCommentCount(postId, 3);
+
+        postRepository.updateImageUrls(postId, List.of("a.jpg", "b.jpg"));
+        entityManager.clear();
+
+        Post post = postRepository.findById(postId).orElseThrow();
+        assertThat(post.getImageUrl()).containsExactly("a.jpg", "b.jpg");
+        assertThat(post.getCommentCount()).isEqualTo(3);
+    }
+
+    @Test
+    void recountCommentCounts_ShouldBackfillFromCommentsAndBeIdempotent() {
+        Post post = entityManager.find(Post.class, authorPosts.get(0).getId());
+        for (int i = 0; i < 2; i++) {
+            Comment comment = new Comment();
+            comment.setPost(post);
+            comment.setUser(entityManager.find(User.class, reader.getId()));
+            comment.setContent("comment " + i);
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+
+        assertThat(postRepository.recountCommentCounts()).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(postRepository.findById(post.getId()).orElseThrow().getCommentCount()).isEqualTo(2);
+        assertThat(postRepository.recountCommentCounts()).isZero();
+    }
+
+    @Test
+    void adjustCommentCount_ShouldNotGoBelowZero() {
+        Long postId = authorPosts.get(0).getId();
+
+        postRepository.adjustCommentCount(postId, -1);
+        entityManager.clear();
+
+        assertThat(postRepository.findById(postId).orElseThrow().getCommentCount()).isZero();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.live_backend.repository;
+
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.User.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = createUser("alice");
+        bob = createUser("bob");
+        carol = createUser("carol");
+        // Follows that predate the counter columns, so every count is still 0
+        alice.getFollowing().add(bob);
+        alice.getFollowing().add(carol);
+        carol.getFollowing().add(bob);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return entityManager.persist(user);
+    }
+
+    @Test
+    void recountFollowerCounts_ShouldBackfillFromUserFollowingAndBeIdempotent() {
+        assertThat(userRepository.recountFollowerCounts()).isEqualTo(2);
+        assertThat(userRepository.recountFollowingCounts()).isEqualTo(2);
+        entityManager.clear();
+
+        assertThat(userRepository.findById(bob.getId()).orElseThrow().getFollowerCount()).isEqualTo(2);
+        assertThat(userRepository.findById(carol.getId()).orElseThrow().getFollowerCount()).isEqualTo(1);
+        assertThat(userRepository.findById(alice.getId()).orElseThrow().getFollowingCount()).isEqualTo(2);
+        assertThat(userRepository.recountFollowerCounts()).isZero();
+        assertThat(userRepository.recountFollowingCounts()).isZero();
+    }
+
+    @Test
+    void adjustFollowerCount_ShouldNotGoBelowZero() {
+        userRepository.adjustFollowerCount(bob.getId(), -1);
+        userRepository.adjustFollowingCount(alice.getId(), -1);
+        entityManager.clear();
+
+        assertThat(userRepository.findById(bob.getId()).orElseThrow().getFollowerCount()).isZero();
+        assertThat(userRepository.findById(alice.getId()).orElseThrow().getFollowingCount()).isZero();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.model.Experience.ActiveExperience;
+import com.example.live_backend.model.Experience.Experience;
+import com.example.live_backend.model.Experience.ExperienceShare;
+import com.example.live_backend.model.User.ActiveExperienceParticipant;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Experience.ActiveExperienceRepository;
+import com.example.live_backend.repository.Experience.ExperienceShareRepository;
+import com.example.live_backend.repository.User.ActiveExperienceParticipantRepository;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Event.GeofenceEvent;
+import com.example.live_backend.service.Location.GeofenceEngine;
+import com.example.live_backend.service.Location.ParticipantAccessCache;
+import com.example.live_backend.service.Location.ParticipantAccessCache.Access;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ActiveExperienceParticipantServiceTest {
+
+    @Mock
+    private ActiveExperienceParticipantRepository participantRepository;
+
+    @Mock
+    private ActiveExperienceRepository activeExperienceRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ExperienceShareRepository experienceShareRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ParticipantAccessCache participantAccessCache;
+    private GeofenceEngine geofenceEngine;
+    private ActiveExperienceParticipantService participantService;
+
+    private ActiveExperience active;
+    private User guest;
+
+    @BeforeEach
+    void setUp() {
+        participantAccessCache = new ParticipantAccessCache(participantRepository);
+        ReflectionTestUtils.setField(participantAccessCache, "ttlMillis", 300_000L);
+        ReflectionTestUtils.setField(participantAccessCache, "negativeTtlMillis", 300_000L);
+        geofenceEngine = new GeofenceEngine(eventPublisher);
+        ReflectionTestUtils.setField(geofenceEngine, "radiusMeters", 10.0);
+        ReflectionTestUtils.setField(geofenceEngine, "exitMarginMeters", 15.0);
+        participantService = new ActiveExperienceParticipantService(participantRepository, activeExperienceRepository,
+            userRepository, experienceShareRepository, participantAccessCache, geofenceEngine);
+
+        User owner = new User();
+        owner.setId(1L);
+        guest = new User();
+        guest.setId(2L);
+        Experience experience = new Experience();
+        experience.setId(3L);
+        experience.setUser(owner);
+        active = new ActiveExperience();
+        active.setId(7L);
+        active.setExperience(experience);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void join_ShouldLetCachedNonMemberInOnlyAfterCommit() {
+        when(participantRepository.findShareLocation(7L, 2L)).thenReturn(Optional.empty(), Optional.of(true));
+        when(participantRepository.findByActiveExperienceIdAndUserId(7L, 2L)).thenReturn(Optional.empty());
+        when(activeExperienceRepository.findById(7L)).thenReturn(Optional.of(active));
+        when(experienceShareRepository.findByExperienceIdAndSharedWithId(3L, 2L)).thenReturn(Optional.of(new ExperienceShare()));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(guest));
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.NOT_PARTICIPANT);
+
+        participantService.join(7L, 2L);
+
+        verify(participantRepository).save(any(ActiveExperienceParticipant.class));
+        // Before the commit the cached answer stands
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.NOT_PARTICIPANT);
+        commit();
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.SHARING);
+    }
+
+    @Test
+    void leave_ShouldShutCachedParticipantOutAfterCommit() {
+        when(participantRepository.findShareLocation(7L, 2L)).thenReturn(Optional.of(true), Optional.empty());
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.SHARING);
+
+        participantService.leave(7L, 2L);
+        commit();
+
+        verify(participantRepository).deleteByActiveExperienceIdAndUserId(7L, 2L);
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.NOT_PARTICIPANT);
+    }
+
+    @Test
+    void leave_ShouldLetParticipantArriveAgainAfterRejoining() {
+        geofenceEngine.setTarget(7L, 100L, 40.0, -74.0);
+        geofenceEngine.evaluate(7L, 2L, 40.0, -74.0, 1);
+
+        participantService.leave(7L, 2L);
+        commit();
+        geofenceEngine.evaluate(7L, 2L, 40.0, -74.0, 2);
+
+        ArgumentCaptor<GeofenceEvent> events = ArgumentCaptor.forClass(GeofenceEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(GeofenceEvent::getType)
+            .containsExactly(GeofenceEvent.Type.ARRIVED, GeofenceEvent.Type.ARRIVED);
+    }
+
+    @Test
+    void join_ShouldRejectUserTheExperienceWasNotSharedWith() {
+        when(participantRepository.findByActiveExperienceIdAndUserId(7L, 2L)).thenReturn(Optional.empty());
+        when(activeExperienceRepository.findById(7L)).thenReturn(Optional.of(active));
+        when(experienceShareRepository.findByExperienceIdAndSharedWithId(3L, 2L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> participantService.join(7L, 2L));
+
+        verify(participantRepository, never()).save(any());
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void join_ShouldDoNothingForExistingParticipant() {
+        when(participantRepository.findByActiveExperienceIdAndUserId(7L, 1L))
+            .thenReturn(Optional.of(new ActiveExperienceParticipant()));
+
+        participantService.join(7L, 1L);
+
+        verify(participantRepository, never()).save(any());
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.dto.User.LocationSample;
+import com.example.live_backend.dto.User.LocationUpdateResponse;
+import com.example.live_backend.mapper.ActiveExperienceMapper;
+import com.example.live_backend.mapper.ActivityMapper;
+import com.example.live_backend.model.Activity.Activity;
+import com.example.live_backend.model.Experience.ActiveExperience;
+import com.example.live_backend.model.Experience.Experience;
+import com.example.live_backend.repository.Activity.ActiveActivityRepository;
+import com.example.live_backend.repository.Experience.ActiveExperienceRepository;
+import com.example.live_backend.service.Activity.ActiveActivityService;
+import com.example.live_backend.service.Event.GeofenceEvent;
+import com.example.live_backend.service.Experience.ActiveExperienceService;
+import com.example.live_backend.service.Location.GeofenceEngine;
+import com.example.live_backend.service.Location.LocationHub;
+import com.example.live_backend.service.Location.LocationRateAdvisor;
+import com.example.live_backend.service.Location.ParticipantAccessCache;
+import com.example.live_backend.service.Location.TrackStore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ActiveExperienceServiceTest {
+
+    @Mock
+    private ActiveExperienceRepository activeExperienceRepository;
+
+    @Mock
+    private ActivityMapper activityMapper;
+
+    @Mock
+    private ActiveExperienceMapper activeExperienceMapper;
+
+    @Mock
+    private ActiveActivityService activeActivityService;
+
+    @Mock
+    private ParticipantAccessCache participantAccessCache;
+
+    @Mock
+    private LocationHub locationHub;
+
+    @Mock
+    private LocationRateAdvisor locationRateAdvisor;
+
+    @Mock
+    private TrackStore trackStore;
+
+    @Mock
+    private ActiveActivityRepository activeActivityRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GeofenceEngine geofenceEngine;
+    private ActiveExperienceService activeExperienceService;
+
+    private ActiveExperience active;
+    private Activity first;
+    private Activity second;
+
+    @BeforeEach
+    void setUp() {
+        geofenceEngine = new GeofenceEngine(eventPublisher);
+        ReflectionTestUtils.setField(geofenceEngine, "radiusMeters", 10.0);
+        ReflectionTestUtils.setField(geofenceEngine, "exitMarginMeters", 15.0);
+        activeExperienceService = new ActiveExperienceService(activeExperienceRepository, activityMapper,
+            activeExperienceMapper, activeActivityService, participantAccessCache, locationHub, locationRateAdvisor,
+            trackStore, geofenceEngine, activeActivityRepository);
+
+        first = activity(100L, 40.0, -74.0);
+        second = activity(101L, 41.0, -74.0);
+        Experience experience = new Experience();
+        experience.setActivities(List.of(first, second));
+        active = new ActiveExperience();
+        active.setId(7L);
+        active.setExperience(experience);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void updateUserLocations_ShouldPublishArrivedThenDepartedForCurrentActivity() {
+        when(participantAccessCache.access(7L, 1L)).thenReturn(ParticipantAccessCache.Access.SHARING);
+        when(activeExperienceRepository.findWithActivitiesById(7L)).thenReturn(Optional.of(active));
+
+        activeExperienceService.updateUserLocations(7L, 1L, List.of(new LocationSample(40.0, -74.0, 1_000L)));
+        activeExperienceService.updateUserLocations(7L, 1L, List.of(new LocationSample(40.01, -74.0, 2_000L)));
+
+        ArgumentCaptor<GeofenceEvent> events = ArgumentCaptor.forClass(GeofenceEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+            .extracting(GeofenceEvent::getType, GeofenceEvent::getActivityId, GeofenceEvent::getUserId, GeofenceEvent::getInside)
+            .containsExactly(
+                tuple(GeofenceEvent.Type.ARRIVED, 100L, 1L, 1),
+                tuple(GeofenceEvent.Type.DEPARTED, 100L, 1L, 0));
+        // Loaded once, then served from the engine
+        verify(activeExperienceRepository, times(1)).findWithActivitiesById(7L);
+    }
+
+    @Test
+    void updateUserLocations_ShouldFeedSamplesOldestFirstAndClampFutureTimestamps() {
+        when(participantAccessCache.access(7L, 1L)).thenReturn(ParticipantAccessCache.Access.SHARING);
+        when(activeExperienceRepository.findWithActivitiesById(7L)).thenReturn(Optional.of(active));
+        when(locationHub.update(eq(7L), eq(1L), anyDouble(), anyDouble(), anyLong())).thenReturn(0.0);
+        long before = System.currentTimeMillis();
+
+        // A sample without a timestamp counts as received now, after everything already in the past
+        LocationUpdateResponse response = activeExperienceService.updateUserLocations(7L, 1L, List.of(
+            new LocationSample(30.3, -74.0, before + 60_000),
+            new LocationSample(30.2, -74.0, null),
+            new LocationSample(30.1, -74.0, 2_000L),
+            new LocationSample(30.0, -74.0, 1_000L)));
+        long after = System.currentTimeMillis();
+
+        ArgumentCaptor<Double> latitudes = ArgumentCaptor.forClass(Double.class);
+        ArgumentCaptor<Long> timestamps = ArgumentCaptor.forClass(Long.class);
+        verify(locationHub, times(4)).update(eq(7L), eq(1L), latitudes.capture(), anyDouble(), timestamps.capture());
+        assertThat(latitudes.getAllValues()).containsExactly(30.0, 30.1, 30.2, 30.3);
+        assertThat(timestamps.getAllValues().subList(0, 2)).containsExactly(1_000L, 2_000L);
+        assertThat(timestamps.getAllValues().subList(2, 4)).allSatisfy(timestamp -> assertThat(timestamp).isBetween(before, after));
+        verify(trackStore).append(eq(7L), eq(1L), longThat(timestamp -> timestamp <= after), eq(30.3), eq(-74.0));
+        assertThat(response.isAccepted()).isTrue();
+    }
+
+    @Test
+    void updateUserLocations_ShouldOnlyRecordSamplesTheHubAccepted() {
+        when(participantAccessCache.access(7L, 1L)).thenReturn(ParticipantAccessCache.Access.SHARING);
+        when(activeExperienceRepository.findWithActivitiesById(7L)).thenReturn(Optional.of(active));
+        when(locationHub.update(eq(7L), eq(1L), anyDouble(), anyDouble(), anyLong())).thenReturn(-1.0);
+
+        LocationUpdateResponse response = activeExperienceService.updateUserLocations(7L, 1L,
+            List.of(new LocationSample(30.0, -74.0, 1_000L)));
+
+        assertThat(response.isAccepted()).isFalse();
+        verify(trackStore, never()).append(any(), any(), anyLong(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void updateUserLocations_ShouldRejectBatchWithCoordinatesOutOfRange() {
+        List<LocationSample> badLatitude = List.of(
+            new LocationSample(40.0, -74.0, 1_000L),
+            new LocationSample(91.0, -74.0, 2_000L));
+        List<LocationSample> badLongitude = List.of(new LocationSample(40.0, 250.0, 1_000L));
+        List<LocationSample> notANumber = List.of(new LocationSample(Double.NaN, -74.0, 1_000L));
+
+        assertThrows(RuntimeException.class, () -> activeExperienceService.updateUserLocations(7L, 1L, badLatitude));
+        assertThrows(RuntimeException.class, () -> activeExperienceService.updateUserLocations(7L, 1L, badLongitude));
+        assertThrows(RuntimeException.class, () -> activeExperienceService.updateUserLocation(7L, 1L, 40.0, -181.0));
+        assertThrows(RuntimeException.class, () -> activeExperienceService.updateUserLocations(7L, 1L, notANumber));
+
+        verify(locationHub, never()).update(any(), any(), anyDouble(), anyDouble(), anyLong());
+        verify(trackStore, never()).append(any(), any(), anyLong(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void arriveAtActivity_ShouldStartOnlyTheCurrentActivityOnce() {
+        when(activeExperienceRepository.findById(7L)).thenReturn(Optional.of(active));
+        when(activeActivityRepository.existsByActiveExperienceIdAndActivityId(7L, 100L)).thenReturn(false, true);
+
+        activeExperienceService.arriveAtActivity(7L, 100L);
+        activeExperienceService.arriveAtActivity(7L, 100L);
+        activeExperienceService.arriveAtActivity(7L, 101L);
+
+        verify(activeActivityService, times(1)).startActivity(active, first);
+    }
+
+    @Test
+    void departFromActivity_ShouldAdvanceAndMoveFenceOnlyAfterCommit() {
+        geofenceEngine.setTarget(7L, 100L, 40.0, -74.0);
+        when(activeExperienceRepository.findById(7L)).thenReturn(Optional.of(active));
+        when(activeActivityRepository.existsByActiveExperienceIdAndActivityId(7L, 100L)).thenReturn(true);
+        when(activeExperienceRepository.save(active)).thenReturn(active);
+        TransactionSynchronizationManager.initSynchronization();
+
+        activeExperienceService.departFromActivity(7L, 100L);
+
+        assertThat(active.getCurrentActivityIndex()).isEqualTo(1);
+        // Still fenced around the first activity until the commit
+        geofenceEngine.evaluate(7L, 1L, 41.0, -74.0, 1);
+        verify(eventPublisher, never()).publishEvent(any(GeofenceEvent.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        geofenceEngine.evaluate(7L, 1L, 41.0, -74.0, 2);
+
+        ArgumentCaptor<GeofenceEvent> events = ArgumentCaptor.forClass(GeofenceEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        assertThat(events.getValue().getActivityId()).isEqualTo(101L);
+    }
+
+    @Test
+    void departFromActivity_ShouldNotCompleteActivityThatWasNeverStarted() {
+        when(activeExperienceRepository.findById(7L)).thenReturn(Optional.of(active));
+        when(activeActivityRepository.existsByActiveExperienceIdAndActivityId(7L, 100L)).thenReturn(false);
+
+        activeExperienceService.departFromActivity(7L, 100L);
+
+        assertThat(active.getCurrentActivityIndex()).isZero();
+        verify(activeExperienceRepository, never()).save(any());
+    }
+
+    @Test
+    void arriveAtActivity_ShouldRepointStaleFenceAtCurrentActivity() {
+        geofenceEngine.setTarget(7L, 100L, 40.0, -74.0);
+        active.setCurrentActivityIndex(1);
+        when(activeExperienceRepository.findById(7L)).thenReturn(Optional.of(active));
+
+        activeExperienceService.arriveAtActivity(7L, 100L);
+        geofenceEngine.evaluate(7L, 1L, 41.0, -74.0, 1);
+
+        verify(activeActivityService, never()).startActivity(any(), any());
+        ArgumentCaptor<GeofenceEvent> events = ArgumentCaptor.forClass(GeofenceEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        assertThat(events.getValue().getActivityId()).isEqualTo(101L);
+    }
+
+    private static Activity activity(Long id, double latitude, double longitude) {
+        Activity activity = new Activity();
+        activity.setId(id);
+        activity.setTitle("Activity " + id);
+        activity.setLatitude(latitude);
+        activity.setLongitude(longitude);
+        return activity;
+    }
+}
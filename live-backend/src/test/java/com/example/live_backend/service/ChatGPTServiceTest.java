@@ -1,14 +1,17 @@
 package com.example.live_backend.service;
 
 import com.example.live_backend.dto.Activity.ActivityResponse;
+import com.example.live_backend.service.Chat.ConversationStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.service.OpenAiService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -40,6 +43,13 @@ public class ChatGPTServiceTest {
     void setUp() {
         ReflectionTestUtils.setField(chatGPTService, "model", "gpt-3.5-turbo");
         ReflectionTestUtils.setField(chatGPTService, "objectMapper", objectMapper);
+
+        ConversationStore conversationStore = new ConversationStore(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(conversationStore, "maxTokens", 3000);
+        ReflectionTestUtils.setField(conversationStore, "ttlMillis", 1_800_000L);
+        ReflectionTestUtils.setField(conversationStore, "maxSessions", 100);
+        ReflectionTestUtils.invokeMethod(conversationStore, "init");
+        ReflectionTestUtils.setField(chatGPTService, "conversationStore", conversationStore);
         
         startDate = LocalDateTime.now();
         endDate = startDate.plusDays(1);
@@ -62,7 +72,7 @@ public class ChatGPTServiceTest {
         mockChatGPTResponse(mockResponse);
 
         List<ActivityResponse> suggestions = chatGPTService.generateActivitiesSuggestions( 
-                "Plan a day in the city", startDate, endDate, "New York");  
+                1L, "default", "Plan a day in the city", startDate, endDate, "New York");  
 
         assertThat(suggestions).hasSize(1);
         assertThat(suggestions.get(0).getTitle()).isEqualTo("Morning Coffee");
@@ -96,7 +106,7 @@ public class ChatGPTServiceTest {
         mockChatGPTResponse(mockResponse);
 
         List<ActivityResponse> suggestions = chatGPTService.generateActivitiesSuggestions(
-                "Plan a business day", startDate, endDate, "New York");
+                1L, "default", "Plan a business day", startDate, endDate, "New York");
 
         assertThat(suggestions).hasSize(2);
         assertThat(suggestions.get(0).getTitle()).isEqualTo("Morning Coffee");
@@ -109,7 +119,7 @@ public class ChatGPTServiceTest {
         mockChatGPTResponse(invalidResponse);
 
         assertThrows(RuntimeException.class, () -> {
-            chatGPTService.generateActivitiesSuggestions("Plan a day", startDate, endDate, "New York");
+            chatGPTService.generateActivitiesSuggestions(1L, "default", "Plan a day", startDate, endDate, "New York");
         });
     }
 
@@ -119,7 +129,7 @@ public class ChatGPTServiceTest {
         mockChatGPTResponse(emptyResponse);
 
         List<ActivityResponse> suggestions = chatGPTService.generateActivitiesSuggestions(
-                "Plan a day", startDate, endDate, "New York");
+                1L, "default", "Plan a day", startDate, endDate, "New York");
 
         assertThat(suggestions).isEmpty();
     }
@@ -141,7 +151,7 @@ public class ChatGPTServiceTest {
         mockChatGPTResponse(mockResponse);
 
         List<ActivityResponse> refinedActivities = chatGPTService.refineExperience(
-                currentActivities, "Make it longer");
+                1L, "default", currentActivities, "Make it longer");
 
         assertThat(refinedActivities).hasSize(1);
         assertThat(refinedActivities.get(0).getTitle()).isEqualTo("Refined Activity");
@@ -167,7 +177,7 @@ public class ChatGPTServiceTest {
         mockChatGPTResponse(mockResponse);
 
         List<ActivityResponse> refinedActivities = chatGPTService.refineExperience(
-                currentActivities, "Update description only");
+                1L, "default", currentActivities, "Update description only");
 
         assertThat(refinedActivities).hasSize(1);
         assertThat(refinedActivities.get(0).getStartTime())
@@ -183,10 +193,44 @@ public class ChatGPTServiceTest {
             .thenThrow(new RuntimeException("API Error"));
 
         assertThrows(RuntimeException.class, () -> {
-            chatGPTService.refineExperience(currentActivities, "Make changes");
+            chatGPTService.refineExperience(1L, "default", currentActivities, "Make changes");
         });
     }
 
+    @Test
+    void generateScheduleSuggestions_KeepsSeparateHistoryPerUser() {
+        mockChatGPTResponse("[]");
+
+        chatGPTService.generateActivitiesSuggestions(1L, "default", "Plan a day", startDate, endDate, "New York");
+        chatGPTService.generateActivitiesSuggestions(2L, "default", "Plan a night", startDate, endDate, "Boston");
+        chatGPTService.generateActivitiesSuggestions(1L, "default", "Add lunch", startDate, endDate, "New York");
+
+        ArgumentCaptor<ChatCompletionRequest> requests = ArgumentCaptor.forClass(ChatCompletionRequest.class);
+        verify(openAiService, times(3)).createChatCompletion(requests.capture());
+        // Each request carries its own copy of the history as it was then
+        assertThat(requests.getAllValues().get(1).getMessages())
+            .extracting(ChatMessage::getRole)
+            .containsExactly("system", "user");
+        assertThat(requests.getAllValues().get(2).getMessages())
+            .extracting(ChatMessage::getRole)
+            .containsExactly("system", "user", "assistant", "user");
+        assertThat(requests.getAllValues().get(2).getMessages().get(0).getContent()).contains("New York");
+    }
+
+    @Test
+    void recommendActivities_ShouldKeepNoHistoryForAnonymousCallers() {
+        mockChatGPTResponse("[]");
+
+        chatGPTService.recommendActivities(null, "default", "Museum");
+        chatGPTService.recommendActivities(null, "default", "Park");
+
+        ArgumentCaptor<ChatCompletionRequest> requests = ArgumentCaptor.forClass(ChatCompletionRequest.class);
+        verify(openAiService, times(2)).createChatCompletion(requests.capture());
+        assertThat(requests.getAllValues().get(1).getMessages())
+            .singleElement()
+            .satisfies(message -> assertThat(message.getContent()).contains("Park"));
+    }
+
     private List<ActivityResponse> createSampleActivities() {
         ActivityResponse activity = new ActivityResponse();
         activity.setTitle("Original Activity");
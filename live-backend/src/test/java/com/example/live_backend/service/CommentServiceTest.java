@@ -0,0 +1,204 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.dto.Post.CommentPageResponse;
+import com.example.live_backend.dto.Post.CommentRequest;
+import com.example.live_backend.dto.Post.CommentResponse;
+import com.example.live_backend.mapper.CommentMapper;
+import com.example.live_backend.model.Social.Comment;
+import com.example.live_backend.model.Social.Post;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Social.CommentRepository;
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.service.Feed.FeedCursor;
+import com.example.live_backend.service.Feed.TrendingEngine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentServiceTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentMapper commentMapper;
+
+    @Mock
+    private TrendingEngine trendingEngine;
+
+    @InjectMocks
+    private CommentService commentService;
+
+    private final LocalDateTime noon = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private User postAuthor;
+    private User commenter;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        postAuthor = user(1L);
+        commenter = user(2L);
+        post = new Post();
+        post.setId(10L);
+        post.setUser(postAuthor);
+        lenient().when(commentMapper.toResponse(any(Comment.class), anyLong())).thenAnswer(invocation -> {
+            CommentResponse response = new CommentResponse();
+            response.setId(invocation.<Comment>getArgument(0).getId());
+            return response;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getComments_ShouldReturnCursorAtLastCommentShownWhenMoreRemain() {
+        // Two comments share a timestamp, so the cursor has to carry the id too
+        when(commentRepository.findThread(10L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(comment(101L, noon), comment(102L, noon), comment(103L, noon.plusSeconds(1))));
+
+        CommentPageResponse page = commentService.getComments(10L, null, 2);
+
+        assertThat(page.getComments()).extracting(CommentResponse::getId).containsExactly(101L, 102L);
+        FeedCursor next = FeedCursor.decode(page.getNextCursor());
+        assertThat(next.getCreatedAt()).isEqualTo(noon);
+        assertThat(next.getId()).isEqualTo(102L);
+    }
+
+    @Test
+    void getComments_ShouldResumeStrictlyAfterCursorKey() {
+        String cursor = new FeedCursor(noon, 102L).encode();
+        when(commentRepository.findThreadAfter(10L, noon, 102L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(comment(103L, noon.plusSeconds(1))));
+
+        CommentPageResponse page = commentService.getComments(10L, cursor, 2);
+
+        assertThat(page.getComments()).extracting(CommentResponse::getId).containsExactly(103L);
+        assertThat(page.getNextCursor()).isNull();
+        verify(commentRepository, never()).findThread(anyLong(), any());
+    }
+
+    @Test
+    void getComments_ShouldEndWhenPageIsExactlyFull() {
+        when(commentRepository.findThread(10L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(comment(101L, noon), comment(102L, noon)));
+
+        CommentPageResponse page = commentService.getComments(10L, null, 2);
+
+        assertThat(page.getComments()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getComments_ShouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> commentService.getComments(10L, "bm90LWEtY3Vyc29y", 2));
+    }
+
+    @Test
+    void addComment_ShouldIncrementCommentCount() {
+        CommentRequest request = new CommentRequest();
+        request.setContent("Nice");
+        Comment created = comment(101L, noon);
+        when(postRepository.adjustCommentCount(10L, 1)).thenReturn(1);
+        when(postRepository.getReferenceById(10L)).thenReturn(post);
+        when(commentMapper.toEntity(request, post, commenter)).thenReturn(created);
+        when(commentRepository.save(created)).thenReturn(created);
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        commentService.addComment(10L, commenter, request);
+
+        verify(postRepository).adjustCommentCount(10L, 1);
+        // Trending only hears about it once the comment is committed
+        verify(trendingEngine, never()).recordComment(anyLong());
+        commit();
+        verify(trendingEngine).recordComment(10L);
+    }
+
+    @Test
+    void addComment_ShouldNotSaveWhenPostIsMissing() {
+        when(postRepository.adjustCommentCount(10L, 1)).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> commentService.addComment(10L, commenter, new CommentRequest()));
+
+        verify(commentRepository, never()).save(any());
+        verify(trendingEngine, never()).recordComment(anyLong());
+    }
+
+    @Test
+    void deleteComment_ShouldDecrementCommentCountForPostAuthor() {
+        Comment comment = comment(101L, noon);
+        when(commentRepository.findById(101L)).thenReturn(Optional.of(comment));
+        TransactionSynchronizationManager.initSynchronization();
+
+        commentService.deleteComment(10L, 101L, postAuthor.getId());
+
+        verify(commentRepository).delete(comment);
+        verify(postRepository).adjustCommentCount(10L, -1);
+        verify(trendingEngine, never()).recordCommentDeleted(anyLong());
+        commit();
+        verify(trendingEngine).recordCommentDeleted(10L);
+    }
+
+    @Test
+    void deleteComment_ShouldLeaveCountAloneWhenNotAllowed() {
+        when(commentRepository.findById(101L)).thenReturn(Optional.of(comment(101L, noon)));
+
+        assertThrows(RuntimeException.class, () -> commentService.deleteComment(10L, 101L, 3L));
+        assertThrows(RuntimeException.class, () -> commentService.deleteComment(11L, 101L, commenter.getId()));
+
+        verify(commentRepository, never()).delete(any());
+        verify(postRepository, never()).adjustCommentCount(anyLong(), anyInt());
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private Comment comment(Long id, LocalDateTime createdAt) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setPost(post);
+        comment.setUser(commenter);
+        comment.setContent("Comment " + id);
+        comment.setCreatedAt(createdAt);
+        return comment;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+}
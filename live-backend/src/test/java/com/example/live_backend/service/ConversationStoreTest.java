@@ -0,0 +1,140 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Chat.ConversationStore;
+import com.theokanning.openai.completion.chat.ChatMessage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConversationStoreTest {
+
+    private MeterRegistry meterRegistry;
+    private ConversationStore conversationStore;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        conversationStore = new ConversationStore(meterRegistry);
+        // About 100 characters of content
+        ReflectionTestUtils.setField(conversationStore, "maxTokens", 40);
+        ReflectionTestUtils.setField(conversationStore, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(conversationStore, "maxSessions", 2);
+        ReflectionTestUtils.invokeMethod(conversationStore, "init");
+    }
+
+    @Test
+    void append_ShouldDropOldestMessagesButKeepSystemAndNewest() {
+        conversationStore.append(1L, "s", () -> new ChatMessage("system", "x".repeat(20)), user("first"));
+        conversationStore.append(1L, "s", null, user("y".repeat(60)));
+        List<ChatMessage> history = conversationStore.append(1L, "s", null, user("z".repeat(60)));
+
+        assertThat(history).extracting(ChatMessage::getRole).containsExactly("system", "user");
+        assertThat(history.get(1).getContent()).startsWith("z");
+        assertThat(meterRegistry.get("chat.conversations.trimmed.messages").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void append_ShouldSeparateUsersAndSessions() {
+        conversationStore.append(1L, "a", () -> new ChatMessage("system", "hi"), user("one"));
+        List<ChatMessage> other = conversationStore.append(1L, "b", () -> new ChatMessage("system", "hi"), user("two"));
+
+        assertThat(other).extracting(ChatMessage::getContent).containsExactly("hi", "two");
+        assertThat(conversationStore.size()).isEqualTo(2);
+    }
+
+    @Test
+    void append_ShouldEvictLeastRecentlyUsedSession() {
+        conversationStore.append(1L, "s", null, user("one"));
+        conversationStore.append(2L, "s", null, user("two"));
+        conversationStore.append(1L, "s", null, user("again"));
+        conversationStore.append(3L, "s", null, user("three"));
+
+        assertThat(conversationStore.size()).isEqualTo(2);
+        assertThat(conversationStore.append(2L, "s", null, user("back"))).hasSize(1);
+        assertThat(meterRegistry.get("chat.conversations.evictions").tag("reason", "lru").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void evictExpired_ShouldDropIdleSessions() {
+        ReflectionTestUtils.setField(conversationStore, "ttlMillis", -1L);
+        conversationStore.append(1L, "s", null, user("one"));
+
+        conversationStore.evictExpired();
+
+        assertThat(conversationStore.size()).isZero();
+        assertThat(meterRegistry.get("chat.conversations.evictions").tag("reason", "ttl").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void append_ShouldKeepNoHistoryForAnonymousCallers() {
+        conversationStore.append(null, "s", () -> new ChatMessage("system", "hi"), user("one"));
+        List<ChatMessage> history = conversationStore.append(null, "s", () -> new ChatMessage("system", "hi"), user("two"));
+
+        assertThat(history).extracting(ChatMessage::getContent).containsExactly("hi", "two");
+        assertThat(conversationStore.appendReply(null, "s", history.get(1), new ChatMessage("assistant", "ok"))).isFalse();
+        assertThat(conversationStore.size()).isZero();
+    }
+
+    @Test
+    void appendReply_ShouldDropReplyWhenSessionIsGone() {
+        ChatMessage question = user("question");
+        conversationStore.append(1L, "s", null, question);
+        conversationStore.clear(1L, "s");
+
+        assertThat(conversationStore.appendReply(1L, "s", question, new ChatMessage("assistant", "answer"))).isFalse();
+        assertThat(conversationStore.size()).isZero();
+    }
+
+    @Test
+    void appendReply_ShouldAddToLiveSession() {
+        ChatMessage question = user("question");
+        conversationStore.append(1L, "s", null, question);
+
+        assertThat(conversationStore.appendReply(1L, "s", question, new ChatMessage("assistant", "answer"))).isTrue();
+        assertThat(conversationStore.append(1L, "s", null, user("next")))
+            .extracting(ChatMessage::getRole)
+            .containsExactly("user", "assistant", "user");
+    }
+
+    @Test
+    void appendReply_ShouldFollowItsQuestionWhenANewerRequestAppendedFirst() {
+        ChatMessage first = user("first");
+        conversationStore.append(1L, "s", null, first);
+        ChatMessage second = user("second");
+        conversationStore.append(1L, "s", null, second);
+
+        conversationStore.appendReply(1L, "s", second, new ChatMessage("assistant", "to second"));
+        conversationStore.appendReply(1L, "s", first, new ChatMessage("assistant", "to first"));
+
+        assertThat(conversationStore.append(1L, "s", null, user("next")))
+            .extracting(ChatMessage::getContent)
+            .containsExactly("first", "to first", "second", "to second", "next");
+    }
+
+    @Test
+    void appendReply_ShouldDropReplyWhenSessionWasReplaced() {
+        ReflectionTestUtils.setField(conversationStore, "maxSessions", 1);
+        ChatMessage question = user("question");
+        conversationStore.append(1L, "s", null, question);
+        // Evicted and started over while the request was out
+        conversationStore.append(2L, "s", null, user("other"));
+        conversationStore.append(1L, "s", null, user("fresh"));
+
+        assertThat(conversationStore.appendReply(1L, "s", question, new ChatMessage("assistant", "answer"))).isFalse();
+        assertThat(conversationStore.append(1L, "s", null, user("next")))
+            .extracting(ChatMessage::getContent)
+            .containsExactly("fresh", "next");
+    }
+
+    private static ChatMessage user(String content) {
+        return new ChatMessage("user", content);
+    }
+}
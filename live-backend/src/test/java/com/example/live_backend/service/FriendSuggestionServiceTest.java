@@ -0,0 +1,132 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.dto.User.UserResponse;
+import com.example.live_backend.mapper.UserMapper;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Graph.SocialGraphIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+public class FriendSuggestionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    private SocialGraphIndex socialGraphIndex;
+
+    @BeforeEach
+    void setUp() {
+        socialGraphIndex = new SocialGraphIndex(jdbcTemplate);
+        ReflectionTestUtils.setField(socialGraphIndex, "compactThreshold", 1000);
+        // Friends of 1: 2, 3, 4. Their friends: 5 (via 2, 3, 4), 6 (via 2, 3), 7 (via 4), 8 (via 3)
+        List<long[]> edges = new ArrayList<>();
+        friends(edges, 1, 2);
+        friends(edges, 1, 3);
+        friends(edges, 1, 4);
+        friends(edges, 2, 5);
+        friends(edges, 3, 5);
+        friends(edges, 4, 5);
+        friends(edges, 2, 6);
+        friends(edges, 3, 6);
+        friends(edges, 4, 7);
+        friends(edges, 3, 8);
+        long[] followers = new long[edges.size()];
+        long[] followees = new long[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            followers[i] = edges.get(i)[0];
+            followees[i] = edges.get(i)[1];
+        }
+        socialGraphIndex.rebuild(followers, followees, edges.size());
+
+        lenient().when(userRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<User> users = new ArrayList<>();
+            for (Long id : invocation.<List<Long>>getArgument(0)) {
+                User user = new User();
+                user.setId(id);
+                users.add(user);
+            }
+            return users;
+        });
+        lenient().when(userMapper.toResponse(any(User.class))).thenAnswer(invocation -> {
+            UserResponse response = new UserResponse();
+            response.setId(invocation.<User>getArgument(0).getId());
+            return response;
+        });
+    }
+
+    @Test
+    void getSuggestions_ShouldRankFriendsOfFriendsByMutualCount() {
+        List<UserResponse> suggestions = service(256).getSuggestions(1L, 10);
+
+        // Ties go to the lower id; 1 itself and its friends are left out
+        assertThat(suggestions)
+            .extracting(UserResponse::getId, UserResponse::getMutualFriendCount)
+            .containsExactly(tuple(5L, 3), tuple(6L, 2), tuple(7L, 1), tuple(8L, 1));
+    }
+
+    @Test
+    void getSuggestions_ShouldSkipUsersAlreadyFollowed() {
+        socialGraphIndex.addFollow(1L, 6L);
+
+        List<UserResponse> suggestions = service(256).getSuggestions(1L, 10);
+
+        assertThat(suggestions).extracting(UserResponse::getId).containsExactly(5L, 7L, 8L);
+    }
+
+    @Test
+    void getSuggestions_ShouldGiveTheSameRankingWhenMergingInParallel() {
+        List<UserResponse> sequential = service(256).getSuggestions(1L, 10);
+        List<UserResponse> parallel = service(1).getSuggestions(1L, 10);
+
+        assertThat(parallel)
+            .extracting(UserResponse::getId, UserResponse::getMutualFriendCount)
+            .containsExactlyElementsOf(sequential.stream()
+                .map(response -> tuple(response.getId(), response.getMutualFriendCount()))
+                .toList());
+    }
+
+    @Test
+    void getSuggestions_ShouldHonourLimitAndHandleUsersWithoutFriends() {
+        FriendSuggestionService service = service(256);
+
+        assertThat(service.getSuggestions(1L, 2)).extracting(UserResponse::getId).containsExactly(5L, 6L);
+        assertThat(service.getSuggestions(99L, 10)).isEmpty();
+    }
+
+    private FriendSuggestionService service(int parallelThreshold) {
+        FriendSuggestionService service = new FriendSuggestionService(socialGraphIndex, userRepository, userMapper);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(service, "maxUsers", 100);
+        ReflectionTestUtils.setField(service, "parallelThreshold", parallelThreshold);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    private static void friends(List<long[]> edges, long a, long b) {
+        edges.add(new long[] { a, b });
+        edges.add(new long[] { b, a });
+    }
+}
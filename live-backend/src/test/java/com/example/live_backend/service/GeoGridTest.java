@@ -0,0 +1,79 @@
+package com.example.live_backend.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.example.live_backend.service.Location.GeoGrid;
+import com.example.live_backend.service.Location.GeoMath;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Offset.offset;
+
+public class GeoGridTest {
+    private static final int POINTS = 20_000;
+
+    private final long[] ids = new long[POINTS];
+    private final byte[] kinds = new byte[POINTS];
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private final GeoGrid grid;
+
+    GeoGridTest() {
+        Random random = new Random(11);
+        for (int i = 0; i < POINTS; i++) {
+            ids[i] = i + 1;
+            kinds[i] = (byte) (i % 2);
+            latitudes[i] = 51.5 + random.nextGaussian() * 0.2;
+            longitudes[i] = -0.12 + random.nextGaussian() * 0.2;
+        }
+        grid = GeoGrid.build(0.01, ids, kinds, latitudes, longitudes, POINTS);
+    }
+
+    @Test
+    void withinRadius_ShouldMatchBruteForce() {
+        Random random = new Random(5);
+        for (int q = 0; q < 50; q++) {
+            double lat = 51.5 + random.nextGaussian() * 0.2;
+            double lon = -0.12 + random.nextGaussian() * 0.2;
+            double radius = q % 2 == 0 ? 300 : 3000;
+
+            List<GeoGrid.Hit> hits = grid.withinRadius(lat, lon, radius, 0b11, Integer.MAX_VALUE);
+
+            long expected = Arrays.stream(distances(lat, lon, -1)).filter(d -> d <= radius).count();
+            assertThat(hits).hasSize((int) expected);
+            assertThat(hits).isSortedAccordingTo((a, b) -> Double.compare(a.distanceMeters, b.distanceMeters));
+        }
+    }
+
+    @Test
+    void nearest_ShouldReturnExactKNearestOfRequestedKind() {
+        List<GeoGrid.Hit> hits = grid.nearest(51.51, -0.1, 10, 50_000, 1L << 1);
+
+        double[] expected = distances(51.51, -0.1, 1);
+        Arrays.sort(expected);
+        assertThat(hits).hasSize(10).allSatisfy(hit -> assertThat(hit.kind).isEqualTo(1));
+        for (int i = 0; i < hits.size(); i++) {
+            assertThat(hits.get(i).distanceMeters).isCloseTo(expected[i], offset(1e-6));
+        }
+    }
+
+    @Test
+    void nearest_ShouldStopAtMaxRadius() {
+        assertThat(grid.nearest(0, 0, 5, 10_000, 0b11)).isEmpty();
+    }
+
+    // Distance to every point of the given kind, or of any kind for -1
+    private double[] distances(double lat, double lon, int kind) {
+        double[] distances = new double[POINTS];
+        int count = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (kind < 0 || kinds[i] == kind) {
+                distances[count++] = GeoMath.haversineMeters(lat, lon, latitudes[i], longitudes[i]);
+            }
+        }
+        return Arrays.copyOf(distances, count);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Event.GeofenceEvent;
+import com.example.live_backend.service.Location.GeofenceEngine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class GeofenceEngineTest {
+
+    // About 1.11m of latitude
+    private static final double METER = 0.00001;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private GeofenceEngine geofenceEngine;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(geofenceEngine, "radiusMeters", 10.0);
+        ReflectionTestUtils.setField(geofenceEngine, "exitMarginMeters", 15.0);
+        geofenceEngine.setTarget(7L, 100L, 40.0, -74.0);
+    }
+
+    @Test
+    void evaluate_ShouldArriveInsideRadiusAndDepartOnlyPastExitMargin() {
+        geofenceEngine.evaluate(7L, 1L, 40.0 + 50 * METER, -74.0, 1);
+        geofenceEngine.evaluate(7L, 1L, 40.0 + 5 * METER, -74.0, 2);
+        // Jitter just outside the radius stays inside
+        geofenceEngine.evaluate(7L, 1L, 40.0 + 15 * METER, -74.0, 3);
+        geofenceEngine.evaluate(7L, 1L, 40.0 + 5 * METER, -74.0, 4);
+        geofenceEngine.evaluate(7L, 1L, 40.0 + 30 * METER, -74.0, 5);
+
+        ArgumentCaptor<GeofenceEvent> events = ArgumentCaptor.forClass(GeofenceEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+            .extracting(GeofenceEvent::getType, GeofenceEvent::getActivityId, GeofenceEvent::getTimestampMillis)
+            .containsExactly(
+                tuple(GeofenceEvent.Type.ARRIVED, 100L, 2L),
+                tuple(GeofenceEvent.Type.DEPARTED, 100L, 5L));
+    }
+
+    @Test
+    void evaluate_ShouldCountParticipantsStillInside() {
+        geofenceEngine.evaluate(7L, 1L, 40.0, -74.0, 1);
+        geofenceEngine.evaluate(7L, 2L, 40.0, -74.0 + 3 * METER, 2);
+        geofenceEngine.evaluate(7L, 1L, 40.1, -74.0, 3);
+        geofenceEngine.evaluate(7L, 2L, 40.1, -74.0, 4);
+
+        ArgumentCaptor<GeofenceEvent> events = ArgumentCaptor.forClass(GeofenceEvent.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        List<GeofenceEvent> sent = events.getAllValues();
+        assertThat(sent).extracting(GeofenceEvent::getInside).containsExactly(1, 2, 1, 0);
+    }
+
+    @Test
+    void setTarget_ShouldResetWhoIsInsideAndIgnoreClearedFences() {
+        geofenceEngine.evaluate(7L, 1L, 40.0, -74.0, 1);
+        geofenceEngine.setTarget(7L, null, 0, 0);
+        geofenceEngine.evaluate(7L, 1L, 45.0, -74.0, 2);
+        geofenceEngine.evaluate(8L, 1L, 40.0, -74.0, 3);
+
+        verify(eventPublisher, times(1)).publishEvent(any(GeofenceEvent.class));
+        assertThat(geofenceEngine.isKnown(7L)).isTrue();
+        assertThat(geofenceEngine.isKnown(8L)).isFalse();
+    }
+
+    @Test
+    void evaluate_ShouldNotPublishWhileStayingOutside() {
+        geofenceEngine.evaluate(7L, 1L, 41.0, -74.0, 1);
+        geofenceEngine.evaluate(7L, 1L, 40.0 + 11 * METER, -74.0, 2);
+
+        verify(eventPublisher, never()).publishEvent(any(GeofenceEvent.class));
+    }
+}
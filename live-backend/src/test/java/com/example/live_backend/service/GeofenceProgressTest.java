@@ -0,0 +1,80 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Event.GeofenceEvent;
+import com.example.live_backend.service.Experience.ActiveExperienceService;
+import com.example.live_backend.service.Experience.GeofenceProgress;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class GeofenceProgressTest {
+
+    @Mock
+    private ActiveExperienceService activeExperienceService;
+
+    @Test
+    void onGeofence_ShouldStartOnArrivalAndCompleteWhenLastParticipantLeaves() {
+        GeofenceProgress progress = progress(true);
+
+        progress.onGeofence(event(GeofenceEvent.Type.ARRIVED, 1L, 1));
+        progress.onGeofence(event(GeofenceEvent.Type.ARRIVED, 2L, 2));
+        progress.onGeofence(event(GeofenceEvent.Type.DEPARTED, 1L, 1));
+        progress.onGeofence(event(GeofenceEvent.Type.DEPARTED, 2L, 0));
+        drain(progress);
+
+        InOrder order = inOrder(activeExperienceService);
+        order.verify(activeExperienceService, times(2)).arriveAtActivity(7L, 100L);
+        order.verify(activeExperienceService).departFromActivity(7L, 100L);
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void onGeofence_ShouldKeepGoingAfterAFailedStep() {
+        doThrow(new RuntimeException("ActiveExperience not found"))
+            .when(activeExperienceService).arriveAtActivity(7L, 100L);
+        GeofenceProgress progress = progress(true);
+
+        progress.onGeofence(event(GeofenceEvent.Type.ARRIVED, 1L, 1));
+        progress.onGeofence(event(GeofenceEvent.Type.DEPARTED, 1L, 0));
+        drain(progress);
+
+        verify(activeExperienceService).departFromActivity(7L, 100L);
+    }
+
+    @Test
+    void onGeofence_ShouldDoNothingWhenAutoProgressIsOff() {
+        GeofenceProgress progress = progress(false);
+
+        progress.onGeofence(event(GeofenceEvent.Type.ARRIVED, 1L, 1));
+        progress.onGeofence(event(GeofenceEvent.Type.DEPARTED, 1L, 0));
+        drain(progress);
+
+        verifyNoInteractions(activeExperienceService);
+    }
+
+    private GeofenceProgress progress(boolean autoProgress) {
+        GeofenceProgress progress = new GeofenceProgress(activeExperienceService);
+        ReflectionTestUtils.setField(progress, "autoProgress", autoProgress);
+        return progress;
+    }
+
+    // Waits for the worker to run everything handed to it
+    private static void drain(GeofenceProgress progress) {
+        ReflectionTestUtils.invokeMethod(progress, "stop");
+    }
+
+    private static GeofenceEvent event(GeofenceEvent.Type type, Long userId, int inside) {
+        return new GeofenceEvent(type, 7L, 100L, userId, 0L, inside);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Feed.FeedCursor;
+import com.example.live_backend.service.Feed.HomeTimelineCache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class HomeTimelineCacheTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private HomeTimelineCache homeTimelineCache;
+
+    private final LocalDateTime noon = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(homeTimelineCache, "capacity", 10);
+        ReflectionTestUtils.setField(homeTimelineCache, "maxUsers", 100);
+        ReflectionTestUtils.setField(homeTimelineCache, "fanoutMaxFollowers", 5000L);
+        ReflectionTestUtils.invokeMethod(homeTimelineCache, "init");
+    }
+
+    @Test
+    void getPage_ShouldOrderLikeTheDatabaseCursor() {
+        // Post 3 was created before post 2, so it comes after it despite the higher id
+        when(postRepository.findFollowingFeedKeys(1L, PageRequest.of(0, 10)))
+            .thenReturn(List.of(key(2L, noon.plusMinutes(2)), key(3L, noon.plusMinutes(1)), key(1L, noon)));
+
+        assertThat(homeTimelineCache.getPage(1L, null, 10)).containsExactly(2L, 3L, 1L);
+        assertThat(homeTimelineCache.getPage(1L, new FeedCursor(noon.plusMinutes(2), 2L), 10)).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void getPage_ShouldKeepPostsFannedOutWhileTimelineLoads() {
+        List<Long> concurrentRead = new ArrayList<>();
+        when(userRepository.countFollowers(7L)).thenReturn(1L);
+        when(userRepository.findFollowerIds(7L)).thenReturn(List.of(1L));
+        when(postRepository.findFollowingFeedKeys(1L, PageRequest.of(0, 10))).thenAnswer(invocation -> {
+            // Committed after the query's snapshot, fanned out before the ring is filled
+            homeTimelineCache.fanOut(7L, 5L, noon.plusMinutes(5));
+            // Another request while loading goes to the database instead of a half-filled ring
+            List<Long> page = homeTimelineCache.getPage(1L, null, 10);
+            concurrentRead.add(page == null ? -1L : page.size());
+            return List.of(key(4L, noon.plusMinutes(4)));
+        });
+
+        List<Long> page = homeTimelineCache.getPage(1L, null, 10);
+
+        assertThat(page).containsExactly(5L, 4L);
+        assertThat(concurrentRead).containsExactly(-1L);
+        assertThat(homeTimelineCache.getPage(1L, null, 10)).containsExactly(5L, 4L);
+        verify(postRepository, times(1)).findFollowingFeedKeys(any(), any());
+    }
+
+    @Test
+    void getPage_ShouldMergePulledAuthorsByCreatedAt() {
+        when(userRepository.countFollowers(9L)).thenReturn(10_000L);
+        homeTimelineCache.fanOut(9L, 100L, noon);
+        when(postRepository.findFollowingFeedKeys(1L, PageRequest.of(0, 10)))
+            .thenReturn(List.of(key(2L, noon.plusMinutes(2)), key(1L, noon)));
+        when(userRepository.findFollowedIdsAmong(1L, List.of(9L))).thenReturn(List.of(9L));
+        // A high fan-out author's older post with a higher id
+        when(postRepository.findFeedKeysByAuthors(List.of(9L), PageRequest.of(0, 10)))
+            .thenReturn(List.of(key(100L, noon.plusMinutes(1))));
+
+        assertThat(homeTimelineCache.getPage(1L, null, 10)).containsExactly(2L, 100L, 1L);
+    }
+
+    private static PostRepository.FeedKey key(Long id, LocalDateTime createdAt) {
+        return new PostRepository.FeedKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.service.Feed.LikeCounterStore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeCounterStoreTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LikeCounterStore likeCounterStore;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likeCounterStore, "maxTrackedPosts", 100);
+    }
+
+    @Test
+    void like_ShouldCountEachUserOnceAndLoadLikersOnlyOnce() {
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findLikerIds(1L)).thenReturn(List.of(7L));
+
+        assertThat(likeCounterStore.like(1L, 7L)).isFalse();
+        assertThat(likeCounterStore.like(1L, 8L)).isTrue();
+        assertThat(likeCounterStore.like(1L, 8L)).isFalse();
+        assertThat(likeCounterStore.unlike(1L, 7L)).isTrue();
+        assertThat(likeCounterStore.like(1L, 9L)).isTrue();
+
+        assertThat(likeCounterStore.pendingDelta(1L)).isEqualTo(1);
+        verify(postRepository, times(1)).findLikerIds(1L);
+    }
+
+    @Test
+    void like_ShouldNotHoldTheEntryLockWhileLoadingLikers() throws Exception {
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findLikerIds(1L)).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                // Another like of the same post gets through while this query is slow
+                other.submit(() -> likeCounterStore.like(1L, 9L)).get(5, TimeUnit.SECONDS);
+            }
+            return List.of(7L);
+        });
+
+        try {
+            assertThat(likeCounterStore.like(1L, 8L)).isTrue();
+        } finally {
+            other.shutdownNow();
+        }
+
+        assertThat(likeCounterStore.like(1L, 9L)).isFalse();
+        assertThat(likeCounterStore.pendingDelta(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void flush_ShouldBatchMembershipsAndNetCountDelta() {
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findLikerIds(1L)).thenReturn(List.of(7L));
+        likeCounterStore.like(1L, 8L);
+        likeCounterStore.like(1L, 9L);
+        likeCounterStore.unlike(1L, 7L);
+
+        likeCounterStore.flush();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO post_likes"), argThat((List<Object[]> rows) -> rows.size() == 2));
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM post_likes"), argThat((List<Object[]> rows) -> rows.size() == 1));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE posts"),
+            argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(1L)));
+        assertThat(likeCounterStore.pendingDelta(1L)).isZero();
+
+        likeCounterStore.flush();
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void flush_ShouldKeepLikesAndDeltasPendingWhenBatchFails() {
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findLikerIds(1L)).thenReturn(List.of());
+        likeCounterStore.like(1L, 8L);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO post_likes"), anyList()))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenReturn(new int[] { 1 });
+
+        likeCounterStore.flush();
+
+        assertThat(likeCounterStore.pendingDelta(1L)).isEqualTo(1);
+        assertThat(likeCounterStore.pendingLikeState(1L, 8L)).isTrue();
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE posts"), anyList());
+
+        likeCounterStore.flush();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE posts"),
+            argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(1L)));
+        assertThat(likeCounterStore.pendingDelta(1L)).isZero();
+        assertThat(likeCounterStore.pendingLikeState(1L, 8L)).isNull();
+    }
+
+    @Test
+    void flush_ShouldNotEvictLikersChangedDuringFlush() {
+        ReflectionTestUtils.setField(likeCounterStore, "maxTrackedPosts", 0);
+        when(postRepository.existsById(anyLong())).thenReturn(true);
+        when(postRepository.findLikerIds(anyLong())).thenReturn(List.of());
+        likeCounterStore.like(1L, 8L);
+        likeCounterStore.like(2L, 8L);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO post_likes"), anyList())).thenAnswer(invocation -> {
+            // Not part of this flush, so post 2's likers are not all on disk yet
+            likeCounterStore.like(2L, 9L);
+            return new int[0];
+        });
+
+        likeCounterStore.flush();
+
+        // Post 1 was idle and reloads; post 2 still knows 9 liked it
+        likeCounterStore.like(1L, 8L);
+        assertThat(likeCounterStore.like(2L, 9L)).isFalse();
+        verify(postRepository, times(2)).findLikerIds(1L);
+        verify(postRepository, times(1)).findLikerIds(2L);
+    }
+
+    @Test
+    void like_ShouldRejectUnknownPost() {
+        when(postRepository.existsById(42L)).thenReturn(false);
+
+        assertThatThrownBy(() -> likeCounterStore.like(42L, 1L))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Post not found");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.live_backend.service;
+
+import java.util.List;
+
+import com.example.live_backend.service.Location.ExperienceLocations;
+import com.example.live_backend.service.Location.LocationFrameCodec;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.data.Offset.offset;
+
+public class LocationFrameCodecTest {
+
+    private final ExperienceLocations locations = new ExperienceLocations();
+    private final LocationFrameCodec.Encoder encoder = new LocationFrameCodec.Encoder(20);
+    private final LocationFrameCodec.Decoder decoder = new LocationFrameCodec.Decoder();
+
+    @Test
+    void decode_ShouldRoundTripKeyframeAndDeltasToFixedPointPrecision() {
+        long now = 1_700_000_000_000L;
+        locations.update(11L, 40.7128001, -74.0060002, now, 0, 0);
+        locations.update(22L, -33.8688, 151.2093, now - 400, 0, 0);
+        List<ExperienceLocations.Position> first = decoder.decode(encode(1));
+
+        assertThat(first).hasSize(2);
+        assertThat(first.get(0).userId).isEqualTo(11L);
+        assertThat(first.get(0).latitude).isCloseTo(40.7128001, offset(1e-7));
+        assertThat(first.get(1).timestampMillis).isEqualTo(now - 400);
+
+        locations.update(22L, -33.8689, 151.2094, now + 1000, 0, 0);
+        byte[] delta = encode(1);
+        List<ExperienceLocations.Position> second = decoder.decode(delta);
+
+        assertThat(delta.length).isLessThan(16);
+        assertThat(second).hasSize(1);
+        assertThat(second.get(0).userId).isEqualTo(22L);
+        assertThat(second.get(0).longitude).isCloseTo(151.2094, offset(1e-7));
+        assertThat(second.get(0).timestampMillis).isEqualTo(now + 1000);
+    }
+
+    @Test
+    void encode_ShouldSendKeyframeWhenSubscriberJoins() {
+        locations.update(11L, 1.0, 2.0, 1000, 0, 0);
+        encode(1);
+        locations.update(11L, 1.5, 2.5, 2000, 0, 0);
+        encode(1);
+
+        // A late subscriber can't decode a delta, but the next frame after they join is a keyframe
+        LocationFrameCodec.Decoder late = new LocationFrameCodec.Decoder();
+        locations.update(11L, 1.6, 2.6, 3000, 0, 0);
+        assertThatThrownBy(() -> late.decode(encoder.encode(locations.drainChanged(), locations::all, 1)))
+            .isInstanceOf(IllegalStateException.class);
+
+        locations.update(11L, 1.7, 2.7, 4000, 0, 0);
+        List<ExperienceLocations.Position> positions = late.decode(encode(2));
+        assertThat(positions).singleElement().satisfies(position -> assertThat(position.latitude).isEqualTo(1.7));
+    }
+
+    private byte[] encode(long subscriberEpoch) {
+        return encoder.encode(locations.drainChanged(), locations::all, subscriberEpoch);
+    }
+}
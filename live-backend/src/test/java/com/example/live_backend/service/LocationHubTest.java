@@ -0,0 +1,127 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.dto.LocationFrame;
+import com.example.live_backend.service.Location.ExperienceLocations;
+import com.example.live_backend.service.Location.LocationHub;
+import com.example.live_backend.service.Location.LocationWatchers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationHubTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private LocationWatchers locationWatchers;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LocationHub locationHub;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(locationHub, "idleEvictionMillis", 600_000L);
+        ReflectionTestUtils.setField(locationHub, "minMoveMeters", 5.0);
+        ReflectionTestUtils.setField(locationHub, "maxSilenceMillis", 30_000L);
+        ReflectionTestUtils.invokeMethod(locationHub, "init");
+    }
+
+    @Test
+    void tick_ShouldSendOneFrameWithLatestPositionPerParticipant() {
+        long now = System.currentTimeMillis();
+        locationHub.update(7L, 1L, 10.0, 20.0, now);
+        locationHub.update(7L, 1L, 10.5, 20.5, now + 1000);
+        locationHub.update(7L, 2L, 11.0, 21.0, now + 500);
+        // Late sample must not roll the position back
+        locationHub.update(7L, 1L, 9.0, 19.0, now + 200);
+
+        locationHub.tick();
+
+        ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/active-experience/7/location"), frame.capture());
+        LocationFrame sent = (LocationFrame) frame.getValue();
+        assertThat(sent.getPositions()).hasSize(2);
+        assertThat(sent.getPositions().get(0).getUserId()).isEqualTo(1L);
+        assertThat(sent.getPositions().get(0).getLatitude()).isEqualTo(10.5);
+    }
+
+    @Test
+    void tick_ShouldStaySilentWhenNothingMoved() {
+        locationHub.update(7L, 1L, 10.0, 20.0, System.currentTimeMillis());
+        locationHub.tick();
+        locationHub.tick();
+
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void update_ShouldSuppressMovesBelowThresholdUntilSilenceExpires() {
+        long now = System.currentTimeMillis();
+        locationHub.update(7L, 1L, 10.0, 20.0, now);
+        locationHub.tick();
+
+        // ~1m north: jitter, dropped
+        assertThat(locationHub.update(7L, 1L, 10.00001, 20.0, now + 1000)).isEqualTo(ExperienceLocations.SUPPRESSED);
+        locationHub.tick();
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+
+        // ~11m in 2s is a 5.5 m/s move
+        assertThat(locationHub.update(7L, 1L, 10.0001, 20.0, now + 2000)).isBetween(5.0, 6.0);
+        // Standing still is still reported once the silence window runs out
+        assertThat(locationHub.update(7L, 1L, 10.0001, 20.0, now + 40_000)).isEqualTo(0.0);
+
+        assertThat(meterRegistry.get("location.updates").tag("result", "suppressed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("location.updates.suppression.ratio").gauge().value()).isEqualTo(0.25);
+    }
+
+    @Test
+    void tick_ShouldEvictIdleExperienceOnlyOncePersisted() {
+        // Everything counts as idle
+        ReflectionTestUtils.setField(locationHub, "idleEvictionMillis", -60_000L);
+        locationHub.update(7L, 1L, 10.0, 20.0, System.currentTimeMillis());
+
+        locationHub.tick();
+        locationHub.tick();
+        // Idle, but the position was never written
+        assertThat(locationHub.latest(7L, 1L)).isNotNull();
+
+        locationHub.drainUnpersisted((activeExperienceId, positions) -> { });
+        locationHub.tick();
+        assertThat(locationHub.latest(7L, 1L)).isNull();
+    }
+
+    @Test
+    void tick_ShouldKeepExperienceWhoseClientClockIsBehind() {
+        // Received just now, stamped by a phone whose clock is far behind ours
+        long longAgo = System.currentTimeMillis() - 700_000;
+        locationHub.update(7L, 1L, 10.0, 20.0, longAgo);
+        locationHub.drainUnpersisted((activeExperienceId, positions) -> { });
+
+        locationHub.tick();
+
+        assertThat(locationHub.latest(7L, 1L)).isNotNull();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Location.LongIntHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LongIntHashMapTest {
+
+    @Test
+    void put_ShouldOverwriteAndGrowPastExpectedSize() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, (int) key);
+        }
+        map.put(50L, 5000);
+
+        assertThat(map.size()).isEqualTo(100);
+        assertThat(map.get(50L)).isEqualTo(5000);
+        assertThat(map.get(100L)).isEqualTo(100);
+        assertThat(map.get(101L)).isEqualTo(LongIntHashMap.MISSING);
+    }
+
+    @Test
+    void remove_ShouldSurviveRemovalsInsideProbeRuns() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key, (int) key * 2);
+        }
+        for (long key = 1; key <= 1000; key += 3) {
+            assertThat(map.remove(key)).isEqualTo((int) key * 2);
+        }
+
+        assertThat(map.size()).isEqualTo(666);
+        for (long key = 1; key <= 1000; key++) {
+            assertThat(map.get(key)).isEqualTo(key % 3 == 1 ? LongIntHashMap.MISSING : (int) key * 2);
+        }
+    }
+
+    @Test
+    void remove_ShouldReturnMissingForAbsentKey() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(1L, 10);
+
+        assertThat(map.remove(2L)).isEqualTo(LongIntHashMap.MISSING);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void put_ShouldRejectReservedKey() {
+        assertThatThrownBy(() -> new LongIntHashMap(4).put(0L, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.repository.User.ActiveExperienceParticipantRepository;
+import com.example.live_backend.service.Location.ParticipantAccessCache;
+import com.example.live_backend.service.Location.ParticipantAccessCache.Access;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ParticipantAccessCacheTest {
+
+    @Mock
+    private ActiveExperienceParticipantRepository participantRepository;
+
+    @InjectMocks
+    private ParticipantAccessCache participantAccessCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(participantAccessCache, "ttlMillis", 300_000L);
+        ReflectionTestUtils.setField(participantAccessCache, "negativeTtlMillis", 5_000L);
+    }
+
+    @Test
+    void access_ShouldQueryOncePerParticipantIncludingNonMembers() {
+        when(participantRepository.findShareLocation(7L, 1L)).thenReturn(Optional.of(true));
+        when(participantRepository.findShareLocation(7L, 2L)).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(participantAccessCache.access(7L, 1L)).isEqualTo(Access.SHARING);
+            assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.NOT_PARTICIPANT);
+        }
+
+        verify(participantRepository, times(1)).findShareLocation(7L, 1L);
+        verify(participantRepository, times(1)).findShareLocation(7L, 2L);
+    }
+
+    @Test
+    void invalidate_ShouldReloadOnlyThatParticipant() {
+        when(participantRepository.findShareLocation(7L, 1L)).thenReturn(Optional.empty(), Optional.of(true));
+        when(participantRepository.findShareLocation(8L, 1L)).thenReturn(Optional.of(true));
+        participantAccessCache.access(7L, 1L);
+        participantAccessCache.access(8L, 1L);
+
+        participantAccessCache.invalidate(7L, 1L);
+
+        assertThat(participantAccessCache.access(7L, 1L)).isEqualTo(Access.SHARING);
+        participantAccessCache.access(8L, 1L);
+        verify(participantRepository, times(2)).findShareLocation(7L, 1L);
+        verify(participantRepository, times(1)).findShareLocation(8L, 1L);
+    }
+
+    @Test
+    void invalidateUser_ShouldReloadEveryExperienceOfThatUser() {
+        when(participantRepository.findShareLocation(7L, 1L)).thenReturn(Optional.of(true), Optional.of(false));
+        when(participantRepository.findShareLocation(8L, 1L)).thenReturn(Optional.of(true), Optional.of(false));
+        when(participantRepository.findShareLocation(7L, 2L)).thenReturn(Optional.of(true));
+        participantAccessCache.access(7L, 1L);
+        participantAccessCache.access(8L, 1L);
+        participantAccessCache.access(7L, 2L);
+
+        participantAccessCache.invalidateUser(1L);
+
+        assertThat(participantAccessCache.access(7L, 1L)).isEqualTo(Access.NOT_SHARING);
+        assertThat(participantAccessCache.access(8L, 1L)).isEqualTo(Access.NOT_SHARING);
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.SHARING);
+        verify(participantRepository, times(1)).findShareLocation(7L, 2L);
+    }
+
+    @Test
+    void access_ShouldReloadNonMembersAfterShorterTtl() {
+        ReflectionTestUtils.setField(participantAccessCache, "negativeTtlMillis", 0L);
+        when(participantRepository.findShareLocation(7L, 1L)).thenReturn(Optional.of(true));
+        when(participantRepository.findShareLocation(7L, 2L)).thenReturn(Optional.empty(), Optional.of(true));
+
+        participantAccessCache.access(7L, 1L);
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.NOT_PARTICIPANT);
+        participantAccessCache.access(7L, 1L);
+
+        assertThat(participantAccessCache.access(7L, 2L)).isEqualTo(Access.SHARING);
+        verify(participantRepository, times(1)).findShareLocation(7L, 1L);
+    }
+
+    @Test
+    void access_ShouldReloadAfterTtl() {
+        ReflectionTestUtils.setField(participantAccessCache, "ttlMillis", 0L);
+        when(participantRepository.findShareLocation(7L, 1L)).thenReturn(Optional.of(true));
+
+        participantAccessCache.access(7L, 1L);
+        participantAccessCache.access(7L, 1L);
+        participantAccessCache.evictExpired();
+
+        verify(participantRepository, times(2)).findShareLocation(7L, 1L);
+        assertThat(participantAccessCache.size()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Location.LocationHub;
+import com.example.live_backend.service.Location.LocationWatchers;
+import com.example.live_backend.service.Location.ParticipantLocationWriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ParticipantLocationWriterTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private LocationWatchers locationWatchers;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LocationHub locationHub;
+    private ParticipantLocationWriter writer;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        locationHub = new LocationHub(messagingTemplate, new SimpleMeterRegistry(), locationWatchers);
+        ReflectionTestUtils.setField(locationHub, "idleEvictionMillis", 600_000L);
+        ReflectionTestUtils.setField(locationHub, "minMoveMeters", 5.0);
+        ReflectionTestUtils.setField(locationHub, "maxSilenceMillis", 30_000L);
+        ReflectionTestUtils.invokeMethod(locationHub, "init");
+        writer = new ParticipantLocationWriter(locationHub, jdbcTemplate);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void flush_ShouldWriteOnlyLatestPositionPerParticipant() {
+        locationHub.update(7L, 1L, 10.0, 20.0, now);
+        locationHub.update(7L, 1L, 10.1, 20.0, now + 1000);
+        locationHub.update(7L, 1L, 10.2, 20.0, now + 2000);
+        locationHub.update(7L, 2L, 11.0, 21.0, now + 500);
+
+        writer.flush();
+        // Nothing moved since, so nothing to write
+        writer.flush();
+
+        List<Object[]> rows = capturedBatches(1).get(0);
+        assertThat(rows).hasSize(2);
+        assertThat(rows).anySatisfy(row -> assertThat(row).containsSequence(10.2, 20.0).endsWith(7L, 1L));
+        assertThat(rows).anySatisfy(row -> assertThat(row).containsSequence(11.0, 21.0).endsWith(7L, 2L));
+    }
+
+    @Test
+    void flush_ShouldRetryFailedBatchWithNewestPosition() {
+        locationHub.update(7L, 1L, 10.0, 20.0, now);
+        locationHub.update(7L, 2L, 11.0, 21.0, now);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenReturn(new int[] { 1, 1 });
+
+        writer.flush();
+        // Moved again before the retry; the retry carries this position, not the failed one
+        locationHub.update(7L, 1L, 10.1, 20.0, now + 1000);
+        writer.flush();
+
+        List<List<Object[]>> batches = capturedBatches(2);
+        assertThat(batches.get(0)).hasSize(2);
+        assertThat(batches.get(1)).hasSize(2);
+        assertThat(batches.get(1)).anySatisfy(row -> assertThat(row).containsSequence(10.1, 20.0).endsWith(7L, 1L));
+        assertThat(batches.get(1)).anySatisfy(row -> assertThat(row).containsSequence(11.0, 21.0).endsWith(7L, 2L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> capturedBatches(int count) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(count)).batchUpdate(anyString(), rows.capture());
+        return rows.getAllValues();
+    }
+}
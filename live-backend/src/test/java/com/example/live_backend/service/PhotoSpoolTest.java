@@ -0,0 +1,70 @@
+package com.example.live_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import com.example.live_backend.service.Event.PhotoSpool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PhotoSpoolTest {
+
+    @TempDir
+    Path dir;
+
+    private PhotoSpool photoSpool;
+
+    @BeforeEach
+    void setUp() {
+        photoSpool = new PhotoSpool();
+        ReflectionTestUtils.setField(photoSpool, "directory", dir.toString());
+    }
+
+    @Test
+    void pending_ShouldListClaimedPhotosInUploadOrderUntilRemoved() throws Exception {
+        Path staged = photoSpool.stage(List.of(
+            new MockMultipartFile("photos", "a.jpg", "image/jpeg", "first".getBytes(StandardCharsets.UTF_8)),
+            new MockMultipartFile("photos", "b.png", "image/png", "second".getBytes(StandardCharsets.UTF_8))));
+        // Not a post's photos until the post commits
+        assertThat(photoSpool.pendingPosts()).isEmpty();
+
+        photoSpool.claim(staged, 42L);
+
+        assertThat(photoSpool.pendingPosts()).containsExactly(42L);
+        List<PhotoSpool.SpooledPhoto> photos = photoSpool.pending(42L);
+        assertThat(photos).extracting(PhotoSpool.SpooledPhoto::getFilename).containsExactly("a.jpg", "b.png");
+        assertThat(photos).extracting(PhotoSpool.SpooledPhoto::getContentType).containsExactly("image/jpeg", "image/png");
+        assertThat(Files.readString(photos.get(1).getFile())).isEqualTo("second");
+
+        photoSpool.remove(photos.get(0));
+        assertThat(photoSpool.pending(42L)).extracting(PhotoSpool.SpooledPhoto::getFilename).containsExactly("b.png");
+
+        photoSpool.finish(42L);
+        assertThat(photoSpool.pendingPosts()).isEmpty();
+        assertThat(photoSpool.pending(42L)).isEmpty();
+    }
+
+    @Test
+    void deleteStagedBefore_ShouldDropOnlyOldUnclaimedPhotos() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("photos", "a.jpg", "image/jpeg", new byte[] { 1 });
+        Path abandoned = photoSpool.stage(List.of(photo));
+        Path fresh = photoSpool.stage(List.of(photo));
+        photoSpool.claim(photoSpool.stage(List.of(photo)), 7L);
+        Files.setLastModifiedTime(abandoned, FileTime.fromMillis(System.currentTimeMillis() - 7_200_000L));
+
+        photoSpool.deleteStagedBefore(System.currentTimeMillis() - 3_600_000L);
+
+        assertThat(abandoned).doesNotExist();
+        assertThat(fresh).exists();
+        assertThat(photoSpool.pendingPosts()).containsExactly(7L);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.live_backend.service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Event.PhotoSpool;
+import com.example.live_backend.service.Event.PostCreatedEvent;
+import com.example.live_backend.service.Event.PostEventBus;
+import com.example.live_backend.service.Event.PostPipeline;
+import com.example.live_backend.service.Feed.HomeTimelineCache;
+import com.example.live_backend.service.Feed.TrendingEngine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PostEventBusTest {
+
+    @Mock
+    private AchievementService achievementService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private HomeTimelineCache homeTimelineCache;
+
+    @Mock
+    private TrendingEngine trendingEngine;
+
+    @Mock
+    private PhotoStorageService photoStorageService;
+
+    @Mock
+    private PostService postService;
+
+    @TempDir
+    Path dir;
+
+    private PhotoSpool photoSpool;
+    private PostPipeline postPipeline;
+
+    @BeforeEach
+    void setUp() {
+        photoSpool = new PhotoSpool();
+        ReflectionTestUtils.setField(photoSpool, "directory", dir.toString());
+    }
+
+    @Test
+    void retryPendingPhotos_ShouldResumeWithPhotosNotYetStored() throws Exception {
+        when(postRepository.existsById(42L)).thenReturn(true);
+        when(photoStorageService.savePhoto(any(Path.class), eq("a.jpg"), any())).thenReturn("url-a");
+        when(photoStorageService.savePhoto(any(Path.class), eq("b.jpg"), any()))
+            .thenThrow(new RuntimeException("S3 down"))
+            .thenReturn("url-b");
+        Path staged = photoSpool.stage(List.of(photo("a.jpg"), photo("b.jpg")));
+
+        bus().onPostCreated(new PostCreatedEvent(42L, 1L, LocalDateTime.now(), false, staged));
+        drain();
+
+        verify(postService).addImageUrls(42L, List.of("url-a"));
+        assertThat(photoSpool.pending(42L)).extracting(PhotoSpool.SpooledPhoto::getFilename).containsExactly("b.jpg");
+
+        // A fresh pipeline, as after a restart
+        bus().retryPendingPhotos();
+        drain();
+
+        verify(postService).addImageUrls(42L, List.of("url-b"));
+        verify(photoStorageService, times(1)).savePhoto(any(Path.class), eq("a.jpg"), any());
+        assertThat(photoSpool.pendingPosts()).isEmpty();
+    }
+
+    @Test
+    void retryPendingPhotos_ShouldDropPhotosOfDeletedPost() throws Exception {
+        when(postRepository.existsById(42L)).thenReturn(false);
+        photoSpool.claim(photoSpool.stage(List.of(photo("a.jpg"))), 42L);
+
+        bus().retryPendingPhotos();
+        drain();
+
+        assertThat(photoSpool.pendingPosts()).isEmpty();
+    }
+
+    private PostEventBus bus() {
+        postPipeline = new PostPipeline(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(postPipeline, "threads", 1);
+        ReflectionTestUtils.setField(postPipeline, "queueCapacity", 10);
+        ReflectionTestUtils.invokeMethod(postPipeline, "start");
+        return new PostEventBus(achievementService, userRepository, postRepository, homeTimelineCache,
+            trendingEngine, photoStorageService, postService, postPipeline, photoSpool);
+    }
+
+    // Waits for every queued task
+    private void drain() {
+        ReflectionTestUtils.invokeMethod(postPipeline, "stop");
+    }
+
+    private static MockMultipartFile photo(String filename) {
+        return new MockMultipartFile("photos", filename, "image/jpeg", new byte[] { 1, 2, 3 });
+    }
+}
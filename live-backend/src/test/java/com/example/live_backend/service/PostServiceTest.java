@@ -0,0 +1,57 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.dto.Post.PostRequest;
+import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.service.Event.PhotoSpool;
+import com.example.live_backend.service.Event.PostPipeline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PostServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostPipeline postPipeline;
+
+    @Mock
+    private PhotoSpool photoSpool;
+
+    @InjectMocks
+    private PostService postService;
+
+    @Test
+    void createPost_ShouldRefuseWithoutSavingWhenPipelineIsFull() throws Exception {
+        when(postPipeline.hasRoom(true)).thenReturn(false);
+        List<MultipartFile> photos =
+            List.of(new MockMultipartFile("photos", "a.jpg", "image/jpeg", new byte[] { 1 }));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> postService.createPost(new User(), new PostRequest(), photos));
+
+        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verify(photoSpool, never()).stage(anyList());
+        verify(postRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Feed.RotatingBloomFilter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RotatingBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldHaveNoFalseNegativesAndLowFalsePositiveRate() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(8192, 5, 800);
+        LongStream.rangeClosed(1, 800).forEach(filter::add);
+
+        assertThat(LongStream.rangeClosed(1, 800).allMatch(filter::mightContain)).isTrue();
+
+        long falsePositives = LongStream.range(1_000_000, 1_010_000).filter(filter::mightContain).count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void add_ShouldForgetOldestGenerationAfterTwoRotations() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(8192, 5, 100);
+        LongStream.rangeClosed(1, 100).forEach(filter::add);
+        LongStream.rangeClosed(101, 200).forEach(filter::add);
+
+        // First generation is now "previous" and still remembered
+        assertThat(filter.mightContain(1L)).isTrue();
+
+        LongStream.rangeClosed(201, 300).forEach(filter::add);
+
+        long remembered = LongStream.rangeClosed(1, 100).filter(filter::mightContain).count();
+        assertThat(remembered).isLessThan(10);
+        assertThat(filter.mightContain(300L)).isTrue();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Graph.SocialGraphIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SocialGraphIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private SocialGraphIndex socialGraphIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(socialGraphIndex, "compactThreshold", 1000);
+        // 1 <-> 2, 1 <-> 3, 1 -> 4, 5 -> 1
+        long[] followers = { 1, 2, 1, 3, 1, 5 };
+        long[] followees = { 2, 1, 3, 1, 4, 1 };
+        socialGraphIndex.rebuild(followers, followees, followers.length);
+    }
+
+    @Test
+    void lookups_ShouldBeServedFromCsr() {
+        assertThat(socialGraphIndex.following(1L)).containsExactly(2L, 3L, 4L);
+        assertThat(socialGraphIndex.followers(1L)).containsExactly(2L, 3L, 5L);
+        assertThat(socialGraphIndex.friends(1L)).containsExactly(2L, 3L);
+        assertThat(socialGraphIndex.isFriends(1L, 4L)).isFalse();
+        assertThat(socialGraphIndex.following(99L)).isEmpty();
+    }
+
+    @Test
+    void followAndUnfollow_ShouldApplyIncrementallyAndIdempotently() {
+        socialGraphIndex.addFollow(4L, 1L);
+        socialGraphIndex.addFollow(4L, 1L);
+        socialGraphIndex.removeFollow(1L, 3L);
+        socialGraphIndex.addFollow(6L, 1L);
+
+        assertThat(socialGraphIndex.friends(1L)).containsExactly(2L, 4L);
+        assertThat(socialGraphIndex.followers(1L)).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(socialGraphIndex.followerCount(3L)).isZero();
+        assertThat(socialGraphIndex.isFriends(4L, 1L)).isTrue();
+    }
+
+    @Test
+    void compaction_ShouldKeepTheSameGraph() {
+        ReflectionTestUtils.setField(socialGraphIndex, "compactThreshold", 2);
+
+        socialGraphIndex.addFollow(4L, 1L);
+        socialGraphIndex.removeFollow(1L, 2L);
+
+        assertThat(socialGraphIndex.following(1L)).containsExactly(3L, 4L);
+        assertThat(socialGraphIndex.followers(1L)).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(socialGraphIndex.friends(1L)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void snapshot_ShouldRoundTripThroughMappedFile(@TempDir Path dir) throws Exception {
+        socialGraphIndex.addFollow(4L, 1L);
+        Path file = dir.resolve("graph.snap");
+        socialGraphIndex.writeSnapshot(file, 42L);
+
+        socialGraphIndex.rebuild(new long[0], new long[0], 0);
+        assertThat(socialGraphIndex.loadSnapshot(file)).isEqualTo(42L);
+
+        assertThat(socialGraphIndex.following(1L)).containsExactly(2L, 3L, 4L);
+        assertThat(socialGraphIndex.followers(1L)).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(socialGraphIndex.friends(1L)).containsExactly(2L, 3L, 4L);
+
+        // Changes after loading go to the overlay on top of the mapped arrays
+        socialGraphIndex.removeFollow(2L, 1L);
+        assertThat(socialGraphIndex.friends(1L)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void tailEvents_ShouldApplyFollowsFromOtherInstancesAndAdvancePastSafeVersion() throws Exception {
+        ReflectionTestUtils.setField(socialGraphIndex, "tailedVersion", 10L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any())).thenReturn(11L);
+        ResultSet follow = event(7L, 1L, true);
+        ResultSet unfollow = event(5L, 1L, false);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(follow);
+            handler.processRow(unfollow);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any());
+
+        socialGraphIndex.tailEvents();
+
+        assertThat(socialGraphIndex.followers(1L)).containsExactly(2L, 3L, 7L);
+        assertThat(socialGraphIndex.following(5L)).isEmpty();
+
+        // The next tail starts from the version that was safe before this one read
+        socialGraphIndex.tailEvents();
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(10L));
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(11L));
+    }
+
+    @Test
+    void loadSnapshot_ShouldRefuseFilesTooLargeToMap(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("graph.snap");
+        // Sparse, so nothing near 2 GB is actually written
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(1), Integer.MAX_VALUE);
+        }
+
+        assertThatThrownBy(() -> socialGraphIndex.loadSnapshot(file)).isInstanceOf(IOException.class);
+        assertThat(socialGraphIndex.following(1L)).containsExactly(2L, 3L, 4L);
+    }
+
+    private static ResultSet event(long followerId, long followeeId, boolean followed) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(followerId);
+        when(rs.getLong(2)).thenReturn(followeeId);
+        when(rs.getBoolean(3)).thenReturn(followed);
+        return rs;
+    }
+}
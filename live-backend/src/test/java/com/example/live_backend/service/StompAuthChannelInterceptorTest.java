@@ -0,0 +1,107 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.security.CustomUserDetailsService;
+import com.example.live_backend.security.JwtUtil;
+import com.example.live_backend.security.StompAuthChannelInterceptor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StompAuthChannelInterceptorTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private UserDetails alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = User.withUsername("alice").password("unused").roles("USER").build();
+    }
+
+    @Test
+    void preSend_ShouldAttachUserOnValidConnect() {
+        when(jwtUtil.extractUsername("token")).thenReturn("alice");
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        when(jwtUtil.validateToken("token", alice)).thenReturn(true);
+
+        Message<?> result = interceptor.preSend(frame(StompCommand.CONNECT, null, "Bearer token"), channel);
+
+        Principal user = MessageHeaderAccessor.getAccessor(result, StompHeaderAccessor.class).getUser();
+        assertThat(user).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+        assertThat(user.getName()).isEqualTo("alice");
+    }
+
+    @Test
+    void preSend_ShouldRejectConnectWithoutValidToken() {
+        when(jwtUtil.extractUsername("expired")).thenReturn("alice");
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        when(jwtUtil.validateToken("expired", alice)).thenReturn(false);
+
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, null, null), channel))
+            .isInstanceOf(MessagingException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, null, "Bearer expired"), channel))
+            .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void preSend_ShouldRejectSendAndSubscribeOnUnauthenticatedSession() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, null, null), channel))
+            .isInstanceOf(MessagingException.class)
+            .hasMessage("Not authenticated");
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, null), channel))
+            .isInstanceOf(MessagingException.class)
+            .hasMessage("Not authenticated");
+    }
+
+    @Test
+    void preSend_ShouldPassFramesFromAuthenticatedSessionWithoutParsingToken() {
+        Principal user = new UsernamePasswordAuthenticationToken(alice, null, alice.getAuthorities());
+        Message<?> send = frame(StompCommand.SEND, user, null);
+        Message<?> subscribe = frame(StompCommand.SUBSCRIBE, user, null);
+
+        assertThat(interceptor.preSend(send, channel)).isSameAs(send);
+        assertThat(interceptor.preSend(subscribe, channel)).isSameAs(subscribe);
+        verifyNoInteractions(jwtUtil, userDetailsService);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, Principal user, String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.service.Feed.TimelineRing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimelineRingTest {
+
+    private static final long TOP = Long.MAX_VALUE;
+
+    @Test
+    void before_ShouldReturnNewestFirstBelowCursor() {
+        TimelineRing ring = new TimelineRing(10);
+        for (long id = 1; id <= 5; id++) {
+            ring.append(id * 10, id);
+        }
+
+        assertThat(ring.before(TOP, TOP, 3).ids).containsExactly(5L, 4L, 3L);
+        assertThat(ring.before(30, 3L, 10).ids).containsExactly(2L, 1L);
+        assertThat(ring.before(30, 3L, 10).createdAt).containsExactly(20L, 10L);
+    }
+
+    @Test
+    void append_ShouldOrderByCreatedAtThenId() {
+        TimelineRing ring = new TimelineRing(10);
+        // A post with a lower id but a later createdAt is newer
+        ring.append(20, 1L);
+        ring.append(10, 2L);
+        ring.append(20, 3L);
+
+        assertThat(ring.before(TOP, TOP, 10).ids).containsExactly(3L, 1L, 2L);
+        // Ties on createdAt continue by id, as the database cursor does
+        assertThat(ring.before(20, 3L, 10).ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void append_ShouldKeepOrderAndDropDuplicatesWhenDeliveredOutOfOrder() {
+        TimelineRing ring = new TimelineRing(10);
+        ring.append(10, 1L);
+        ring.append(30, 3L);
+        ring.append(20, 2L);
+        ring.append(30, 3L);
+
+        assertThat(ring.size()).isEqualTo(3);
+        assertThat(ring.before(TOP, TOP, 10).ids).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void append_ShouldOverwriteOldestOnceFull() {
+        TimelineRing ring = new TimelineRing(3);
+        for (long id = 1; id <= 5; id++) {
+            ring.append(id * 10, id);
+        }
+        ring.append(10, 1L);
+
+        assertThat(ring.isFull()).isTrue();
+        assertThat(ring.before(TOP, TOP, 10).ids).containsExactly(5L, 4L, 3L);
+    }
+
+    @Test
+    void key_ShouldKeepMicrosecondOrder() {
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        assertThat(TimelineRing.key(at.plusNanos(1_000))).isGreaterThan(TimelineRing.key(at));
+        assertThat(TimelineRing.key(at.plusSeconds(1))).isEqualTo(TimelineRing.key(at) + 1_000_000);
+    }
+}
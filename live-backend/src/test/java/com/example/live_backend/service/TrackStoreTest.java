@@ -0,0 +1,176 @@
+package com.example.live_backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.example.live_backend.service.Location.TrackFile;
+import com.example.live_backend.service.Location.TrackStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Offset.offset;
+
+public class TrackStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void read_ShouldResumeDeltaChainAfterReopenAndDownsample() throws Exception {
+        TrackStore store = store();
+        long start = 1_700_000_000_000L;
+        // A second apart, ~11m north each; 20k samples outgrow the first 64 KB mapping
+        for (int i = 0; i < 10_000; i++) {
+            store.append(3L, 7L, start + i * 1000L, 48.85 + i * 0.0001, 2.35);
+        }
+        store.closeIdle();
+
+        TrackStore reopened = store();
+        for (int i = 10_000; i < 20_000; i++) {
+            reopened.append(3L, 7L, start + i * 1000L, 48.85 + i * 0.0001, 2.35);
+        }
+
+        List<double[]> points = new ArrayList<>();
+        TrackStore.TrackSummary summary = reopened.read(3L, 7L, 10_000,
+            (timestamp, latitude, longitude) -> points.add(new double[] { timestamp, latitude }));
+
+        assertThat(summary.getSamples()).isEqualTo(20_000);
+        assertThat(summary.getDistanceMeters()).isCloseTo(19_999 * 11.1195, offset(50.0));
+        // One point per 10s plus the final sample
+        assertThat(points).hasSize(2001);
+        assertThat(points.get(points.size() - 1)[1]).isCloseTo(48.85 + 19_999 * 0.0001, offset(1e-7));
+    }
+
+    @Test
+    void export_ShouldWriteOnePointLinePerSampleAndASummaryPerParticipant() throws Exception {
+        TrackStore store = store();
+        store.append(3L, 7L, 1000, 48.85, 2.35);
+        store.append(3L, 7L, 2000, 48.86, 2.35);
+        store.append(3L, 9L, 1500, 48.80, 2.30);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.export(3L, 0, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(5);
+        assertThat(new ObjectMapper().readTree(lines[2]).get("type").asText()).isEqualTo("summary");
+        assertThat(new ObjectMapper().readTree(lines[2]).get("distanceMeters").asLong()).isEqualTo(1112);
+    }
+
+    @Test
+    void append_ShouldRollToNewSegmentAndReadAcrossSegments() throws Exception {
+        TrackStore store = store();
+        ReflectionTestUtils.setField(store, "segmentBytes", 64 * 1024);
+        long start = 1_700_000_000_000L;
+        // ~5 bytes each, so 30k samples span three 64 KB segments
+        for (int i = 0; i < 20_000; i++) {
+            store.append(3L, 7L, start + i * 1000L, 48.85 + i * 0.0001, 2.35);
+        }
+        store.closeIdle();
+        for (int i = 20_000; i < 30_000; i++) {
+            store.append(3L, 7L, start + i * 1000L, 48.85 + i * 0.0001, 2.35);
+        }
+
+        Path track = dir.resolve("3").resolve("7.trk");
+        assertThat(TrackFile.segments(track)).containsExactly(
+            track, dir.resolve("3").resolve("7.trk.1"), dir.resolve("3").resolve("7.trk.2"));
+        assertThat(store.participants(3L)).containsExactly(7L);
+
+        List<double[]> points = new ArrayList<>();
+        TrackStore.TrackSummary summary = store.read(3L, 7L, 0,
+            (timestamp, latitude, longitude) -> points.add(new double[] { timestamp, latitude }));
+        assertThat(summary.getSamples()).isEqualTo(30_000);
+        assertThat(points.get(29_999)[0]).isEqualTo(start + 29_999 * 1000.0);
+        assertThat(points.get(29_999)[1]).isCloseTo(48.85 + 29_999 * 0.0001, offset(1e-7));
+    }
+
+    @Test
+    void deleteExpired_ShouldRemoveOnlyClosedTracksPastRetention() throws Exception {
+        TrackStore store = store();
+        store.append(3L, 7L, 1000, 48.85, 2.35);
+        store.append(4L, 8L, 1000, 48.85, 2.35);
+        store.closeIdle();
+        store.append(5L, 9L, 1000, 48.85, 2.35);
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 2 * 86_400_000L);
+        Files.setLastModifiedTime(dir.resolve("3").resolve("7.trk"), old);
+        Files.setLastModifiedTime(dir.resolve("5").resolve("9.trk"), old);
+
+        store.deleteExpired();
+
+        // 3 expired; 4 is recent; 5 is old but still open
+        assertThat(Files.exists(dir.resolve("3"))).isFalse();
+        assertThat(store.participants(4L)).containsExactly(8L);
+        assertThat(store.participants(5L)).containsExactly(9L);
+    }
+
+    @Test
+    void export_ShouldNotBlockAppendsWhileClientIsSlow() throws Exception {
+        TrackStore store = store();
+        for (int i = 0; i < 2_000; i++) {
+            store.append(3L, 7L, i * 1000L, 48.85 + i * 0.0001, 2.35);
+        }
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Stalls on its first write, which the generator makes mid-track once its buffer fills
+        OutputStream stalled = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> export = executor.submit(() -> {
+                store.export(3L, 0, stalled);
+                return null;
+            });
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> append = executor.submit(() -> store.append(3L, 7L, 2_000_000L, 49.0, 2.35));
+            append.get(5, TimeUnit.SECONDS);
+
+            release.countDown();
+            export.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(store.read(3L, 7L, 0, (timestamp, latitude, longitude) -> { }).getSamples()).isEqualTo(2_001);
+    }
+
+    private TrackStore store() {
+        TrackStore store = new TrackStore(new ObjectMapper());
+        ReflectionTestUtils.setField(store, "directory", dir.toString());
+        ReflectionTestUtils.setField(store, "segmentBytes", TrackFile.DEFAULT_SEGMENT_BYTES);
+        ReflectionTestUtils.setField(store, "retentionMillis", 86_400_000L);
+        // Every track counts as idle, so closeIdle releases them all
+        ReflectionTestUtils.setField(store, "idleCloseMillis", -60_000L);
+        return store;
+    }
+}
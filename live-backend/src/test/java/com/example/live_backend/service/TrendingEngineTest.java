@@ -0,0 +1,70 @@
+package com.example.live_backend.service;
+
+import com.example.live_backend.repository.Social.PostRepository;
+import com.example.live_backend.service.Feed.TrendingEngine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+public class TrendingEngineTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private TrendingEngine trendingEngine;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trendingEngine, "halfLifeHours", 6.0);
+        ReflectionTestUtils.setField(trendingEngine, "windowHours", 48L);
+        ReflectionTestUtils.setField(trendingEngine, "topK", 2);
+    }
+
+    @Test
+    void recompute_ShouldRankFreshActivityAboveOldViralPost() {
+        LocalDateTime now = LocalDateTime.now();
+        trendingEngine.seed(1L, now.minusHours(24), 10, 0);
+        trendingEngine.recordPost(2L, now);
+        trendingEngine.recordLike(2L);
+        trendingEngine.recordLike(2L);
+
+        trendingEngine.recompute();
+
+        assertThat(trendingEngine.top(10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void recompute_ShouldKeepOnlyTopKAndDropPostsOutsideWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        trendingEngine.seed(1L, now.minusHours(72), 500, 0);
+        trendingEngine.recordPost(2L, now);
+        trendingEngine.recordPost(3L, now);
+        trendingEngine.recordPost(4L, now);
+        trendingEngine.recordComment(3L);
+        trendingEngine.recordLike(4L);
+
+        trendingEngine.recompute();
+
+        assertThat(trendingEngine.top(10)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void recordLike_ShouldIgnoreUntrackedPosts() {
+        trendingEngine.recordLike(99L);
+
+        trendingEngine.recompute();
+
+        assertThat(trendingEngine.top(10)).isEmpty();
+    }
+}
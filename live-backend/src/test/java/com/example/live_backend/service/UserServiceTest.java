@@ -3,7 +3,10 @@ package com.example.live_backend.service;
 import com.example.live_backend.dto.User.UserRequest;
 import com.example.live_backend.dto.User.UserResponse;
 import com.example.live_backend.model.User.User;
+import com.example.live_backend.repository.User.FollowEventRepository;
 import com.example.live_backend.repository.User.UserRepository;
+import com.example.live_backend.service.Feed.HomeTimelineCache;
+import com.example.live_backend.service.Graph.SocialGraphIndex;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,10 +16,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +31,15 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FollowEventRepository followEventRepository;
+
+    @Mock
+    private SocialGraphIndex socialGraphIndex;
+
+    @Mock
+    private HomeTimelineCache homeTimelineCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -86,4 +101,30 @@ public class UserServiceTest {
             userService.updateUser(1L, updateRequest);
         });
     }
-} 
\ No newline at end of file
+
+    @Test
+    void followUser_ShouldNotChangeCountsWhenAlreadyFollowing() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.insertFollow(1L, 2L)).thenReturn(0);
+
+        userService.followUser(1L, 2L);
+
+        verify(userRepository, never()).adjustFollowingCount(anyLong(), anyInt());
+        verify(userRepository, never()).adjustFollowerCount(anyLong(), anyInt());
+        verify(socialGraphIndex).addFollow(1L, 2L);
+    }
+
+    @Test
+    void bulkFollow_ShouldInsertOnlyNewFollowsInOneStatement() {
+        when(userRepository.findNotFollowedAmong(1L, List.of(2L, 3L, 4L))).thenReturn(List.of(3L, 4L));
+
+        List<Long> followed = userService.bulkFollow(1L, List.of(2L, 3L, 3L, 4L));
+
+        assertEquals(List.of(3L, 4L), followed);
+        verify(userRepository).insertFollows(1L, List.of(3L, 4L));
+        verify(userRepository).incrementFollowerCounts(List.of(3L, 4L));
+        verify(userRepository).adjustFollowingCount(1L, 2);
+        verify(followEventRepository).recordFollows(1L, List.of(3L, 4L));
+        verify(homeTimelineCache).invalidate(1L);
+    }
+}
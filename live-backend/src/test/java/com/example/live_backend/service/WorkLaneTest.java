@@ -0,0 +1,124 @@
+package com.example.live_backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.live_backend.service.Event.WorkLane;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class WorkLaneTest {
+
+    @Test
+    void submit_ShouldDropAndCountWhenQueueIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkLane lane = new WorkLane("test", 1, 1, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        // Occupy the only worker, then fill the only queue slot
+        lane.submit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        AtomicInteger queuedRuns = new AtomicInteger();
+        lane.submit(queuedRuns::incrementAndGet);
+
+        assertThat(lane.depth()).isEqualTo(1);
+        assertThat(registry.get("posts.pipeline.queue.depth").tag("lane", "test").gauge().value()).isEqualTo(1.0);
+        assertThat(lane.lagMillis()).isGreaterThanOrEqualTo(0);
+
+        // Must neither run on the submitting thread nor block it
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        lane.submit(() -> ranOn.set(Thread.currentThread()));
+        assertThat(ranOn.get()).isNull();
+        assertThat(registry.get("posts.pipeline.rejected").tag("lane", "test").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        lane.shutdown(5);
+        assertThat(queuedRuns.get()).isEqualTo(1);
+        assertThat(lane.depth()).isZero();
+        assertThat(ranOn.get()).isNull();
+    }
+
+    @Test
+    void submit_ShouldWaitForSlotWhenOfferTimeoutIsSet() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkLane lane = new WorkLane("test", 1, 1, 5_000, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        lane.submit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        lane.submit(() -> { });
+        assertThat(lane.hasRoom()).isFalse();
+
+        // Frees the worker shortly after the next submit starts waiting
+        new Thread(() -> {
+            sleepQuietly(100);
+            release.countDown();
+        }).start();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(lane.submit(runs::incrementAndGet)).isTrue();
+        lane.shutdown(5);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(registry.get("posts.pipeline.rejected").tag("lane", "test").counter().count()).isZero();
+    }
+
+    @Test
+    void submit_ShouldReturnFalseWhenStillFullAfterOfferTimeout() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkLane lane = new WorkLane("test", 1, 1, 50, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        lane.submit(() -> awaitQuietly(release));
+        lane.submit(() -> { });
+
+        assertThat(lane.submit(() -> { })).isFalse();
+        assertThat(registry.get("posts.pipeline.rejected").tag("lane", "test").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        lane.shutdown(5);
+    }
+
+    @Test
+    void submit_ShouldCountFailuresAndKeepRunning() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkLane lane = new WorkLane("test", 1, 10, registry);
+        AtomicInteger runs = new AtomicInteger();
+
+        lane.submit(() -> {
+            throw new RuntimeException("boom");
+        });
+        lane.submit(runs::incrementAndGet);
+        lane.shutdown(5);
+
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(registry.get("posts.pipeline.failures").tag("lane", "test").counter().count()).isEqualTo(1.0);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}